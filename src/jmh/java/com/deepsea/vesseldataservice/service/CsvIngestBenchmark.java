@@ -0,0 +1,174 @@
+package com.deepsea.vesseldataservice.service;
+
+import com.deepsea.vesseldataservice.model.ValidVesselData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Ingestion hot path per row over vessel_data_min.csv repeated up to ROWS; run with the gc profiler for allocations
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvIngestBenchmark {
+
+    static final int ROWS = 4096;
+
+    private final CsvService csvService = new CsvService(null, null, List.of(),
+            new IngestionMetrics(new SimpleMeterRegistry()), VesselDataValidator.defaults());
+    private final VesselDataValidator vesselDataValidator = VesselDataValidator.defaults();
+    private final VesselCsvRow row = new VesselCsvRow();
+    private final String[] reasons = new String[ROWS];
+
+    private ByteBuffer buffer;
+    private int[] lineStarts;
+    private int[] lineEnds;
+    private VesselCsvRow[] parsedRows;
+    private ValidVesselData[] validData;
+    private ByteBuffer snapshotBlock;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+
+        List<String> lines;
+        try (InputStream csv = getClass().getResourceAsStream("/vessel_data_min.csv")) {
+            lines = new String(csv.readAllBytes(), StandardCharsets.UTF_8).lines().skip(1).toList();
+        }
+
+        var text = new StringBuilder();
+        lineStarts = new int[ROWS];
+        lineEnds = new int[ROWS];
+        parsedRows = new VesselCsvRow[ROWS];
+        List<ValidVesselData> valid = new ArrayList<>();
+
+        for (int i = 0; i < ROWS; i++) {
+            var line = lines.get(i % lines.size());
+            lineStarts[i] = text.length();
+            text.append(line);
+            lineEnds[i] = text.length();
+            text.append('\n');
+
+            parsedRows[i] = VesselCsvRow.of(line.replace("\"", "").split(","));
+            if (csvService.getInvalidReason(parsedRows[i]) == null) {
+                var parsed = parsedRows[i];
+                valid.add(new ValidVesselData(parsed.vesselCode(), parsed.datetime(),
+                        parsed.value(VesselCsvRow.LATITUDE), parsed.value(VesselCsvRow.LONGITUDE),
+                        parsed.value(VesselCsvRow.POWER), parsed.value(VesselCsvRow.FUEL_CONSUMPTION),
+                        parsed.value(VesselCsvRow.ACTUAL_SPEED_OVERGROUND), parsed.value(VesselCsvRow.PROPOSED_SPEED_OVERGROUND),
+                        parsed.value(VesselCsvRow.PREDICTED_FUEL_CONSUMPTION)));
+            }
+        }
+
+        // Same as the ingestion of a file: a direct buffer, as a memory-mapped range is
+        var bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+
+        // Metrics as the import computes them, so the compliance and snapshot benchmarks see real values
+        for (ValidVesselData data : valid) {
+            csvService.calculateNewMetrics(data);
+        }
+
+        validData = new ValidVesselData[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            validData[i] = valid.get(i % valid.size());
+        }
+
+        // The same valid rows as one snapshot block, mapped like an import maps it
+        var snapshot = Files.createTempFile("vessel-snapshot", ".bin");
+        snapshot.toFile().deleteOnExit();
+        try (var channel = FileChannel.open(snapshot, StandardOpenOption.WRITE, StandardOpenOption.READ)) {
+            var writer = new VesselSnapshotWriter(channel, ROWS);
+            for (ValidVesselData data : validData) {
+                writer.addValid(data);
+            }
+            writer.close();
+            var bodyStart = Integer.BYTES * 2 + VesselSnapshotWriter.BLOCK_HEADER_BYTES;
+            snapshotBlock = channel.map(FileChannel.MapMode.READ_ONLY, bodyStart, channel.size() - bodyStart)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void parse(Blackhole blackhole) {
+
+        for (int i = 0; i < ROWS; i++) {
+            blackhole.consume(row.parse(buffer, lineStarts[i], lineEnds[i]));
+            blackhole.consume(row.epochSecond());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void validate(Blackhole blackhole) {
+
+        for (VesselCsvRow parsedRow : parsedRows) {
+            blackhole.consume(csvService.getInvalidReason(parsedRow));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void validateBatch(Blackhole blackhole) {
+
+        vesselDataValidator.invalidReasons(parsedRows, ROWS, reasons);
+        blackhole.consume(reasons);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void calculateNewMetrics(Blackhole blackhole) {
+
+        for (ValidVesselData data : validData) {
+            csvService.calculateNewMetrics(data);
+            blackhole.consume(data.getGeoCell());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void calculateCompliancePercentage(Blackhole blackhole) {
+
+        for (ValidVesselData data : validData) {
+            blackhole.consume(CsvService.calculateCompliancePercentage(data.getSpeedDifference(), data.getProposedSpeedOverground()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public CsvService.ParsedRange parseRange() {
+
+        return csvService.parseBuffer(buffer);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<ValidVesselData> decodeSnapshotBlock() {
+
+        return VesselSnapshotReader.decodeValid(snapshotBlock.duplicate().order(ByteOrder.LITTLE_ENDIAN), ROWS);
+    }
+}
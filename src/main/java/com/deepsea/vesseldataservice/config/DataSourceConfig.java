@@ -0,0 +1,49 @@
+package com.deepsea.vesseldataservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+// Separate query and ingestion pools to the same database, so imports cannot starve queries of connections
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("vessel.datasource.query")
+    public HikariDataSource queryDataSource(DataSourceProperties properties) {
+
+        return pool(properties, "vessel-query", 10);
+    }
+
+    @Bean
+    @ConfigurationProperties("vessel.datasource.ingest")
+    public HikariDataSource ingestDataSource(DataSourceProperties properties) {
+
+        return pool(properties, "vessel-ingest", 4);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("queryDataSource") DataSource queryDataSource,
+            @Qualifier("ingestDataSource") DataSource ingestDataSource) {
+
+        var dataSource = new WorkloadRoutingDataSource();
+        dataSource.setTargetDataSources(Map.of(Workload.QUERY, queryDataSource, Workload.INGEST, ingestDataSource));
+        dataSource.setDefaultTargetDataSource(queryDataSource);
+        return dataSource;
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String poolName, int maximumPoolSize) {
+
+        var dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(poolName);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        return dataSource;
+    }
+}
@@ -0,0 +1,85 @@
+package com.deepsea.vesseldataservice.config;
+
+import com.deepsea.vesseldataservice.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// Bounds concurrent requests per workload and runs each request with its workload declared
+@Component
+public class EndpointConcurrencyLimiter implements HandlerInterceptor {
+
+    private static final String ACQUIRED = EndpointConcurrencyLimiter.class.getName() + ".acquired";
+    private static final String PREVIOUS = EndpointConcurrencyLimiter.class.getName() + ".previous";
+
+    private final Map<Workload, Semaphore> permits = new EnumMap<>(Workload.class);
+    private final Map<Workload, Counter> rejected = new EnumMap<>(Workload.class);
+    private final long acquireTimeoutNanos;
+
+    public EndpointConcurrencyLimiter(@Value("${vessel.concurrency.query.max:64}") int maxQueries,
+            @Value("${vessel.concurrency.ingest.max:2}") int maxIngests,
+            @Value("${vessel.concurrency.acquire.timeout:PT1S}") Duration acquireTimeout,
+            MeterRegistry meterRegistry) {
+
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        register(Workload.QUERY, maxQueries, meterRegistry);
+        register(Workload.INGEST, maxIngests, meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        var workload = handlerMethod.hasMethodAnnotation(IngestEndpoint.class) ? Workload.INGEST : Workload.QUERY;
+        if (!permits.get(workload).tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+            rejected.get(workload).increment();
+            throw new ConcurrencyLimitExceededException("Too many concurrent " + workload.name().toLowerCase()
+                    + " requests, try again later.");
+        }
+
+        request.setAttribute(ACQUIRED, workload);
+        var previous = Workload.enter(workload);
+        if (previous != null) {
+            request.setAttribute(PREVIOUS, previous);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+
+        if (request.getAttribute(ACQUIRED) instanceof Workload workload) {
+            request.removeAttribute(ACQUIRED);
+            Workload.restore((Workload) request.getAttribute(PREVIOUS));
+            request.removeAttribute(PREVIOUS);
+            permits.get(workload).release();
+        }
+    }
+
+    private void register(Workload workload, int maxConcurrent, MeterRegistry meterRegistry) {
+
+        // Fair, so that waiting requests are served in arrival order and the wait does not stretch the tail latency
+        var semaphore = new Semaphore(maxConcurrent, true);
+        permits.put(workload, semaphore);
+
+        var tag = workload.name().toLowerCase();
+        Gauge.builder("vessel.requests.active", semaphore, permit -> maxConcurrent - permit.availablePermits())
+                .tag("workload", tag)
+                .register(meterRegistry);
+        rejected.put(workload, Counter.builder("vessel.requests.rejected").tag("workload", tag).register(meterRegistry));
+    }
+}
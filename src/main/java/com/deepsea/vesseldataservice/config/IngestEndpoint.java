@@ -0,0 +1,13 @@
+package com.deepsea.vesseldataservice.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks an endpoint that runs as ingestion work
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface IngestEndpoint {
+
+}
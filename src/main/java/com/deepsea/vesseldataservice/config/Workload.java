@@ -0,0 +1,33 @@
+package com.deepsea.vesseldataservice.config;
+
+// Kind of work of a thread, which picks its connection pool and concurrency limit
+public enum Workload {
+
+    QUERY,
+    INGEST;
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    public static Workload current() {
+
+        var workload = CURRENT.get();
+        return workload == null ? QUERY : workload;
+    }
+
+    // Takes effect from the next transaction; returns the previous workload to restore
+    public static Workload enter(Workload workload) {
+
+        var previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    public static void restore(Workload previous) {
+
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
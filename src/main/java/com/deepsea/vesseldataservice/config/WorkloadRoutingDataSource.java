@@ -0,0 +1,12 @@
+package com.deepsea.vesseldataservice.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+
+        return Workload.current();
+    }
+}
@@ -0,0 +1,67 @@
+package com.deepsea.vesseldataservice.controller;
+
+import com.deepsea.vesseldataservice.config.IngestEndpoint;
+import com.deepsea.vesseldataservice.response.IngestionJobResponse;
+import com.deepsea.vesseldataservice.service.IngestionJob;
+import com.deepsea.vesseldataservice.service.IngestionJobService;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.List;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/vessels/jobs")
+public class IngestionJobController {
+
+    private final IngestionJobService ingestionJobService;
+
+    public IngestionJobController(IngestionJobService ingestionJobService) {
+
+        this.ingestionJobService = ingestionJobService;
+    }
+
+    @PostMapping
+    public ResponseEntity<IngestionJobResponse> submitJob(@RequestParam(required = false, defaultValue = "false") boolean fromStart) {
+
+        var job = ingestionJobService.submit(fromStart);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(IngestionJobResponse.from(job));
+    }
+
+    @IngestEndpoint
+    @PostMapping("/upload")
+    public ResponseEntity<IngestionJobResponse> uploadCsv(HttpServletRequest request) throws IOException {
+
+        // The body is read straight from the request, so the upload is never buffered in memory or on disk
+        var job = ingestionJobService.importUpload(request.getInputStream(), request.getContentLengthLong());
+        var status = job.getStatus() == IngestionJob.Status.FAILED ? HttpStatus.INTERNAL_SERVER_ERROR : HttpStatus.OK;
+        return ResponseEntity.status(status).body(IngestionJobResponse.from(job));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<IngestionJobResponse>> getJobs() {
+
+        var jobs = ingestionJobService.getJobs().stream().map(IngestionJobResponse::from).toList();
+        return ResponseEntity.ok(jobs);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<IngestionJobResponse> getJob(@PathVariable String jobId) {
+
+        return ResponseEntity.ok(IngestionJobResponse.from(ingestionJobService.getJob(jobId)));
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<IngestionJobResponse> cancelJob(@PathVariable String jobId) {
+
+        var job = ingestionJobService.cancel(jobId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(IngestionJobResponse.from(job));
+    }
+}
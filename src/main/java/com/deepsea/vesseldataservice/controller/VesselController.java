@@ -1,19 +1,39 @@
 package com.deepsea.vesseldataservice.controller;
 
+import com.deepsea.vesseldataservice.config.IngestEndpoint;
 import com.deepsea.vesseldataservice.model.ProblemGroup;
 import com.deepsea.vesseldataservice.model.ValidVesselData;
+import com.deepsea.vesseldataservice.response.AccessLogStatsResponse;
+import com.deepsea.vesseldataservice.response.ComplianceRankingResponse;
 import com.deepsea.vesseldataservice.response.InvalidReasonResponse;
+import com.deepsea.vesseldataservice.response.LocatedSpeedDifferenceResponse;
+import com.deepsea.vesseldataservice.response.QueryCacheStatsResponse;
 import com.deepsea.vesseldataservice.response.SpeedDifferenceResponse;
+import com.deepsea.vesseldataservice.response.SpeedDifferenceScrollResponse;
 import com.deepsea.vesseldataservice.service.CsvService;
+import com.deepsea.vesseldataservice.service.LoggingService;
 import com.deepsea.vesseldataservice.service.VesselDataService;
+import com.deepsea.vesseldataservice.service.VesselQueryCache;
+import com.deepsea.vesseldataservice.service.VesselSummaryService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -25,13 +45,23 @@ public class VesselController {
 
     private final CsvService csvService;
     private final VesselDataService vesselDataService;
+    private final VesselSummaryService vesselSummaryService;
+    private final VesselQueryCache vesselQueryCache;
+    private final LoggingService loggingService;
+    private final ObjectMapper objectMapper;
 
-    public VesselController(CsvService csvService, VesselDataService vesselDataService) {
+    public VesselController(CsvService csvService, VesselDataService vesselDataService, VesselSummaryService vesselSummaryService,
+            VesselQueryCache vesselQueryCache, LoggingService loggingService, ObjectMapper objectMapper) {
 
         this.csvService = csvService;
         this.vesselDataService = vesselDataService;
+        this.vesselSummaryService = vesselSummaryService;
+        this.vesselQueryCache = vesselQueryCache;
+        this.loggingService = loggingService;
+        this.objectMapper = objectMapper;
     }
 
+    @IngestEndpoint
     @GetMapping("/processFile")
     public ResponseEntity<String> processFile() {
 
@@ -39,16 +69,82 @@ public class VesselController {
         return ResponseEntity.ok("Data processing and insertion completed!");
     }
 
+    @IngestEndpoint
+    @PostMapping("/summaries/rebuild")
+    public ResponseEntity<String> rebuildSummaries() {
+
+        var vessels = vesselSummaryService.rebuild();
+        return ResponseEntity.ok("Vessel summaries rebuilt for " + vessels + " vessels.");
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<QueryCacheStatsResponse> getCacheStats() {
+
+        var stats = vesselQueryCache.stats();
+        return ResponseEntity.ok(new QueryCacheStatsResponse(vesselQueryCache.size(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount(), stats.evictionWeight()));
+    }
+
+    @GetMapping("/access-log/stats")
+    public ResponseEntity<AccessLogStatsResponse> getAccessLogStats() {
+
+        return ResponseEntity.ok(loggingService.stats());
+    }
+
     @GetMapping("/{vesselCode}/speed-difference")
     public ResponseEntity<List<SpeedDifferenceResponse>> getSpeedDifference(
             @PathVariable String vesselCode,
             @RequestParam @Pattern(regexp = "^-?\\d+(\\.\\d+)?$", message = "Invalid latitude format") String latitude,
             @RequestParam @Pattern(regexp = "^-?\\d+(\\.\\d+)?$", message = "Invalid longitude format") String longitude) {
 
-        List<SpeedDifferenceResponse> speedDifferences = vesselDataService.calculateSpeedDifference(vesselCode, latitude, longitude);
+        List<SpeedDifferenceResponse> speedDifferences = vesselDataService.calculateSpeedDifference(vesselCode, Double.valueOf(latitude), Double.valueOf(longitude));
         return ResponseEntity.ok(speedDifferences);
     }
 
+    @GetMapping("/{vesselCode}/speed-difference/area")
+    public ResponseEntity<List<LocatedSpeedDifferenceResponse>> getSpeedDifferencesInArea(
+            @PathVariable String vesselCode,
+            @RequestParam @DecimalMin("-90") @DecimalMax("90") double minLatitude,
+            @RequestParam @DecimalMin("-90") @DecimalMax("90") double maxLatitude,
+            @RequestParam @DecimalMin("-180") @DecimalMax("180") double minLongitude,
+            @RequestParam @DecimalMin("-180") @DecimalMax("180") double maxLongitude,
+            @RequestParam(defaultValue = "1000") @Min(1) @Max(10000) int limit) {
+
+        return ResponseEntity.ok(vesselDataService.findSpeedDifferencesInArea(vesselCode, minLatitude, maxLatitude, minLongitude, maxLongitude, limit));
+    }
+
+    @GetMapping("/{vesselCode}/speed-difference/nearby")
+    public ResponseEntity<List<LocatedSpeedDifferenceResponse>> getSpeedDifferencesNearby(
+            @PathVariable String vesselCode,
+            @RequestParam @DecimalMin("-90") @DecimalMax("90") double latitude,
+            @RequestParam @DecimalMin("-180") @DecimalMax("180") double longitude,
+            @RequestParam @DecimalMin(value = "0", inclusive = false) @DecimalMax("20000") double radiusKm,
+            @RequestParam(defaultValue = "1000") @Min(1) @Max(10000) int limit) {
+
+        return ResponseEntity.ok(vesselDataService.findSpeedDifferencesNear(vesselCode, latitude, longitude, radiusKm, limit));
+    }
+
+    @GetMapping("/speed-difference/area")
+    public ResponseEntity<List<LocatedSpeedDifferenceResponse>> getFleetSpeedDifferencesInArea(
+            @RequestParam @DecimalMin("-90") @DecimalMax("90") double minLatitude,
+            @RequestParam @DecimalMin("-90") @DecimalMax("90") double maxLatitude,
+            @RequestParam @DecimalMin("-180") @DecimalMax("180") double minLongitude,
+            @RequestParam @DecimalMin("-180") @DecimalMax("180") double maxLongitude,
+            @RequestParam(defaultValue = "1000") @Min(1) @Max(10000) int limit) {
+
+        return ResponseEntity.ok(vesselDataService.findSpeedDifferencesInArea(null, minLatitude, maxLatitude, minLongitude, maxLongitude, limit));
+    }
+
+    @GetMapping("/speed-difference/nearby")
+    public ResponseEntity<List<LocatedSpeedDifferenceResponse>> getFleetSpeedDifferencesNearby(
+            @RequestParam @DecimalMin("-90") @DecimalMax("90") double latitude,
+            @RequestParam @DecimalMin("-180") @DecimalMax("180") double longitude,
+            @RequestParam @DecimalMin(value = "0", inclusive = false) @DecimalMax("20000") double radiusKm,
+            @RequestParam(defaultValue = "1000") @Min(1) @Max(10000) int limit) {
+
+        return ResponseEntity.ok(vesselDataService.findSpeedDifferencesNear(null, latitude, longitude, radiusKm, limit));
+    }
+
     @GetMapping("/{vesselCode}/speed-differences")
     public ResponseEntity<Page<SpeedDifferenceResponse>> getSpeedDifferences(
             @PathVariable String vesselCode, Pageable pageable) {
@@ -57,6 +153,17 @@ public class VesselController {
         return ResponseEntity.ok(speedDifferences);
     }
 
+    @GetMapping("/{vesselCode}/speed-differences/scroll")
+    public ResponseEntity<SpeedDifferenceScrollResponse> scrollSpeedDifferences(
+            @PathVariable String vesselCode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(value = 1, message = "Size must be at least 1")
+            @Max(value = 1000, message = "Size must be at most 1000") int size) {
+
+        SpeedDifferenceScrollResponse speedDifferences = vesselDataService.scrollSpeedDifferences(vesselCode, cursor, size);
+        return ResponseEntity.ok(speedDifferences);
+    }
+
     @GetMapping("/{vesselCode}/invalid-reasons")
     public ResponseEntity<List<InvalidReasonResponse>> getInvalidReasons(
             @PathVariable String vesselCode) {
@@ -74,14 +181,53 @@ public class VesselController {
         return ResponseEntity.ok(result);
     }
 
+    @GetMapping("/compliance-ranking")
+    public ResponseEntity<ComplianceRankingResponse> getComplianceRanking(
+            @RequestParam String startDate,
+            @RequestParam String endDate,
+            @RequestParam(defaultValue = "10") @Min(value = 1, message = "Limit must be at least 1")
+            @Max(value = 1000, message = "Limit must be at most 1000") int limit) {
+
+        ComplianceRankingResponse ranking = vesselDataService.rankVesselCompliance(startDate, endDate, limit);
+        return ResponseEntity.ok(ranking);
+    }
+
+    // Streams the period as a JSON array instead of holding it in memory
     @GetMapping("/{vesselCode}/data")
-    public ResponseEntity<List<ValidVesselData>> getVesselDataForPeriod(
+    public void getVesselDataForPeriod(
             @PathVariable String vesselCode,
             @RequestParam String startDate,
-            @RequestParam String endDate) {
+            @RequestParam String endDate,
+            HttpServletResponse response) throws IOException {
+
+        var writer = objectMapper.writerFor(ValidVesselData.class);
+        JsonGenerator[] generator = new JsonGenerator[1];
+
+        // Opened on the first row, so that a period without data still turns into an error response
+        vesselDataService.streamVesselDataForPeriod(vesselCode, startDate, endDate, data -> {
+            try {
+                if (generator[0] == null) {
+                    generator[0] = startArray(response);
+                }
+                writer.writeValue(generator[0], data);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        if (generator[0] == null) {
+            generator[0] = startArray(response);
+        }
+        generator[0].writeEndArray();
+        generator[0].close();
+    }
+
+    private JsonGenerator startArray(HttpServletResponse response) throws IOException {
 
-        var vesselData = vesselDataService.getVesselDataForPeriod(vesselCode, startDate, endDate);
-        return ResponseEntity.ok(vesselData);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        var generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        generator.writeStartArray();
+        return generator;
     }
 
     @GetMapping("/{vesselCode}/problems")
@@ -89,9 +235,11 @@ public class VesselController {
             @PathVariable String vesselCode,
             @RequestParam(required = false, defaultValue = "all") String invalidReason,
             @RequestParam(required = false, defaultValue = "60") String overrideIntervalValue,
-            @RequestParam(required = false, defaultValue = "10") String sizeThreshold) {
+            @RequestParam(required = false, defaultValue = "10") String sizeThreshold,
+            @RequestParam(required = false) @Min(value = 1, message = "Limit must be at least 1") Integer limit) {
 
-        var problemGroups = vesselDataService.identifyProblematicData(vesselCode, invalidReason, Long.valueOf(overrideIntervalValue), Integer.valueOf(sizeThreshold));
+        var problemGroups = vesselDataService.identifyProblematicData(vesselCode, invalidReason, Long.valueOf(overrideIntervalValue),
+                Integer.valueOf(sizeThreshold), limit);
         return ResponseEntity.ok(problemGroups);
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.deepsea.vesseldataservice.controller;
+
+import com.deepsea.vesseldataservice.config.IngestEndpoint;
+import com.deepsea.vesseldataservice.response.SnapshotResponse;
+import com.deepsea.vesseldataservice.service.VesselSnapshotService;
+import java.io.IOException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/vessels/snapshots")
+public class VesselSnapshotController {
+
+    private final VesselSnapshotService vesselSnapshotService;
+
+    public VesselSnapshotController(VesselSnapshotService vesselSnapshotService) {
+
+        this.vesselSnapshotService = vesselSnapshotService;
+    }
+
+    @IngestEndpoint
+    @PostMapping("/{name}")
+    public ResponseEntity<SnapshotResponse> exportSnapshot(@PathVariable String name) throws IOException {
+
+        return ResponseEntity.ok(vesselSnapshotService.export(name));
+    }
+
+    @IngestEndpoint
+    @PostMapping("/{name}/import")
+    public ResponseEntity<SnapshotResponse> importSnapshot(@PathVariable String name) throws IOException {
+
+        return ResponseEntity.ok(vesselSnapshotService.importSnapshot(name));
+    }
+}
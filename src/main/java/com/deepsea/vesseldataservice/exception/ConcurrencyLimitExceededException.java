@@ -0,0 +1,9 @@
+package com.deepsea.vesseldataservice.exception;
+
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(String message) {
+
+        super(message);
+    }
+}
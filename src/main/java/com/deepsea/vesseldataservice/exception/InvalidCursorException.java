@@ -0,0 +1,9 @@
+package com.deepsea.vesseldataservice.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.deepsea.vesseldataservice.exception;
+
+public class InvalidSnapshotException extends RuntimeException {
+
+    public InvalidSnapshotException(String message) {
+
+        super(message);
+    }
+}
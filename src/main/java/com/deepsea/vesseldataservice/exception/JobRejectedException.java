@@ -0,0 +1,9 @@
+package com.deepsea.vesseldataservice.exception;
+
+public class JobRejectedException extends RuntimeException {
+
+    public JobRejectedException(String message) {
+
+        super(message);
+    }
+}
@@ -1,5 +1,6 @@
 package com.deepsea.vesseldataservice.logger;
 
+import com.deepsea.vesseldataservice.config.EndpointConcurrencyLimiter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
@@ -11,8 +12,12 @@ public class CustomWebConfigurer implements WebMvcConfigurer {
     @Autowired
     private InterceptLog logInterceptor;
 
+    @Autowired
+    private EndpointConcurrencyLimiter endpointConcurrencyLimiter;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(endpointConcurrencyLimiter).addPathPatterns("/api/**");
         registry.addInterceptor(logInterceptor);
     }
 }
\ No newline at end of file
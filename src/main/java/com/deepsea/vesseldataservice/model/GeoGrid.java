@@ -0,0 +1,51 @@
+package com.deepsea.vesseldataservice.model;
+
+// 0.1 degree cells numbered row by row, so the cells of an area row are an index range
+public final class GeoGrid {
+
+    public static final double CELL_DEGREES = 0.1;
+    public static final int ROWS = 1800;
+    public static final int COLUMNS = 3600;
+
+    // Mean earth radius, used for distances
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    public static final double KM_PER_DEGREE_OF_LATITUDE = Math.toRadians(EARTH_RADIUS_KM);
+
+    private GeoGrid() {
+
+    }
+
+    public static long cell(double latitude, double longitude) {
+
+        return cellAt(row(latitude), column(longitude));
+    }
+
+    public static long cellAt(int row, int column) {
+
+        return (long) row * COLUMNS + column;
+    }
+
+    public static int row(double latitude) {
+
+        return clamp((int) Math.floor((latitude + 90) / CELL_DEGREES), ROWS - 1);
+    }
+
+    public static int column(double longitude) {
+
+        return clamp((int) Math.floor((longitude + 180) / CELL_DEGREES), COLUMNS - 1);
+    }
+
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+
+        var deltaLatitude = Math.toRadians(latitude2 - latitude1);
+        var deltaLongitude = Math.toRadians(longitude2 - longitude1);
+        var a = Math.pow(Math.sin(deltaLatitude / 2), 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * Math.pow(Math.sin(deltaLongitude / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static int clamp(int value, int max) {
+
+        return Math.max(0, Math.min(value, max));
+    }
+}
@@ -0,0 +1,31 @@
+package com.deepsea.vesseldataservice.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import java.time.Instant;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Offset up to which a CSV source is committed, where a repeated import continues
+@Entity
+@Data
+@NoArgsConstructor
+public class IngestionCheckpoint {
+
+    @Id
+    private String source;
+
+    private long byteOffset;
+
+    // Checksum of the start of the source, to tell a source that grew from one that was replaced
+    private long fingerprint;
+
+    private long lastBatch;
+
+    private Instant updatedAt;
+
+    public IngestionCheckpoint(String source) {
+
+        this.source = source;
+    }
+}
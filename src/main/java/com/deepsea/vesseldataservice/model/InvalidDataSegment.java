@@ -0,0 +1,36 @@
+package com.deepsea.vesseldataservice.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Run of invalid readings of one vessel and reason, each within the segment gap of the previous one
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_invalid_data_segment_vessel_code_reason_start", columnList = "vessel_code, invalid_reason, start_datetime"),
+        @Index(name = "idx_invalid_data_segment_vessel_code_start", columnList = "vessel_code, start_datetime")
+})
+@Data
+@NoArgsConstructor
+public class InvalidDataSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String vesselCode;
+
+    private String invalidReason;
+
+    private Instant startDatetime;
+
+    private Instant endDatetime;
+
+    private int rowCount;
+}
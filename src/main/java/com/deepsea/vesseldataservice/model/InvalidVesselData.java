@@ -1,13 +1,23 @@
 package com.deepsea.vesseldataservice.model;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Table(indexes = {
+        // Unique so that re-imported readings are skipped instead of duplicated
+        @Index(name = "idx_invalid_vessel_data_vessel_code_datetime", columnList = "vessel_code, datetime", unique = true),
+        // Serves the per-reason lookups and covers the GROUP BY invalid_reason count
+        @Index(name = "idx_invalid_vessel_data_vessel_code_reason_datetime", columnList = "vessel_code, invalid_reason, datetime")
+})
 @Data
 @NoArgsConstructor
 public class InvalidVesselData {
@@ -18,25 +28,27 @@ public class InvalidVesselData {
 
     private String vesselCode;
 
-    private String datetime;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = VesselDateTimeFormat.PATTERN, timezone = VesselDateTimeFormat.TIMEZONE)
+    private Instant datetime;
 
-    private String latitude;
+    // Null when the reading was NULL or not a number in the source file
+    private Double latitude;
 
-    private String longitude;
+    private Double longitude;
 
-    private String power;
+    private Double power;
 
-    private String fuelConsumption;
+    private Double fuelConsumption;
 
-    private String actualSpeedOverground;
+    private Double actualSpeedOverground;
 
-    private String proposedSpeedOverground;
+    private Double proposedSpeedOverground;
 
-    private String predictedFuelConsumption;
+    private Double predictedFuelConsumption;
 
     private String invalidReason;
 
-    public InvalidVesselData(String vesselCode, String datetime, String latitude, String longitude, String power, String fuelConsumption, String actualSpeedOverground, String proposedSpeedOverground, String predictedFuelConsumption) {
+    public InvalidVesselData(String vesselCode, Instant datetime, Double latitude, Double longitude, Double power, Double fuelConsumption, Double actualSpeedOverground, Double proposedSpeedOverground, Double predictedFuelConsumption) {
 
         this.vesselCode = vesselCode;
         this.datetime = datetime;
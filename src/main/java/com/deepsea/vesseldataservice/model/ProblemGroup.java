@@ -1,11 +1,15 @@
 package com.deepsea.vesseldataservice.model;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.Instant;
 import lombok.Data;
 
 @Data
 public class ProblemGroup {
 
     private int size;
-    private String startDateTime;
-    private String endDateTime;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = VesselDateTimeFormat.PATTERN, timezone = VesselDateTimeFormat.TIMEZONE)
+    private Instant startDateTime;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = VesselDateTimeFormat.PATTERN, timezone = VesselDateTimeFormat.TIMEZONE)
+    private Instant endDateTime;
 }
@@ -1,57 +1,70 @@
 package com.deepsea.vesseldataservice.model;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Table(indexes = {
+        // Unique so that re-imported readings are skipped instead of duplicated
+        @Index(name = "idx_valid_vessel_data_vessel_code_datetime", columnList = "vessel_code, datetime", unique = true),
+        // Covers the fleet compliance totals of a time window, read as one range of the index
+        @Index(name = "idx_valid_vessel_data_datetime_compliance", columnList = "datetime, vessel_code, compliance_percentage"),
+        // Area lookups, fleet-wide and per vessel; leading with geo_cell leaves vessel_code lookups to the datetime index
+        @Index(name = "idx_valid_vessel_data_geo_cell_vessel_code", columnList = "geo_cell, vessel_code")
+})
 @Data
 @NoArgsConstructor
 public class ValidVesselData {
 
-    public ValidVesselData(String[] commaSeparatedValues) {
-
-        this.vesselCode = commaSeparatedValues[0];
-        this.datetime = commaSeparatedValues[1];
-        this.latitude = commaSeparatedValues[2];
-        this.longitude = commaSeparatedValues[3];
-        this.power = commaSeparatedValues[4];
-        this.fuelConsumption = commaSeparatedValues[5];
-        this.actualSpeedOverground = commaSeparatedValues[6];
-        this.proposedSpeedOverground = commaSeparatedValues[7];
-        this.predictedFuelConsumption = commaSeparatedValues[8];
-    }
-
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
 
     private String vesselCode;
 
-    private String datetime;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = VesselDateTimeFormat.PATTERN, timezone = VesselDateTimeFormat.TIMEZONE)
+    private Instant datetime;
 
-    private String latitude;
+    // Measurements are serialized as strings to keep the API shape of the former text columns
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private double latitude;
 
-    private String longitude;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private double longitude;
 
-    private String power;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private double power;
 
-    private String fuelConsumption;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private double fuelConsumption;
 
-    private String actualSpeedOverground;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private double actualSpeedOverground;
 
-    private String proposedSpeedOverground;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private double proposedSpeedOverground;
 
-    private String predictedFuelConsumption;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private double predictedFuelConsumption;
 
     private double speedDifference;
 
     private double compliancePercentage;
 
-    public ValidVesselData(String vesselCode, String datetime, String latitude, String longitude, String power, String fuelConsumption, String actualSpeedOverground, String proposedSpeedOverground, String predictedFuelConsumption) {
+    // GeoGrid cell of the position, set at ingest
+    @JsonIgnore
+    private Long geoCell;
+
+    public ValidVesselData(String vesselCode, Instant datetime, double latitude, double longitude, double power, double fuelConsumption, double actualSpeedOverground, double proposedSpeedOverground, double predictedFuelConsumption) {
 
         this.vesselCode = vesselCode;
         this.datetime = datetime;
@@ -0,0 +1,25 @@
+package com.deepsea.vesseldataservice.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Running compliance total of one vessel, maintained by ingestion
+@Entity
+@Data
+@NoArgsConstructor
+public class VesselComplianceSummary {
+
+    @Id
+    private String vesselCode;
+
+    private double complianceSum;
+
+    private long complianceCount;
+
+    public Double getAverageCompliance() {
+
+        return complianceCount == 0 ? null : complianceSum / complianceCount;
+    }
+}
@@ -0,0 +1,29 @@
+package com.deepsea.vesseldataservice.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+// Timestamp format of the CSV files and the API, read as UTC
+public final class VesselDateTimeFormat {
+
+    public static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+    public static final String TIMEZONE = "UTC";
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN);
+
+    private VesselDateTimeFormat() {
+
+    }
+
+    public static Instant parse(String dateTime) {
+
+        return LocalDateTime.parse(dateTime, FORMATTER).toInstant(ZoneOffset.UTC);
+    }
+
+    public static String format(Instant dateTime) {
+
+        return FORMATTER.format(dateTime.atOffset(ZoneOffset.UTC));
+    }
+}
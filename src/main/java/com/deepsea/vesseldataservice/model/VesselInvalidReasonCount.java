@@ -0,0 +1,37 @@
+package com.deepsea.vesseldataservice.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The generated primary key starts with the reason, so per-vessel reads need their own index
+@Entity
+@Table(indexes = @Index(name = "idx_vessel_invalid_reason_count_vessel_code", columnList = "vessel_code"))
+@IdClass(VesselInvalidReasonCount.Key.class)
+@Data
+@NoArgsConstructor
+public class VesselInvalidReasonCount {
+
+    @Id
+    private String vesselCode;
+
+    @Id
+    private String invalidReason;
+
+    private long rowCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private String vesselCode;
+        private String invalidReason;
+    }
+}
@@ -0,0 +1,10 @@
+package com.deepsea.vesseldataservice.repository;
+
+import com.deepsea.vesseldataservice.model.IngestionCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IngestionCheckpointRepository extends JpaRepository<IngestionCheckpoint, String> {
+
+}
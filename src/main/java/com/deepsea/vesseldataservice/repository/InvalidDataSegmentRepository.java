@@ -0,0 +1,26 @@
+package com.deepsea.vesseldataservice.repository;
+
+import com.deepsea.vesseldataservice.model.InvalidDataSegment;
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InvalidDataSegmentRepository extends JpaRepository<InvalidDataSegment, Long> {
+
+    List<InvalidDataSegment> findByVesselCodeOrderByStartDatetimeAsc(String vesselCode);
+
+    List<InvalidDataSegment> findByVesselCodeAndInvalidReasonOrderByStartDatetimeAsc(String vesselCode, String invalidReason);
+
+    // Locked, so that concurrent imports extending the same segments take turns
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM InvalidDataSegment s WHERE s.vesselCode = :vesselCode AND s.invalidReason = :invalidReason "
+            + "AND s.endDatetime > :from AND s.startDatetime < :to")
+    List<InvalidDataSegment> findOverlappingForUpdate(@Param("vesselCode") String vesselCode, @Param("invalidReason") String invalidReason,
+            @Param("from") Instant from, @Param("to") Instant to);
+}
@@ -0,0 +1,68 @@
+package com.deepsea.vesseldataservice.repository;
+
+import static java.util.Objects.isNull;
+
+import com.deepsea.vesseldataservice.model.InvalidVesselData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class InvalidVesselDataCursorRepository {
+
+    private static final String SELECT_DATETIMES = "SELECT datetime FROM invalid_vessel_data "
+            + "WHERE vessel_code = ? ORDER BY datetime";
+
+    private static final String SELECT_DATETIMES_BY_REASON = "SELECT datetime FROM invalid_vessel_data "
+            + "WHERE vessel_code = ? AND invalid_reason = ? ORDER BY datetime";
+
+    private static final String SELECT_ALL = "SELECT vessel_code, datetime, latitude, longitude, power, fuel_consumption, "
+            + "actual_speed_overground, proposed_speed_overground, predicted_fuel_consumption, invalid_reason "
+            + "FROM invalid_vessel_data ORDER BY vessel_code, datetime";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InvalidVesselDataCursorRepository(DataSource dataSource, @Value("${vessel.stream.fetch.size:1000}") int fetchSize) {
+
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    // Rows without a datetime are counted but not handed over
+    public long streamEpochSeconds(String vesselCode, String invalidReason, LongConsumer consumer) {
+
+        long[] rows = new long[1];
+        Object[] arguments = isNull(invalidReason) ? new Object[]{vesselCode} : new Object[]{vesselCode, invalidReason};
+
+        jdbcTemplate.query(isNull(invalidReason) ? SELECT_DATETIMES : SELECT_DATETIMES_BY_REASON, resultSet -> {
+            rows[0]++;
+            var datetime = ValidVesselDataRowMapper.getInstant(resultSet, 1);
+            if (datetime != null) {
+                consumer.accept(datetime.getEpochSecond());
+            }
+        }, arguments);
+        return rows[0];
+    }
+
+    public void streamAll(Consumer<InvalidVesselData> consumer) {
+
+        jdbcTemplate.query(SELECT_ALL, resultSet -> {
+            var data = new InvalidVesselData(resultSet.getString(1), ValidVesselDataRowMapper.getInstant(resultSet, 2),
+                    getDouble(resultSet, 3), getDouble(resultSet, 4), getDouble(resultSet, 5), getDouble(resultSet, 6),
+                    getDouble(resultSet, 7), getDouble(resultSet, 8), getDouble(resultSet, 9));
+            data.setInvalidReason(resultSet.getString(10));
+            consumer.accept(data);
+        });
+    }
+
+    private static Double getDouble(ResultSet resultSet, int column) throws SQLException {
+
+        var value = resultSet.getDouble(column);
+        return resultSet.wasNull() ? null : value;
+    }
+}
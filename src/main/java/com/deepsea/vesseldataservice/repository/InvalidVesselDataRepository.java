@@ -1,18 +1,18 @@
 package com.deepsea.vesseldataservice.repository;
 
 import com.deepsea.vesseldataservice.model.InvalidVesselData;
+import java.time.Instant;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface InvalidVesselDataRepository extends JpaRepository<InvalidVesselData, String> {
 
-    List<InvalidVesselData> findByVesselCode(String vesselCode);
+    List<InvalidVesselData> findByVesselCodeAndDatetimeIsNull(String vesselCode);
 
-    List<InvalidVesselData> findByVesselCodeAndInvalidReason(String vesselCode, String invalidReason);
-
-    @Query("SELECT invalidReason, COUNT(invalidReason) FROM InvalidVesselData WHERE vesselCode = :vesselCode GROUP BY invalidReason ORDER BY COUNT(invalidReason) DESC")
-    List<Object[]> findInvalidReasonsByVesselCode(String vesselCode);
+    @Query("SELECT v.datetime FROM InvalidVesselData v WHERE v.vesselCode = :vesselCode AND v.datetime BETWEEN :startDate AND :endDate")
+    List<Instant> findDatetimes(@Param("vesselCode") String vesselCode, @Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
 }
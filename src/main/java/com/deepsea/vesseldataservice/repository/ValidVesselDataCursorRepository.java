@@ -0,0 +1,122 @@
+package com.deepsea.vesseldataservice.repository;
+
+import com.deepsea.vesseldataservice.model.GeoGrid;
+import com.deepsea.vesseldataservice.model.ValidVesselData;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+// Forward-only cursor reads; MySQL needs useCursorFetch=true or the driver reads the whole result first
+@Repository
+public class ValidVesselDataCursorRepository {
+
+    private static final String SELECT_BY_VESSEL_CODE_AND_DATE_RANGE = "SELECT " + ValidVesselDataRowMapper.COLUMNS
+            + " FROM valid_vessel_data WHERE vessel_code = ? AND datetime BETWEEN ? AND ? ORDER BY datetime";
+
+    private static final String SELECT_ALL = "SELECT " + ValidVesselDataRowMapper.COLUMNS
+            + " FROM valid_vessel_data ORDER BY vessel_code, datetime";
+
+    private static final String SELECT_COMPLIANCE_TOTALS_BY_DATE_RANGE = "SELECT vessel_code, SUM(compliance_percentage), COUNT(*) "
+            + "FROM valid_vessel_data WHERE datetime BETWEEN ? AND ? GROUP BY vessel_code";
+
+    private static final int MAX_LISTED_CELLS = 400;
+
+    @FunctionalInterface
+    public interface ComplianceTotalConsumer {
+
+        void accept(String vesselCode, double complianceSum, long readingCount);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ValidVesselDataRowMapper rowMapper = new ValidVesselDataRowMapper();
+
+    public ValidVesselDataCursorRepository(DataSource dataSource, @Value("${vessel.stream.fetch.size:1000}") int fetchSize) {
+
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    public void streamByVesselCodeAndDateRange(String vesselCode, Instant startDate, Instant endDate, Consumer<ValidVesselData> consumer) {
+
+        jdbcTemplate.query(SELECT_BY_VESSEL_CODE_AND_DATE_RANGE,
+                handOver(consumer),
+                vesselCode, startDate.atOffset(ZoneOffset.UTC), endDate.atOffset(ZoneOffset.UTC));
+    }
+
+    public void streamAll(Consumer<ValidVesselData> consumer) {
+
+        jdbcTemplate.query(SELECT_ALL, handOver(consumer));
+    }
+
+    // One grouped query for the whole fleet, bounds included
+    public void streamComplianceTotals(Instant startDate, Instant endDate, ComplianceTotalConsumer consumer) {
+
+        jdbcTemplate.query(SELECT_COMPLIANCE_TOTALS_BY_DATE_RANGE,
+                (RowCallbackHandler) resultSet -> consumer.accept(resultSet.getString(1), resultSet.getDouble(2), resultSet.getLong(3)),
+                startDate.atOffset(ZoneOffset.UTC), endDate.atOffset(ZoneOffset.UTC));
+    }
+
+    // Bounds included and not across the antimeridian; vesselCode null for the whole fleet
+    public List<ValidVesselData> findInArea(String vesselCode, double minLatitude, double maxLatitude, double minLongitude,
+            double maxLongitude, Predicate<ValidVesselData> filter, int limit) {
+
+        var fromRow = GeoGrid.row(minLatitude);
+        var toRow = GeoGrid.row(maxLatitude);
+        var fromColumn = GeoGrid.column(minLongitude);
+        var toColumn = GeoGrid.column(maxLongitude);
+        var listed = (long) (toRow - fromRow + 1) * (toColumn - fromColumn + 1) <= MAX_LISTED_CELLS;
+
+        // Fleet-wide, the (vessel_code, datetime) index can win for its sort order and read the whole table
+        var sql = new StringBuilder("SELECT ").append(ValidVesselDataRowMapper.COLUMNS).append(" FROM valid_vessel_data")
+                .append(vesselCode == null && listed ? " USE INDEX (idx_valid_vessel_data_geo_cell_vessel_code)" : "").append(" WHERE ");
+        List<Object> arguments = new ArrayList<>();
+        if (vesselCode != null) {
+            sql.append("vessel_code = ? AND ");
+            arguments.add(vesselCode);
+        }
+
+        // Small areas list their cells, large ones scan the band of rows between the corner cells
+        sql.append('(');
+        if (listed) {
+            var cells = new StringJoiner(", ", "geo_cell IN (", ")");
+            for (int row = fromRow; row <= toRow; row++) {
+                for (int column = fromColumn; column <= toColumn; column++) {
+                    cells.add("?");
+                    arguments.add(GeoGrid.cellAt(row, column));
+                }
+            }
+            sql.append(cells);
+        } else {
+            sql.append("geo_cell BETWEEN ? AND ?");
+            arguments.add(GeoGrid.cellAt(fromRow, fromColumn));
+            arguments.add(GeoGrid.cellAt(toRow, toColumn));
+        }
+        sql.append(") AND latitude BETWEEN ? AND ? AND longitude BETWEEN ? AND ? ORDER BY vessel_code, datetime");
+        arguments.addAll(List.of(minLatitude, maxLatitude, minLongitude, maxLongitude));
+
+        return jdbcTemplate.query(sql.toString(), resultSet -> {
+            List<ValidVesselData> found = new ArrayList<>();
+            while (found.size() < limit && resultSet.next()) {
+                var data = rowMapper.mapRow(resultSet, resultSet.getRow());
+                if (filter.test(data)) {
+                    found.add(data);
+                }
+            }
+            return found;
+        }, arguments.toArray());
+    }
+
+    private RowCallbackHandler handOver(Consumer<ValidVesselData> consumer) {
+
+        return resultSet -> consumer.accept(rowMapper.mapRow(resultSet, resultSet.getRow()));
+    }
+}
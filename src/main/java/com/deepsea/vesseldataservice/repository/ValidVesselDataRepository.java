@@ -1,25 +1,35 @@
 package com.deepsea.vesseldataservice.repository;
 
 import com.deepsea.vesseldataservice.model.ValidVesselData;
+import java.time.Instant;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ValidVesselDataRepository extends JpaRepository<ValidVesselData, String> {
 
-    List<ValidVesselData> findByVesselCode(String vesselCode);
+    List<ValidVesselData> findByVesselCodeOrderByDatetimeAsc(String vesselCode);
 
-    List<ValidVesselData> findByVesselCodeAndLatitudeAndLongitude(String vesselCode, String latitude, String longitude);
+    List<ValidVesselData> findByVesselCodeAndLatitudeAndLongitudeOrderByDatetimeAsc(String vesselCode, double latitude, double longitude);
 
-    Page<ValidVesselData> findByVesselCode(String vesselCode, Pageable pageable);
+    Page<ValidVesselData> findByVesselCodeOrderByDatetimeAscIdAsc(String vesselCode, Pageable pageable);
 
-    @Query("SELECT v FROM ValidVesselData v WHERE v.vesselCode = :vesselCode AND v.datetime BETWEEN :startDate AND :endDate")
-    List<ValidVesselData> findByVesselCodeAndDateRange(String vesselCode, String startDate, String endDate);
+    List<ValidVesselData> findByVesselCodeOrderByDatetimeAscIdAsc(String vesselCode, Limit limit);
 
-    @Query("SELECT AVG(compliancePercentage) FROM ValidVesselData WHERE vesselCode = :vesselCode")
-    Double calculateOverallComplianceByVesselCode(String vesselCode);
+    // Seeks on the (vessel_code, datetime) index; the id only breaks ties between rows of the same second
+    @Query("SELECT v FROM ValidVesselData v WHERE v.vesselCode = :vesselCode AND v.datetime >= :datetime "
+            + "AND (v.datetime > :datetime OR v.id > :id) ORDER BY v.datetime ASC, v.id ASC")
+    List<ValidVesselData> findByVesselCodeAfter(@Param("vesselCode") String vesselCode, @Param("datetime") Instant datetime,
+            @Param("id") long id, Limit limit);
+
+    boolean existsByVesselCodeAndDatetimeBetween(String vesselCode, Instant startDate, Instant endDate);
+
+    @Query("SELECT v.datetime FROM ValidVesselData v WHERE v.vesselCode = :vesselCode AND v.datetime BETWEEN :startDate AND :endDate")
+    List<Instant> findDatetimes(@Param("vesselCode") String vesselCode, @Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
 }
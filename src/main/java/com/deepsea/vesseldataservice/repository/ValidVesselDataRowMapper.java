@@ -0,0 +1,33 @@
+package com.deepsea.vesseldataservice.repository;
+
+import com.deepsea.vesseldataservice.model.ValidVesselData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import org.springframework.jdbc.core.RowMapper;
+
+public final class ValidVesselDataRowMapper implements RowMapper<ValidVesselData> {
+
+    public static final String COLUMNS = "id, vessel_code, datetime, latitude, longitude, power, fuel_consumption, "
+            + "actual_speed_overground, proposed_speed_overground, predicted_fuel_consumption, speed_difference, compliance_percentage";
+
+    @Override
+    public ValidVesselData mapRow(ResultSet resultSet, int rowNumber) throws SQLException {
+
+        var data = new ValidVesselData(resultSet.getString(2), getInstant(resultSet, 3),
+                resultSet.getDouble(4), resultSet.getDouble(5), resultSet.getDouble(6), resultSet.getDouble(7),
+                resultSet.getDouble(8), resultSet.getDouble(9), resultSet.getDouble(10));
+        data.setId(resultSet.getLong(1));
+        data.setSpeedDifference(resultSet.getDouble(11));
+        data.setCompliancePercentage(resultSet.getDouble(12));
+        return data;
+    }
+
+    // Read as an offset date time, symmetric to the UTC offset the writers bind, so the driver's zone does not matter
+    public static Instant getInstant(ResultSet resultSet, int column) throws SQLException {
+
+        var value = resultSet.getObject(column, OffsetDateTime.class);
+        return value == null ? null : value.toInstant();
+    }
+}
@@ -0,0 +1,10 @@
+package com.deepsea.vesseldataservice.repository;
+
+import com.deepsea.vesseldataservice.model.VesselComplianceSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface VesselComplianceSummaryRepository extends JpaRepository<VesselComplianceSummary, String> {
+
+}
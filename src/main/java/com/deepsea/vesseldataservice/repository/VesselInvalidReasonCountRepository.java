@@ -0,0 +1,12 @@
+package com.deepsea.vesseldataservice.repository;
+
+import com.deepsea.vesseldataservice.model.VesselInvalidReasonCount;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface VesselInvalidReasonCountRepository extends JpaRepository<VesselInvalidReasonCount, VesselInvalidReasonCount.Key> {
+
+    List<VesselInvalidReasonCount> findByVesselCodeOrderByRowCountDesc(String vesselCode);
+}
@@ -0,0 +1,14 @@
+package com.deepsea.vesseldataservice.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class AccessLogStatsResponse {
+
+    private int queued;
+    private long written;
+    private long dropped;
+    private long sampledOut;
+}
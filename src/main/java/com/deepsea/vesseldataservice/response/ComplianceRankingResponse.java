@@ -0,0 +1,14 @@
+package com.deepsea.vesseldataservice.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ComplianceRankingResponse {
+
+    private int vesselCount;
+    private List<VesselComplianceResponse> top;
+    private List<VesselComplianceResponse> bottom;
+}
@@ -0,0 +1,32 @@
+package com.deepsea.vesseldataservice.response;
+
+import com.deepsea.vesseldataservice.service.IngestionJob;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class IngestionJobResponse {
+
+    private String id;
+    private IngestionJob.Status status;
+    private long rowsRead;
+    private long validRows;
+    private long invalidRows;
+    private long bytesRead;
+    private long totalBytes;
+    private double rowsPerSecond;
+    private Long etaSeconds;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+
+    public static IngestionJobResponse from(IngestionJob job) {
+
+        return new IngestionJobResponse(job.getId(), job.getStatus(), job.getRowsRead().get(), job.getValidRows().get(),
+                job.getInvalidRows().get(), job.getBytesRead().get(), job.getTotalBytes().get(), job.getRowsPerSecond(),
+                job.getEtaSeconds(), job.getSubmittedAt(), job.getStartedAt(), job.getFinishedAt(), job.getError());
+    }
+}
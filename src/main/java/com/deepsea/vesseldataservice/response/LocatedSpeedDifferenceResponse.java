@@ -0,0 +1,21 @@
+package com.deepsea.vesseldataservice.response;
+
+import com.deepsea.vesseldataservice.model.VesselDateTimeFormat;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class LocatedSpeedDifferenceResponse {
+
+    private String vesselCode;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = VesselDateTimeFormat.PATTERN, timezone = VesselDateTimeFormat.TIMEZONE)
+    private Instant datetime;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private double latitude;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private double longitude;
+    private double speedDifference;
+}
@@ -0,0 +1,15 @@
+package com.deepsea.vesseldataservice.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SnapshotResponse {
+
+    private String name;
+    private long validRows;
+    private long invalidRows;
+    private long bytes;
+    private long elapsedMillis;
+}
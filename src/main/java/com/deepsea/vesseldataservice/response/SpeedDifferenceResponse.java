@@ -1,5 +1,6 @@
 package com.deepsea.vesseldataservice.response;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -7,7 +8,9 @@ import lombok.Data;
 @AllArgsConstructor
 public class SpeedDifferenceResponse {
 
-    private String latitude;
-    private String longitude;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private double latitude;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private double longitude;
     private double speedDifference;
-}
\ No newline at end of file
+}
@@ -0,0 +1,14 @@
+package com.deepsea.vesseldataservice.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SpeedDifferenceScrollResponse {
+
+    private List<SpeedDifferenceResponse> content;
+    // Passed back to get the rows after this slice, null once the last row was returned
+    private String nextCursor;
+}
@@ -0,0 +1,13 @@
+package com.deepsea.vesseldataservice.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class VesselComplianceResponse {
+
+    private String vesselCode;
+    private double compliancePercentage;
+    private long readingCount;
+}
@@ -0,0 +1,72 @@
+package com.deepsea.vesseldataservice.service;
+
+import com.deepsea.vesseldataservice.repository.ValidVesselDataCursorRepository.ComplianceTotalConsumer;
+import com.deepsea.vesseldataservice.response.ComplianceRankingResponse;
+import com.deepsea.vesseldataservice.response.VesselComplianceResponse;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Top and bottom vessels kept in heaps bounded by the limit, so the fleet is never sorted
+final class ComplianceRanking implements ComplianceTotalConsumer {
+
+    private static final Comparator<VesselComplianceResponse> MOST_COMPLIANT_FIRST = Comparator
+            .comparingDouble(VesselComplianceResponse::getCompliancePercentage).reversed()
+            .thenComparing(VesselComplianceResponse::getVesselCode);
+
+    private static final Comparator<VesselComplianceResponse> LEAST_COMPLIANT_FIRST = Comparator
+            .comparingDouble(VesselComplianceResponse::getCompliancePercentage)
+            .thenComparing(VesselComplianceResponse::getVesselCode);
+
+    private final int limit;
+    // Heads are the worst of the kept vessels on each side
+    private final PriorityQueue<VesselComplianceResponse> top = new PriorityQueue<>(MOST_COMPLIANT_FIRST.reversed());
+    private final PriorityQueue<VesselComplianceResponse> bottom = new PriorityQueue<>(LEAST_COMPLIANT_FIRST.reversed());
+    private int vesselCount;
+
+    ComplianceRanking(int limit) {
+
+        this.limit = limit;
+    }
+
+    @Override
+    public void accept(String vesselCode, double complianceSum, long readingCount) {
+
+        if (readingCount == 0) {
+            return;
+        }
+        vesselCount++;
+        var compliance = new VesselComplianceResponse(vesselCode, complianceSum / readingCount, readingCount);
+        offer(top, compliance);
+        offer(bottom, compliance);
+    }
+
+    int vesselCount() {
+
+        return vesselCount;
+    }
+
+    ComplianceRankingResponse result() {
+
+        return new ComplianceRankingResponse(vesselCount, sorted(top, MOST_COMPLIANT_FIRST), sorted(bottom, LEAST_COMPLIANT_FIRST));
+    }
+
+    private void offer(PriorityQueue<VesselComplianceResponse> kept, VesselComplianceResponse compliance) {
+
+        if (kept.size() < limit) {
+            kept.add(compliance);
+        } else if (kept.comparator().compare(compliance, kept.peek()) > 0) {
+            kept.poll();
+            kept.add(compliance);
+        }
+    }
+
+    private static List<VesselComplianceResponse> sorted(PriorityQueue<VesselComplianceResponse> kept,
+            Comparator<VesselComplianceResponse> order) {
+
+        List<VesselComplianceResponse> result = new ArrayList<>(kept);
+        result.sort(order);
+        return result;
+    }
+}
@@ -0,0 +1,92 @@
+package com.deepsea.vesseldataservice.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+// Byte ranges that each start at a line; an unterminated last line gets a range of its own
+final class CsvFileSplitter {
+
+    private static final int SCAN_BUFFER_SIZE = 8192;
+
+    record Range(long start, long end) {
+
+        long length() {
+
+            return end - start;
+        }
+    }
+
+    private CsvFileSplitter() {
+
+    }
+
+    static List<Range> split(FileChannel channel, long targetRangeSize) throws IOException {
+
+        return split(channel, 0, targetRangeSize);
+    }
+
+    static List<Range> split(FileChannel channel, long startOffset, long targetRangeSize) throws IOException {
+
+        var fileSize = channel.size();
+        var lastLineEnd = lastLineEnd(channel, startOffset);
+        List<Range> ranges = new ArrayList<>();
+        var start = startOffset;
+
+        while (start < lastLineEnd) {
+            var end = start + targetRangeSize >= lastLineEnd ? lastLineEnd : nextLineStart(channel, start + targetRangeSize, lastLineEnd);
+            ranges.add(new Range(start, end));
+            start = end;
+        }
+        if (lastLineEnd < fileSize) {
+            ranges.add(new Range(lastLineEnd, fileSize));
+        }
+        return ranges;
+    }
+
+    // Offset right after the last line break, or startOffset when there is none after it
+    static long lastLineEnd(FileChannel channel, long startOffset) throws IOException {
+
+        var buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        var end = channel.size();
+
+        while (end > startOffset) {
+            var offset = Math.max(startOffset, end - SCAN_BUFFER_SIZE);
+            buffer.clear().limit((int) (end - offset));
+            var read = channel.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = read - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            end = offset;
+        }
+        return startOffset;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long fileSize) throws IOException {
+
+        var buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        var offset = position;
+
+        while (offset < fileSize) {
+            buffer.clear();
+            var read = channel.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return fileSize;
+    }
+}
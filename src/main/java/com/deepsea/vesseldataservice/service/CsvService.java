@@ -2,16 +2,25 @@ package com.deepsea.vesseldataservice.service;
 
 import static java.util.Objects.isNull;
 
+import com.deepsea.vesseldataservice.model.GeoGrid;
 import com.deepsea.vesseldataservice.model.InvalidVesselData;
 import com.deepsea.vesseldataservice.model.ValidVesselData;
-import com.deepsea.vesseldataservice.repository.InvalidVesselDataRepository;
-import com.deepsea.vesseldataservice.repository.ValidVesselDataRepository;
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,129 +32,354 @@ public class CsvService {
 
     private static final Logger logger = LoggerFactory.getLogger(CsvService.class);
 
+    private static final int VALIDATION_BATCH_SIZE = 256;
+
     @Value("classpath:${csv.file.name}")
     Resource csvFileResource;
 
     @Value("${csv.file.process.batch.size:100000}")
     private Integer batchSize;
 
-    private final ValidVesselDataRepository validVesselDataRepository;
-    private final InvalidVesselDataRepository invalidVesselDataRepository;
+    @Value("${csv.file.process.workers:0}")
+    private Integer workers;
+
+    @Value("${csv.file.process.range.size:8388608}")
+    private Long rangeSize;
+
+    @Value("${csv.file.process.checkpoint.enabled:true}")
+    private boolean checkpointEnabled;
+
+    private final VesselDataWriter vesselDataWriter;
+    private final IngestionCheckpointService ingestionCheckpointService;
+    private final List<VesselDataListener> vesselDataListeners;
+    private final IngestionMetrics ingestionMetrics;
+    private final VesselDataValidator vesselDataValidator;
 
-    public CsvService(ValidVesselDataRepository validVesselDataRepository, InvalidVesselDataRepository invalidVesselDataRepository) {
+    public CsvService(VesselDataWriter vesselDataWriter, IngestionCheckpointService ingestionCheckpointService,
+            List<VesselDataListener> vesselDataListeners, IngestionMetrics ingestionMetrics, VesselDataValidator vesselDataValidator) {
 
-        this.validVesselDataRepository = validVesselDataRepository;
-        this.invalidVesselDataRepository = invalidVesselDataRepository;
+        this.vesselDataWriter = vesselDataWriter;
+        this.ingestionCheckpointService = ingestionCheckpointService;
+        this.vesselDataListeners = vesselDataListeners;
+        this.ingestionMetrics = ingestionMetrics;
+        this.vesselDataValidator = vesselDataValidator;
     }
 
     public void readCsvInChunks() {
 
+        try {
+            importCsvFile(IngestionProgress.NONE);
+        } catch (IOException e) {
+            logger.error("Error reading CSV file: {}", e.getMessage(), e);
+        } catch (ExecutionException e) {
+            logger.error("Error parsing CSV file: {}", e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("CSV processing was interrupted");
+        } catch (Exception e) {
+            logger.error("Unexpected error during CSV processing: {}", e.getMessage(), e);
+        }
+    }
+
+    public void importCsvFile(IngestionProgress progress) throws IOException, ExecutionException, InterruptedException {
+
         logger.info("Reading CSV file in chunks of {}. Path is: {}", batchSize, csvFileResource);
         logger.debug("Starting to read CSV file: {}", csvFileResource.getFilename());
 
-        try (var reader = new BufferedReader(new FileReader(csvFileResource.getFile(), StandardCharsets.UTF_8))) {
-            String line;
+        var source = csvFileResource.getDescription();
+
+        // Inside a packaged jar the resource is not a file, so it can only be streamed
+        if (!csvFileResource.isFile()) {
+            var size = csvFileResource.contentLength();
+            byte[] head;
+            try (var inputStream = csvFileResource.getInputStream()) {
+                head = inputStream.readNBytes(IngestionCheckpointService.FINGERPRINT_BYTES);
+            }
+            var startOffset = resumeOffset(source, size, head);
+            try (var inputStream = csvFileResource.getInputStream()) {
+                inputStream.skipNBytes(startOffset);
+                progress.started(size - startOffset);
+
+                var splitter = new CsvStreamSplitter(inputStream, (int) Math.min(rangeSize, Integer.MAX_VALUE));
+                ingest(streamRanges(splitter), startOffset, checkpoint(source, head, Long.MAX_VALUE), progress);
+            }
+            return;
+        }
+
+        try (var channel = FileChannel.open(csvFileResource.getFile().toPath(), StandardOpenOption.READ)) {
+            var head = readHead(channel);
+            var startOffset = resumeOffset(source, channel.size(), head);
+
+            // Each range is memory-mapped on its own, so it has to fit in a single mapping
+            // An unterminated last line is imported, but the checkpoint stays before it in case it is still being written
+            var checkpointLimit = CsvFileSplitter.lastLineEnd(channel, startOffset);
+            var rangeList = CsvFileSplitter.split(channel, startOffset, Math.min(rangeSize, Integer.MAX_VALUE));
+            var ranges = rangeList.iterator();
+            logger.debug("CSV file of {} bytes split in ranges of about {} bytes", channel.size(), rangeSize);
+            progress.started(rangeList.isEmpty() ? 0 : rangeList.getLast().end() - startOffset);
+
+            ingest(() -> {
+                if (!ranges.hasNext()) {
+                    return null;
+                }
+                var range = ranges.next();
+                return () -> {
+                    var readStart = System.nanoTime();
+                    var buffer = channel.map(FileChannel.MapMode.READ_ONLY, range.start(), range.length());
+                    ingestionMetrics.recordRead(System.nanoTime() - readStart);
+                    return parseBuffer(buffer);
+                };
+            }, startOffset, checkpoint(source, head, checkpointLimit), progress);
+        }
+    }
+
+    // totalBytes is 0 when the length is unknown
+    public void importCsvStream(InputStream inputStream, long totalBytes, IngestionProgress progress) throws IOException, ExecutionException, InterruptedException {
+
+        logger.info("Reading CSV stream in chunks of {}", batchSize);
+        progress.started(Math.max(totalBytes, 0));
+
+        // A stream cannot be read again, so it has no checkpoint; replayed rows are still skipped as duplicates
+        var splitter = new CsvStreamSplitter(inputStream, (int) Math.min(rangeSize, Integer.MAX_VALUE));
+        ingest(streamRanges(splitter), 0, offset -> { }, progress);
+    }
+
+    public void resetCheckpoint() {
+
+        ingestionCheckpointService.reset(csvFileResource.getDescription());
+    }
+
+    private long resumeOffset(String source, long size, byte[] head) {
+
+        if (!checkpointEnabled) {
+            return 0;
+        }
+        var startOffset = ingestionCheckpointService.resumeOffset(source, size, head);
+        if (startOffset > 0) {
+            logger.info("Resuming import of {} from byte {} of {}", source, startOffset, size);
+        }
+        return startOffset;
+    }
+
+    private static byte[] readHead(FileChannel channel) throws IOException {
+
+        var head = ByteBuffer.allocate((int) Math.min(channel.size(), IngestionCheckpointService.FINGERPRINT_BYTES));
+        while (head.hasRemaining()) {
+            if (channel.read(head, head.position()) < 0) {
+                break;
+            }
+        }
+        return head.array();
+    }
+
+    private LongConsumer checkpoint(String source, byte[] head, long limit) {
+
+        return checkpointEnabled ? offset -> ingestionCheckpointService.commit(source, Math.min(offset, limit), head) : offset -> { };
+    }
+
+    private RangeSource streamRanges(CsvStreamSplitter splitter) {
+
+        return () -> {
+            var readStart = System.nanoTime();
+            var buffer = splitter.next();
+            ingestionMetrics.recordRead(System.nanoTime() - readStart);
+            return isNull(buffer) ? null : () -> parseBuffer(buffer);
+        };
+    }
+
+    // Batches are flushed only at range boundaries, so every row before a checkpointed offset is committed
+    private void ingest(RangeSource rangeSource, long startOffset, LongConsumer checkpoint, IngestionProgress progress)
+            throws IOException, ExecutionException, InterruptedException {
+
+        var workerCount = resolveWorkerCount();
+        logger.debug("Parsing with {} workers", workerCount);
+        var importRate = ingestionMetrics.importStarted();
+
+        var executor = Executors.newFixedThreadPool(workerCount);
+        try {
             var validDataInsertedCounter = 0; // Valid counter
             var invalidDataInsertedCounter = 0; // Invalid counter
+            var offset = startOffset;
+            var committedOffset = startOffset;
 
             List<ValidVesselData> validDataList = new ArrayList<>();
             List<InvalidVesselData> invalidDataList = new ArrayList<>();
 
-            while ((line = reader.readLine()) != null) {
-                logger.debug("Reading line: {}", line); // Log the line being processed
-                line = line.replace("\"", ""); // Remove all double quotes from strings
+            // Ranges are parsed concurrently, but consumed in source order so that batches keep the original row order
+            Deque<Future<ParsedRange>> inFlight = new ArrayDeque<>();
+            var moreRanges = true;
 
-                // Parse the line into a ValidVesselData object
-                var data = parseLineToValidVesselData(line);
-                if (isNull(data)) {
-                    logger.debug("Parsed data is null, skipping line: {}", line);
-                    continue;
+            while (moreRanges || !inFlight.isEmpty()) {
+                if (progress.isCancelled()) {
+                    throw new CancellationException("CSV processing was cancelled");
                 }
 
-                var invalidReason = getInvalidReason(data);
-                if (isNull(invalidReason)) { // Data are valid
-                    calculateNewMetrics(data);
-                    validDataList.add(data);
-                    validDataInsertedCounter++;
-                    logger.debug("Valid data added: {}", data); // Log valid data
-                } else { // Data are invalid
-                    invalidDataList.add(mapToInvalidData(data, invalidReason));
-                    invalidDataInsertedCounter++;
-                    logger.debug("Invalid data added: {} due to reason: {}", data, invalidReason); // Log invalid data
+                while (moreRanges && inFlight.size() < workerCount * 2) {
+                    var parseTask = rangeSource.next();
+                    if (isNull(parseTask)) {
+                        moreRanges = false;
+                    } else {
+                        inFlight.add(executor.submit(parseTask));
+                    }
                 }
-
-                if (validDataList.size() >= batchSize) {
-                    validVesselDataRepository.saveAll(validDataList);
-                    logger.info("Inserted {} valid data", validDataInsertedCounter);
-                    validDataList = new ArrayList<>();
+                if (inFlight.isEmpty()) {
+                    break;
                 }
 
-                if (invalidDataList.size() >= batchSize) {
-                    invalidVesselDataRepository.saveAll(invalidDataList);
-                    logger.info("Inserted {} invalid data", invalidDataInsertedCounter);
+                var parsedRange = inFlight.poll().get();
+                validDataList.addAll(parsedRange.validData());
+                invalidDataList.addAll(parsedRange.invalidData());
+                validDataInsertedCounter += parsedRange.validData().size();
+                invalidDataInsertedCounter += parsedRange.invalidData().size();
+                offset += parsedRange.bytes();
+
+                if (validDataList.size() >= batchSize || invalidDataList.size() >= batchSize) {
+                    flush(importRate, validDataList, invalidDataList);
+                    checkpoint.accept(offset);
+                    committedOffset = offset;
+                    logger.info("Inserted {} valid and {} invalid data", validDataInsertedCounter, invalidDataInsertedCounter);
+                    validDataList = new ArrayList<>();
                     invalidDataList = new ArrayList<>();
                 }
+
+                progress.rangeProcessed(parsedRange.bytes(), parsedRange.lineCount(),
+                        parsedRange.validData().size(), parsedRange.invalidData().size());
             }
 
             // Save any remaining data
-            if (!validDataList.isEmpty()) {
-                validVesselDataRepository.saveAll(validDataList);
-                logger.info("Flush the buffer with the last {} valid data", validDataList.size());
-            }
-            if (!invalidDataList.isEmpty()) {
-                invalidVesselDataRepository.saveAll(invalidDataList);
-                logger.info("Flush the buffer with the last {} invalid data", invalidDataList.size());
+            if (offset > committedOffset) {
+                logger.info("Flush the buffer with the last {} valid and {} invalid data", validDataList.size(), invalidDataList.size());
+                flush(importRate, validDataList, invalidDataList);
+                checkpoint.accept(offset);
             }
 
             logger.info("Data processing and insertion completed.");
-        } catch (IOException e) {
-            logger.error("Error reading CSV file: {}", e.getMessage(), e);
-        } catch (Exception e) {
-            logger.error("Unexpected error during CSV processing: {}", e.getMessage(), e);
+        } finally {
+            executor.shutdownNow();
         }
     }
 
-    String getInvalidReason(ValidVesselData vesselData) {
+    private void flush(IngestionMetrics.ImportRate importRate, List<ValidVesselData> validData, List<InvalidVesselData> invalidData) {
 
-        try {
-            var latitude = Double.parseDouble(vesselData.getLatitude());
-            var longitude = Double.parseDouble(vesselData.getLongitude());
-            if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
-                return "Invalid latitude or longitude";
+        if (!validData.isEmpty()) {
+            var flushStart = System.nanoTime();
+            vesselDataWriter.writeValid(validData);
+            ingestionMetrics.recordFlush(importRate, IngestionMetrics.VALID_TABLE, validData.size(), System.nanoTime() - flushStart);
+            vesselDataListeners.forEach(listener -> listener.validDataCommitted(validData));
+        }
+        if (!invalidData.isEmpty()) {
+            var flushStart = System.nanoTime();
+            vesselDataWriter.writeInvalid(invalidData);
+            ingestionMetrics.recordFlush(importRate, IngestionMetrics.INVALID_TABLE, invalidData.size(), System.nanoTime() - flushStart);
+            vesselDataListeners.forEach(listener -> listener.invalidDataCommitted(invalidData));
+        }
+    }
+
+    ParsedRange parseBuffer(ByteBuffer buffer) {
+
+        // Tokenize the range in place, without decoding lines into Strings, and validate the rows a batch at a time
+        var vesselCodeCache = VesselCsvRow.newVesselCodeCache();
+        var batch = new VesselCsvRow[VALIDATION_BATCH_SIZE];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = new VesselCsvRow(vesselCodeCache);
+        }
+        var reasons = new String[VALIDATION_BATCH_SIZE];
+        var batchCount = 0;
+
+        var rangeStart = System.nanoTime();
+        var times = new StageTimes();
+
+        List<ValidVesselData> validData = new ArrayList<>();
+        List<InvalidVesselData> invalidData = new ArrayList<>();
+
+        var limit = buffer.limit();
+        var lineCount = 0L;
+        var lineStart = 0;
+        while (lineStart < limit) {
+            var lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            var nextLineStart = lineEnd + 1;
+            if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+
+            if (lineEnd > lineStart) {
+                lineCount++;
+                var row = batch[batchCount];
+                if (row.parse(buffer, lineStart, lineEnd)) {
+                    // The header is not data, and having no datetime it could not be deduplicated on replays
+                    if (!row.isHeader() && ++batchCount == batch.length) {
+                        processBatch(batch, batchCount, reasons, validData, invalidData, times);
+                        batchCount = 0;
+                    }
+                } else {
+                    logger.warn("Skipping line due to wrong number fields: {}", row.line());
+                }
             }
+            lineStart = nextLineStart;
+        }
+        processBatch(batch, batchCount, reasons, validData, invalidData, times);
 
-            var power = Double.parseDouble(vesselData.getPower());
-            var fuelConsumption = Double.parseDouble(vesselData.getFuelConsumption());
-            var actualSpeedOverground = Double.parseDouble(vesselData.getActualSpeedOverground());
-            var proposedSpeedOverground = Double.parseDouble(vesselData.getProposedSpeedOverground());
-            var predictedFuelConsumption = Double.parseDouble(vesselData.getPredictedFuelConsumption());
+        var rangeNanos = System.nanoTime() - rangeStart;
+        ingestionMetrics.recordRange(rangeNanos - times.validateNanos - times.metricsNanos, times.validateNanos, times.metricsNanos);
+        return new ParsedRange(limit, lineCount, validData, invalidData);
+    }
+
+    private void processBatch(VesselCsvRow[] rows, int count, String[] reasons, List<ValidVesselData> validData,
+            List<InvalidVesselData> invalidData, StageTimes times) {
+
+        var validateStart = System.nanoTime();
+        vesselDataValidator.invalidReasons(rows, count, reasons);
+        times.validateNanos += System.nanoTime() - validateStart;
 
-            if (power < 0 || fuelConsumption < 0 || actualSpeedOverground < 0 || proposedSpeedOverground < 0 || predictedFuelConsumption < 0) {
-                return "Negative values";
+        for (int i = 0; i < count; i++) {
+            var row = rows[i];
+            if (logger.isDebugEnabled()) {
+                logger.debug("Reading line: {}", row.line()); // Log the line being processed
             }
 
-            if (actualSpeedOverground > 20 || proposedSpeedOverground > 20) {
-                return "Outliers";
+            var invalidReason = reasons[i];
+            if (isNull(invalidReason)) { // Data are valid
+                var data = toValidVesselData(row);
+                var metricsStart = System.nanoTime();
+                calculateNewMetrics(data);
+                times.metricsNanos += System.nanoTime() - metricsStart;
+                validData.add(data);
+                logger.debug("Valid data added: {}", data); // Log valid data
+            } else { // Data are invalid
+                var data = toInvalidVesselData(row, invalidReason);
+                invalidData.add(data);
+                logger.debug("Invalid data added: {} due to reason: {}", data, invalidReason); // Log invalid data
             }
-        } catch (NumberFormatException e) {
-            return "Number format exception"; // Catch null values
         }
-        return null; // Returns null, but is handled immediately
+    }
+
+    private int resolveWorkerCount() {
+
+        return workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+    }
+
+    String getInvalidReason(VesselCsvRow row) {
+
+        return vesselDataValidator.invalidReason(row);
     }
 
     void calculateNewMetrics(ValidVesselData vesselData) {
 
-        var actualSpeed = Double.parseDouble(vesselData.getActualSpeedOverground());
-        var proposedSpeed = Double.parseDouble(vesselData.getProposedSpeedOverground());
-        var speedDifference = actualSpeed - proposedSpeed;
+        var speedDifference = vesselData.getActualSpeedOverground() - vesselData.getProposedSpeedOverground();
         vesselData.setSpeedDifference(speedDifference);
         vesselData.setCompliancePercentage(calculateCompliancePercentage(vesselData));
+        vesselData.setGeoCell(GeoGrid.cell(vesselData.getLatitude(), vesselData.getLongitude()));
     }
 
     double calculateCompliancePercentage(ValidVesselData vesselData) {
 
-        var speedDifference = vesselData.getSpeedDifference();
-        var proposedSpeed = Double.parseDouble(vesselData.getProposedSpeedOverground());
+        return calculateCompliancePercentage(vesselData.getSpeedDifference(), vesselData.getProposedSpeedOverground());
+    }
+
+    static double calculateCompliancePercentage(double speedDifference, double proposedSpeed) {
 
         if (proposedSpeed == 0) {
             return 0; // Avoid division by zero
@@ -155,31 +389,53 @@ public class CsvService {
         return Math.max(compliance, 0); // Ensure compliance is not negative
     }
 
-    private InvalidVesselData mapToInvalidData(ValidVesselData validVesselData, String reason) {
+    VesselCsvRow parseLine(String line) {
+
+        var bytes = line.getBytes(StandardCharsets.UTF_8);
+        var row = new VesselCsvRow();
+
+        // Handle cases where the line might not have the expected number of fields
+        if (!row.parse(ByteBuffer.wrap(bytes), 0, bytes.length)) {
+            logger.warn("Skipping line due to wrong number fields: {}", line);
+            return null; // Returns null, but is handled immediately
+        }
+        return row;
+    }
+
+    private static ValidVesselData toValidVesselData(VesselCsvRow row) {
 
-        var invalidData = new InvalidVesselData();
-        invalidData.setVesselCode(validVesselData.getVesselCode());
-        invalidData.setDatetime(validVesselData.getDatetime());
-        invalidData.setLatitude(validVesselData.getLatitude());
-        invalidData.setLongitude(validVesselData.getLongitude());
-        invalidData.setPower(validVesselData.getPower());
-        invalidData.setFuelConsumption(validVesselData.getFuelConsumption());
-        invalidData.setActualSpeedOverground(validVesselData.getActualSpeedOverground());
-        invalidData.setProposedSpeedOverground(validVesselData.getProposedSpeedOverground());
-        invalidData.setPredictedFuelConsumption(validVesselData.getPredictedFuelConsumption());
+        return new ValidVesselData(row.vesselCode(), row.datetime(),
+                row.value(VesselCsvRow.LATITUDE), row.value(VesselCsvRow.LONGITUDE),
+                row.value(VesselCsvRow.POWER), row.value(VesselCsvRow.FUEL_CONSUMPTION),
+                row.value(VesselCsvRow.ACTUAL_SPEED_OVERGROUND), row.value(VesselCsvRow.PROPOSED_SPEED_OVERGROUND),
+                row.value(VesselCsvRow.PREDICTED_FUEL_CONSUMPTION));
+    }
+
+    private static InvalidVesselData toInvalidVesselData(VesselCsvRow row, String reason) {
+
+        var invalidData = new InvalidVesselData(row.vesselCode(), row.datetime(),
+                row.number(VesselCsvRow.LATITUDE), row.number(VesselCsvRow.LONGITUDE),
+                row.number(VesselCsvRow.POWER), row.number(VesselCsvRow.FUEL_CONSUMPTION),
+                row.number(VesselCsvRow.ACTUAL_SPEED_OVERGROUND), row.number(VesselCsvRow.PROPOSED_SPEED_OVERGROUND),
+                row.number(VesselCsvRow.PREDICTED_FUEL_CONSUMPTION));
         invalidData.setInvalidReason(reason);
         return invalidData;
     }
 
-    ValidVesselData parseLineToValidVesselData(String line) {
+    @FunctionalInterface
+    private interface RangeSource {
 
-        String[] fields = line.split(",");
+        Callable<ParsedRange> next() throws IOException;
+    }
+
+    // Time spent per stage over the rows of one range
+    private static final class StageTimes {
+
+        private long validateNanos;
+        private long metricsNanos;
+    }
+
+    record ParsedRange(long bytes, long lineCount, List<ValidVesselData> validData, List<InvalidVesselData> invalidData) {
 
-        // Handle cases where the line might not have the expected number of fields
-        if (fields.length != 9) {
-            logger.warn("Skipping line due to wrong number fields: {}", line);
-            return null; // Returns null, but is handled immediately
-        }
-        return new ValidVesselData(fields);
     }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.deepsea.vesseldataservice.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+// Blocks ending after a line break; the overflowing part of a line moves to the next block
+final class CsvStreamSplitter {
+
+    private final InputStream inputStream;
+    private final int blockSize;
+
+    private byte[] carry = new byte[0];
+    private int carryLength;
+    private boolean endOfStream;
+
+    CsvStreamSplitter(InputStream inputStream, int blockSize) {
+
+        this.inputStream = inputStream;
+        this.blockSize = blockSize;
+    }
+
+    // Null at the end of the stream
+    ByteBuffer next() throws IOException {
+
+        while (true) {
+            if (endOfStream && carryLength == 0) {
+                return null;
+            }
+
+            var block = new byte[Math.max(blockSize, carryLength * 2)];
+            System.arraycopy(carry, 0, block, 0, carryLength);
+            var filled = carryLength;
+
+            while (filled < block.length && !endOfStream) {
+                var read = inputStream.read(block, filled, block.length - filled);
+                if (read < 0) {
+                    endOfStream = true;
+                } else {
+                    filled += read;
+                }
+            }
+
+            if (endOfStream) {
+                carryLength = 0;
+                return ByteBuffer.wrap(block, 0, filled);
+            }
+
+            var lastLineBreak = filled - 1;
+            while (lastLineBreak >= 0 && block[lastLineBreak] != '\n') {
+                lastLineBreak--;
+            }
+
+            // A line longer than the whole block is carried over as a whole, and the next block is made larger
+            carry = new byte[filled - lastLineBreak - 1];
+            carryLength = carry.length;
+            System.arraycopy(block, lastLineBreak + 1, carry, 0, carryLength);
+
+            if (lastLineBreak >= 0) {
+                return ByteBuffer.wrap(block, 0, lastLineBreak + 1);
+            }
+        }
+    }
+}
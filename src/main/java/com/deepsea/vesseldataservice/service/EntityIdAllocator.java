@@ -0,0 +1,42 @@
+package com.deepsea.vesseldataservice.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.concurrent.locks.ReentrantLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.stereotype.Component;
+
+// Blocks of ids from the generator JPA uses, so JDBC and repository writes never collide
+@Component
+public class EntityIdAllocator {
+
+    private final SessionFactoryImplementor sessionFactory;
+    // A lock rather than synchronized, which would pin a virtual thread while the generator queries the database
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public EntityIdAllocator(EntityManagerFactory entityManagerFactory) {
+
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    public long[] allocate(Class<?> entityClass, int count) {
+
+        var generator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(entityClass)
+                .getGenerator();
+
+        var ids = new long[count];
+        lock.lock();
+        try (var session = sessionFactory.openStatelessSession()) {
+            var sessionImplementor = (SharedSessionContractImplementor) session;
+            // The generator is shared with Hibernate, which synchronizes its optimizer state internally
+            for (int i = 0; i < count; i++) {
+                ids[i] = ((Number) generator.generate(sessionImplementor, null)).longValue();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return ids;
+    }
+}
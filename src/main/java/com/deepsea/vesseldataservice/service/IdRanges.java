@@ -0,0 +1,61 @@
+package com.deepsea.vesseldataservice.service;
+
+import java.util.Arrays;
+
+// Ids collapsed into runs of consecutive values; ids of other writers can fall between two runs but never inside one
+final class IdRanges {
+
+    // Pairs of first and last id of each run
+    private final long[] bounds;
+
+    private IdRanges(long[] bounds) {
+
+        this.bounds = bounds;
+    }
+
+    static IdRanges of(long[] ids) {
+
+        var sorted = ids.clone();
+        Arrays.sort(sorted);
+
+        var bounds = new long[sorted.length * 2];
+        var size = 0;
+        for (long id : sorted) {
+            if (size > 0 && id <= bounds[size - 1] + 1) {
+                bounds[size - 1] = Math.max(bounds[size - 1], id);
+            } else {
+                bounds[size++] = id;
+                bounds[size++] = id;
+            }
+        }
+        return new IdRanges(Arrays.copyOf(bounds, size));
+    }
+
+    static IdRanges between(long fromId, long toId) {
+
+        return new IdRanges(new long[] {fromId, toId});
+    }
+
+    boolean isEmpty() {
+
+        return bounds.length == 0;
+    }
+
+    // A condition on the id column, with one pair of parameters per run
+    String predicate() {
+
+        if (isEmpty()) {
+            return "1 = 0";
+        }
+        var predicate = new StringBuilder("(");
+        for (int i = 0; i < bounds.length; i += 2) {
+            predicate.append(i == 0 ? "" : " OR ").append("id BETWEEN ? AND ?");
+        }
+        return predicate.append(')').toString();
+    }
+
+    Object[] arguments() {
+
+        return Arrays.stream(bounds).boxed().toArray();
+    }
+}
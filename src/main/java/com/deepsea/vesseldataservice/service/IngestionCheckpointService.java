@@ -0,0 +1,71 @@
+package com.deepsea.vesseldataservice.service;
+
+import com.deepsea.vesseldataservice.model.IngestionCheckpoint;
+import com.deepsea.vesseldataservice.repository.IngestionCheckpointRepository;
+import java.time.Instant;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+// Rows after a checkpoint may already be stored too; the writers skip them as duplicates
+@Service
+public class IngestionCheckpointService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionCheckpointService.class);
+
+    // Length of the start of a source that identifies it
+    public static final int FINGERPRINT_BYTES = 4096;
+
+    private final IngestionCheckpointRepository ingestionCheckpointRepository;
+
+    public IngestionCheckpointService(IngestionCheckpointRepository ingestionCheckpointRepository) {
+
+        this.ingestionCheckpointRepository = ingestionCheckpointRepository;
+    }
+
+    // 0 when the source was never imported or was replaced, detected by its size or first bytes
+    public long resumeOffset(String source, long sourceSize, byte[] head) {
+
+        var checkpoint = ingestionCheckpointRepository.findById(source);
+        if (checkpoint.isEmpty()) {
+            return 0;
+        }
+
+        var byteOffset = checkpoint.get().getByteOffset();
+        if (byteOffset > sourceSize) {
+            logger.warn("CSV source {} is smaller than its checkpoint at byte {}, importing it from the start", source, byteOffset);
+            return 0;
+        }
+        if (checkpoint.get().getFingerprint() != fingerprint(head, byteOffset)) {
+            logger.warn("CSV source {} does not start like the one checkpointed at byte {}, importing it from the start", source, byteOffset);
+            return 0;
+        }
+        return byteOffset;
+    }
+
+    public void commit(String source, long byteOffset, byte[] head) {
+
+        var checkpoint = ingestionCheckpointRepository.findById(source).orElseGet(() -> new IngestionCheckpoint(source));
+        checkpoint.setByteOffset(byteOffset);
+        checkpoint.setFingerprint(fingerprint(head, byteOffset));
+        checkpoint.setLastBatch(checkpoint.getLastBatch() + 1);
+        checkpoint.setUpdatedAt(Instant.now());
+        ingestionCheckpointRepository.save(checkpoint);
+        logger.debug("Checkpoint of {} moved to byte {} after batch {}", source, byteOffset, checkpoint.getLastBatch());
+    }
+
+    public void reset(String source) {
+
+        ingestionCheckpointRepository.deleteById(source);
+        logger.info("Checkpoint of {} reset, the next import starts from the beginning", source);
+    }
+
+    // Only the bytes before the checkpoint are covered, those do not change while the source is appended to
+    private static long fingerprint(byte[] head, long byteOffset) {
+
+        var checksum = new CRC32();
+        checksum.update(head, 0, (int) Math.min(head.length, byteOffset));
+        return checksum.getValue();
+    }
+}
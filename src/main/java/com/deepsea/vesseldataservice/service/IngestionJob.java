@@ -0,0 +1,99 @@
+package com.deepsea.vesseldataservice.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+
+// Updated by the importing thread, read by status requests
+@Getter
+public class IngestionJob implements IngestionProgress {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Instant submittedAt = Instant.now();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong validRows = new AtomicLong();
+    private final AtomicLong invalidRows = new AtomicLong();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile boolean cancelRequested;
+
+    @Override
+    public void started(long totalBytes) {
+
+        this.totalBytes.set(totalBytes);
+    }
+
+    @Override
+    public void rangeProcessed(long bytes, long rows, long validRows, long invalidRows) {
+
+        this.bytesRead.addAndGet(bytes);
+        this.rowsRead.addAndGet(rows);
+        this.validRows.addAndGet(validRows);
+        this.invalidRows.addAndGet(invalidRows);
+    }
+
+    @Override
+    public boolean isCancelled() {
+
+        return cancelRequested;
+    }
+
+    public double getRowsPerSecond() {
+
+        var seconds = elapsed().toMillis() / 1000.0;
+        return seconds > 0 ? rowsRead.get() / seconds : 0;
+    }
+
+    // Extrapolated from the share read so far, null until it can be estimated
+    public Long getEtaSeconds() {
+
+        var read = bytesRead.get();
+        var total = totalBytes.get();
+        if (status != Status.RUNNING || read == 0 || total == 0) {
+            return null;
+        }
+        return elapsed().toSeconds() * (total - read) / read;
+    }
+
+    boolean isFinished() {
+
+        return status == Status.COMPLETED || status == Status.FAILED || status == Status.CANCELLED;
+    }
+
+    void markRunning() {
+
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void markFinished(Status finalStatus, String error) {
+
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.status = finalStatus;
+    }
+
+    void requestCancel() {
+
+        cancelRequested = true;
+    }
+
+    private Duration elapsed() {
+
+        if (startedAt == null) {
+            return Duration.ZERO;
+        }
+        return Duration.between(startedAt, finishedAt != null ? finishedAt : Instant.now());
+    }
+}
@@ -0,0 +1,217 @@
+package com.deepsea.vesseldataservice.service;
+
+import com.deepsea.vesseldataservice.config.Workload;
+import com.deepsea.vesseldataservice.exception.DataNotFoundException;
+import com.deepsea.vesseldataservice.exception.JobRejectedException;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+// Cancellation stops an import before its next range; committed batches stay
+@Service
+public class IngestionJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionJobService.class);
+
+    private final CsvService csvService;
+    private final int maxQueuedJobs;
+    private final int retainedJobs;
+    private final Duration uploadAcquireTimeout;
+    private final Semaphore runningJobs;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, IngestionJob> jobs = new ConcurrentHashMap<>();
+
+    public IngestionJobService(CsvService csvService,
+            @Value("${ingestion.jobs.max.running:1}") int maxRunningJobs,
+            @Value("${ingestion.jobs.max.queued:10}") int maxQueuedJobs,
+            @Value("${ingestion.jobs.retained:100}") int retainedJobs,
+            @Value("${ingestion.jobs.upload.acquire.timeout:PT5S}") Duration uploadAcquireTimeout) {
+
+        this.csvService = csvService;
+        this.maxQueuedJobs = maxQueuedJobs;
+        this.retainedJobs = retainedJobs;
+        this.uploadAcquireTimeout = uploadAcquireTimeout;
+        this.runningJobs = new Semaphore(maxRunningJobs, true);
+    }
+
+    public IngestionJob submit(boolean fromStart) {
+
+        var job = register();
+        executor.execute(() -> run(job, progress -> {
+            if (fromStart) {
+                csvService.resetCheckpoint();
+            }
+            csvService.importCsvFile(progress);
+        }));
+        logger.info("Submitted ingestion job {}", job.getId());
+        return job;
+    }
+
+    // Runs on the calling thread so the upload is consumed as it arrives; contentLength is -1 when unknown
+    public IngestionJob importUpload(InputStream body, long contentLength) throws IOException {
+
+        var job = register();
+        // The request holds the unread body while it waits, so it only waits briefly for a running import to finish
+        if (!tryAcquire(uploadAcquireTimeout)) {
+            jobs.remove(job.getId());
+            logger.warn("Rejecting upload, no ingestion slot freed up within {}", uploadAcquireTimeout);
+            throw new JobRejectedException("Another ingestion job is running, try the upload again later.");
+        }
+        logger.info("Importing upload as ingestion job {}", job.getId());
+
+        var upload = new BufferedInputStream(body);
+        if (isGzip(upload)) {
+            // The decompressed size is unknown, so the job reports no ETA
+            runAcquired(job, progress -> csvService.importCsvStream(new GZIPInputStream(upload), 0, progress));
+        } else {
+            runAcquired(job, progress -> csvService.importCsvStream(upload, contentLength, progress));
+        }
+        return job;
+    }
+
+    public IngestionJob getJob(String jobId) {
+
+        var job = jobs.get(jobId);
+        if (job == null) {
+            throw new DataNotFoundException("No ingestion job found with id: " + jobId);
+        }
+        return job;
+    }
+
+    public List<IngestionJob> getJobs() {
+
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(IngestionJob::getSubmittedAt))
+                .toList();
+    }
+
+    public synchronized IngestionJob cancel(String jobId) {
+
+        var job = getJob(jobId);
+        job.requestCancel();
+        if (job.getStatus() == IngestionJob.Status.QUEUED) {
+            job.markFinished(IngestionJob.Status.CANCELLED, null);
+        }
+        logger.info("Cancellation requested for ingestion job {}", jobId);
+        return job;
+    }
+
+    @PreDestroy
+    void shutdown() {
+
+        jobs.values().forEach(IngestionJob::requestCancel);
+        executor.shutdown();
+    }
+
+    private synchronized IngestionJob register() {
+
+        var queuedJobs = jobs.values().stream().filter(job -> job.getStatus() == IngestionJob.Status.QUEUED).count();
+        if (queuedJobs >= maxQueuedJobs) {
+            logger.warn("Rejecting ingestion job, {} jobs are already queued", queuedJobs);
+            throw new JobRejectedException("Too many queued ingestion jobs, try again later.");
+        }
+        evictFinishedJobs();
+
+        var job = new IngestionJob();
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    private void run(IngestionJob job, ImportTask importTask) {
+
+        try {
+            runningJobs.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.markFinished(IngestionJob.Status.CANCELLED, null);
+            return;
+        }
+        runAcquired(job, importTask);
+    }
+
+    private boolean tryAcquire(Duration timeout) {
+
+        try {
+            return runningJobs.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Releases the slot taken by the caller
+    private void runAcquired(IngestionJob job, ImportTask importTask) {
+
+        // Also when started from a query endpoint, the import writes through the ingestion pool
+        var previousWorkload = Workload.enter(Workload.INGEST);
+        try {
+            if (job.isCancelled()) {
+                return;
+            }
+            job.markRunning();
+            importTask.importInto(job);
+            job.markFinished(IngestionJob.Status.COMPLETED, null);
+            logger.info("Ingestion job {} completed with {} rows", job.getId(), job.getRowsRead().get());
+        } catch (CancellationException e) {
+            job.markFinished(IngestionJob.Status.CANCELLED, null);
+            logger.info("Ingestion job {} cancelled after {} rows", job.getId(), job.getRowsRead().get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.markFinished(IngestionJob.Status.CANCELLED, null);
+        } catch (ExecutionException e) {
+            job.markFinished(IngestionJob.Status.FAILED, e.getCause().getMessage());
+            logger.error("Ingestion job {} failed: {}", job.getId(), e.getCause().getMessage(), e.getCause());
+        } catch (Exception e) {
+            job.markFinished(IngestionJob.Status.FAILED, e.getMessage());
+            logger.error("Ingestion job {} failed: {}", job.getId(), e.getMessage(), e);
+        } finally {
+            Workload.restore(previousWorkload);
+            runningJobs.release();
+        }
+    }
+
+    private static boolean isGzip(BufferedInputStream upload) throws IOException {
+
+        upload.mark(2);
+        var first = upload.read();
+        var second = upload.read();
+        upload.reset();
+        return first == (GZIPInputStream.GZIP_MAGIC & 0xff) && second == (GZIPInputStream.GZIP_MAGIC >> 8);
+    }
+
+    private void evictFinishedJobs() {
+
+        var excess = jobs.size() - retainedJobs + 1;
+        if (excess <= 0) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(IngestionJob::isFinished)
+                .sorted(Comparator.comparing(IngestionJob::getSubmittedAt))
+                .limit(excess)
+                .forEach(job -> jobs.remove(job.getId()));
+    }
+
+    @FunctionalInterface
+    private interface ImportTask {
+
+        void importInto(IngestionProgress progress) throws Exception;
+    }
+}
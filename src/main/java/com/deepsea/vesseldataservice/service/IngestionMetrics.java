@@ -0,0 +1,118 @@
+package com.deepsea.vesseldataservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+// Per-row stages are summed per range, so the hot loop only reads the clock
+@Component
+public final class IngestionMetrics {
+
+    static final String VALID_TABLE = "valid_vessel_data";
+    static final String INVALID_TABLE = "invalid_vessel_data";
+
+    private record TableMeters(Timer flush, DistributionSummary batchSize, Counter rows) {
+
+    }
+
+    // Rows committed by one import, so that concurrent imports do not reset each other's rate
+    static final class ImportRate {
+
+        private final long startNanos = System.nanoTime();
+        private long rows;
+        private double rowsPerSecond;
+
+        private synchronized void add(int committedRows) {
+
+            rows += committedRows;
+            var elapsedNanos = System.nanoTime() - startNanos;
+            rowsPerSecond = elapsedNanos > 0 ? rows * 1e9 / elapsedNanos : 0;
+        }
+
+        synchronized double rowsPerSecond() {
+
+            return rowsPerSecond;
+        }
+    }
+
+    private final Timer readTimer;
+    private final Timer parseTimer;
+    private final Timer validateTimer;
+    private final Timer metricsTimer;
+    private final Map<String, TableMeters> tableMeters;
+
+    private volatile ImportRate latestImport = new ImportRate();
+
+    public IngestionMetrics(MeterRegistry meterRegistry) {
+
+        this.readTimer = stageTimer(meterRegistry, "read");
+        this.parseTimer = stageTimer(meterRegistry, "parse");
+        this.validateTimer = stageTimer(meterRegistry, "validate");
+        this.metricsTimer = stageTimer(meterRegistry, "metrics");
+        this.tableMeters = Map.of(VALID_TABLE, tableMeters(meterRegistry, VALID_TABLE),
+                INVALID_TABLE, tableMeters(meterRegistry, INVALID_TABLE));
+
+        Gauge.builder("vessel.ingestion.rows.per.second", this, metrics -> metrics.latestImport.rowsPerSecond())
+                .description("Rows committed per second by the latest import started")
+                .register(meterRegistry);
+    }
+
+    void recordRead(long nanos) {
+
+        readTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordRange(long parseNanos, long validateNanos, long metricsNanos) {
+
+        parseTimer.record(parseNanos, TimeUnit.NANOSECONDS);
+        validateTimer.record(validateNanos, TimeUnit.NANOSECONDS);
+        metricsTimer.record(metricsNanos, TimeUnit.NANOSECONDS);
+    }
+
+    ImportRate importStarted() {
+
+        var importRate = new ImportRate();
+        latestImport = importRate;
+        return importRate;
+    }
+
+    void recordFlush(ImportRate importRate, String table, int rows, long nanos) {
+
+        var meters = tableMeters.get(table);
+        meters.flush().record(nanos, TimeUnit.NANOSECONDS);
+        meters.batchSize().record(rows);
+        meters.rows().increment(rows);
+        importRate.add(rows);
+    }
+
+    private static TableMeters tableMeters(MeterRegistry meterRegistry, String table) {
+
+        return new TableMeters(
+                Timer.builder("vessel.ingestion.flush")
+                        .description("Time to write and commit a batch")
+                        .tag("table", table)
+                        .register(meterRegistry),
+                DistributionSummary.builder("vessel.ingestion.batch.size")
+                        .description("Rows per flushed batch")
+                        .baseUnit("rows")
+                        .tag("table", table)
+                        .register(meterRegistry),
+                Counter.builder("vessel.ingestion.rows")
+                        .description("Rows committed")
+                        .tag("table", table)
+                        .register(meterRegistry));
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+
+        return Timer.builder("vessel.ingestion.stage")
+                .description("Time spent in each ingestion stage")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+}
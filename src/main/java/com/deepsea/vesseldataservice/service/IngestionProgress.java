@@ -0,0 +1,21 @@
+package com.deepsea.vesseldataservice.service;
+
+public interface IngestionProgress {
+
+    IngestionProgress NONE = new IngestionProgress() {
+
+    };
+
+    default void started(long totalBytes) {
+
+    }
+
+    default void rangeProcessed(long bytes, long rows, long validRows, long invalidRows) {
+
+    }
+
+    default boolean isCancelled() {
+
+        return false;
+    }
+}
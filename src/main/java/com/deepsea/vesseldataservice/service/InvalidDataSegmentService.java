@@ -0,0 +1,168 @@
+package com.deepsea.vesseldataservice.service;
+
+import static java.util.Objects.isNull;
+
+import com.deepsea.vesseldataservice.model.InvalidDataSegment;
+import com.deepsea.vesseldataservice.repository.InvalidDataSegmentRepository;
+import com.deepsea.vesseldataservice.repository.ValidVesselDataRowMapper;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+// Runs of invalid readings less than the gap apart, which answer problem queries of the same interval
+@Service
+public class InvalidDataSegmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvalidDataSegmentService.class);
+
+    private static final String INSERTED_DATETIMES = "SELECT vessel_code, invalid_reason, datetime FROM invalid_vessel_data "
+            + "WHERE {ids} AND datetime IS NOT NULL AND invalid_reason IS NOT NULL "
+            + "ORDER BY vessel_code, invalid_reason, datetime";
+
+    private static final long REBUILD_ID_RANGE = 50_000;
+
+    // A stored segment, or one reading just inserted when stored is null
+    private record Run(int rowCount, long startEpochSecond, long endEpochSecond, InvalidDataSegment stored) {
+
+    }
+
+    private final InvalidDataSegmentRepository invalidDataSegmentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long gapMinutes;
+
+    public InvalidDataSegmentService(InvalidDataSegmentRepository invalidDataSegmentRepository, JdbcTemplate jdbcTemplate,
+            @Value("${vessel.segments.enabled:true}") boolean enabled,
+            @Value("${vessel.segments.gap.minutes:60}") long gapMinutes) {
+
+        this.invalidDataSegmentRepository = invalidDataSegmentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.gapMinutes = gapMinutes;
+    }
+
+    public boolean covers(long minutesInterval) {
+
+        return enabled && minutesInterval == gapMinutes;
+    }
+
+    // Must run in the transaction that inserted the ids
+    void apply(IdRanges ids) {
+
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+
+        String[] key = new String[2];
+        List<Run> readings = new ArrayList<>();
+
+        jdbcTemplate.query(INSERTED_DATETIMES.replace("{ids}", ids.predicate()), resultSet -> {
+            var vesselCode = resultSet.getString(1);
+            var invalidReason = resultSet.getString(2);
+            if (!vesselCode.equals(key[0]) || !invalidReason.equals(key[1])) {
+                merge(key[0], key[1], readings);
+                readings.clear();
+                key[0] = vesselCode;
+                key[1] = invalidReason;
+            }
+            var epochSecond = ValidVesselDataRowMapper.getInstant(resultSet, 3).getEpochSecond();
+            readings.add(new Run(1, epochSecond, epochSecond, null));
+        }, ids.arguments());
+
+        merge(key[0], key[1], readings);
+    }
+
+    // Joins the transaction of VesselSummaryService.rebuild
+    public void rebuild() {
+
+        jdbcTemplate.update("DELETE FROM invalid_data_segment");
+        if (!enabled) {
+            return;
+        }
+
+        var minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM invalid_vessel_data", Long.class);
+        var maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM invalid_vessel_data", Long.class);
+        if (isNull(minId)) {
+            return;
+        }
+        // In id ranges to bound the memory, each range merges with the segments of the previous ones
+        for (long fromId = minId; fromId <= maxId; fromId += REBUILD_ID_RANGE) {
+            apply(IdRanges.between(fromId, Math.min(fromId + REBUILD_ID_RANGE - 1, maxId)));
+        }
+        logger.info("Rebuilt {} invalid data segments", invalidDataSegmentRepository.count());
+    }
+
+    // invalidReason null for every reason
+    public int detect(String vesselCode, String invalidReason, ProblemGroupDetector detector) {
+
+        var segments = isNull(invalidReason) ? invalidDataSegmentRepository.findByVesselCodeOrderByStartDatetimeAsc(vesselCode)
+                : invalidDataSegmentRepository.findByVesselCodeAndInvalidReasonOrderByStartDatetimeAsc(vesselCode, invalidReason);
+
+        segments.forEach(segment -> detector.accept(segment.getRowCount(), segment.getStartDatetime().getEpochSecond(),
+                segment.getEndDatetime().getEpochSecond()));
+        return segments.size();
+    }
+
+    private void merge(String vesselCode, String invalidReason, List<Run> readings) {
+
+        if (readings.isEmpty()) {
+            return;
+        }
+
+        var gapSeconds = gapMinutes * 60;
+        var from = Instant.ofEpochSecond(readings.getFirst().startEpochSecond() - gapSeconds);
+        var to = Instant.ofEpochSecond(readings.getLast().endEpochSecond() + gapSeconds);
+
+        List<Run> runs = new ArrayList<>(readings);
+        for (InvalidDataSegment segment : invalidDataSegmentRepository.findOverlappingForUpdate(vesselCode, invalidReason, from, to)) {
+            runs.add(new Run(segment.getRowCount(), segment.getStartDatetime().getEpochSecond(),
+                    segment.getEndDatetime().getEpochSecond(), segment));
+        }
+        runs.sort(Comparator.comparingLong(Run::startEpochSecond));
+
+        List<InvalidDataSegment> saved = new ArrayList<>();
+        List<InvalidDataSegment> deleted = new ArrayList<>();
+        var group = new ArrayList<Run>();
+        var groupEnd = Long.MIN_VALUE;
+
+        for (Run run : runs) {
+            if (!group.isEmpty() && !ProblemGroupDetector.sameGroup(groupEnd, run.startEpochSecond(), gapSeconds)) {
+                close(vesselCode, invalidReason, group, saved, deleted);
+                group.clear();
+            }
+            groupEnd = group.isEmpty() ? run.endEpochSecond() : Math.max(groupEnd, run.endEpochSecond());
+            group.add(run);
+        }
+        close(vesselCode, invalidReason, group, saved, deleted);
+
+        invalidDataSegmentRepository.deleteAll(deleted);
+        invalidDataSegmentRepository.saveAll(saved);
+    }
+
+    // Stores the group as one segment, reusing the first stored segment in it and deleting the others
+    private void close(String vesselCode, String invalidReason, List<Run> group, List<InvalidDataSegment> saved,
+            List<InvalidDataSegment> deleted) {
+
+        var stored = group.stream().map(Run::stored).filter(Objects::nonNull).toList();
+        if (group.size() == 1 && stored.size() == 1) {
+            return;
+        }
+
+        var segment = stored.isEmpty() ? new InvalidDataSegment() : stored.getFirst();
+        segment.setVesselCode(vesselCode);
+        segment.setInvalidReason(invalidReason);
+        segment.setStartDatetime(Instant.ofEpochSecond(group.getFirst().startEpochSecond()));
+        segment.setEndDatetime(Instant.ofEpochSecond(group.stream().mapToLong(Run::endEpochSecond).max().orElseThrow()));
+        segment.setRowCount(group.stream().mapToInt(Run::rowCount).sum());
+
+        saved.add(segment);
+        deleted.addAll(stored.subList(stored.isEmpty() ? 0 : 1, stored.size()));
+    }
+}
@@ -0,0 +1,178 @@
+package com.deepsea.vesseldataservice.service;
+
+import static java.util.Objects.isNull;
+
+import com.deepsea.vesseldataservice.model.InvalidVesselData;
+import com.deepsea.vesseldataservice.model.ValidVesselData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Batched JDBC inserts with pre-allocated ids, each call committed as one chunk with its rollups
+@Service
+@ConditionalOnProperty(name = "csv.file.process.writer", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcVesselDataWriter implements VesselDataWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcVesselDataWriter.class);
+
+    private static final List<String> VALID_COLUMNS = List.of("id", "vessel_code", "datetime", "latitude", "longitude", "power",
+            "fuel_consumption", "actual_speed_overground", "proposed_speed_overground", "predicted_fuel_consumption", "speed_difference",
+            "compliance_percentage", "geo_cell");
+
+    private static final List<String> INVALID_COLUMNS = List.of("id", "vessel_code", "datetime", "latitude", "longitude", "power",
+            "fuel_consumption", "actual_speed_overground", "proposed_speed_overground", "predicted_fuel_consumption", "invalid_reason");
+
+    @Value("${csv.file.process.jdbc.batch.size:1000}")
+    private Integer jdbcBatchSize;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityIdAllocator entityIdAllocator;
+    private final VesselSummaryService vesselSummaryService;
+    private final String insertValidSql;
+    private final String insertInvalidSql;
+    private final String insertUntimedInvalidSql;
+
+    public JdbcVesselDataWriter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, EntityIdAllocator entityIdAllocator,
+            VesselSummaryService vesselSummaryService) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityIdAllocator = entityIdAllocator;
+        this.vesselSummaryService = vesselSummaryService;
+
+        var dialect = SqlDialect.of(jdbcTemplate);
+        this.insertValidSql = insertSkippingDuplicates("valid_vessel_data", VALID_COLUMNS, dialect);
+        this.insertInvalidSql = insertSkippingDuplicates("invalid_vessel_data", INVALID_COLUMNS, dialect);
+        this.insertUntimedInvalidSql = insertSkippingUntimedDuplicates("invalid_vessel_data", INVALID_COLUMNS, dialect);
+    }
+
+    @Override
+    public void writeValid(List<ValidVesselData> validData) {
+
+        var ids = entityIdAllocator.allocate(ValidVesselData.class, validData.size());
+        for (int i = 0; i < ids.length; i++) {
+            validData.get(i).setId(ids[i]);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(insertValidSql, validData, jdbcBatchSize, (statement, data) -> {
+                statement.setLong(1, data.getId());
+                statement.setString(2, data.getVesselCode());
+                setInstant(statement, 3, data.getDatetime());
+                statement.setDouble(4, data.getLatitude());
+                statement.setDouble(5, data.getLongitude());
+                statement.setDouble(6, data.getPower());
+                statement.setDouble(7, data.getFuelConsumption());
+                statement.setDouble(8, data.getActualSpeedOverground());
+                statement.setDouble(9, data.getProposedSpeedOverground());
+                statement.setDouble(10, data.getPredictedFuelConsumption());
+                statement.setDouble(11, data.getSpeedDifference());
+                statement.setDouble(12, data.getCompliancePercentage());
+                statement.setObject(13, data.getGeoCell(), Types.BIGINT);
+            });
+            vesselSummaryService.applyValid(ids);
+        });
+        logger.debug("Committed a chunk of {} valid data", validData.size());
+    }
+
+    @Override
+    public void writeInvalid(List<InvalidVesselData> invalidData) {
+
+        var ids = entityIdAllocator.allocate(InvalidVesselData.class, invalidData.size());
+        for (int i = 0; i < ids.length; i++) {
+            invalidData.get(i).setId(ids[i]);
+        }
+
+        // The unique index does not match NULL datetimes, so those rows are checked against all their fields instead
+        var untimed = invalidData.stream().collect(Collectors.partitioningBy(data -> isNull(data.getDatetime())));
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(insertInvalidSql, untimed.get(false), jdbcBatchSize, JdbcVesselDataWriter::setInvalid);
+            jdbcTemplate.batchUpdate(insertUntimedInvalidSql, untimed.get(true), jdbcBatchSize, JdbcVesselDataWriter::setInvalid);
+            vesselSummaryService.applyInvalid(ids);
+        });
+        logger.debug("Committed a chunk of {} invalid data", invalidData.size());
+    }
+
+    // The database skips rows already stored with the same (vessel_code, datetime)
+    static String insertSkippingDuplicates(String table, List<String> columns, SqlDialect dialect) {
+
+        var columnList = String.join(", ", columns);
+        var parameters = String.join(", ", Collections.nCopies(columns.size(), "?"));
+        if (dialect == SqlDialect.MYSQL) {
+            // Not INSERT IGNORE, which would also turn truncation, NOT NULL and range errors into warnings
+            return "INSERT INTO " + table + " (" + columnList + ") VALUES (" + parameters + ") ON DUPLICATE KEY UPDATE id = id";
+        }
+
+        var sourceColumns = columns.stream().map(column -> "s." + column).collect(Collectors.joining(", "));
+        return "MERGE INTO " + table + " t USING (VALUES (" + parameters + ")) s (" + columnList + ") "
+                + "ON t.vessel_code = s.vessel_code AND t.datetime = s.datetime "
+                + "WHEN NOT MATCHED THEN INSERT (" + columnList + ") VALUES (" + sourceColumns + ")";
+    }
+
+    // Rows of invalid data with a NULL datetime are skipped when a stored one has the same vessel code and fields
+    static String insertSkippingUntimedDuplicates(String table, List<String> columns, SqlDialect dialect) {
+
+        var columnList = String.join(", ", columns);
+        var fields = columns.stream().filter(column -> !column.equals("id") && !column.equals("vessel_code") && !column.equals("datetime"));
+        if (dialect == SqlDialect.MYSQL) {
+            var sourceColumns = columns.stream().map(column -> "? AS " + column).collect(Collectors.joining(", "));
+            return "INSERT INTO " + table + " (" + columnList + ") SELECT " + columnList + " FROM (SELECT " + sourceColumns + ") s "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM " + table + " t WHERE t.vessel_code = s.vessel_code AND t.datetime IS NULL"
+                    + fields.map(column -> " AND t." + column + " <=> s." + column).collect(Collectors.joining()) + ")";
+        }
+
+        var parameters = String.join(", ", Collections.nCopies(columns.size(), "?"));
+        var sourceColumns = columns.stream().map(column -> "s." + column).collect(Collectors.joining(", "));
+        return "MERGE INTO " + table + " t USING (VALUES (" + parameters + ")) s (" + columnList + ") "
+                + "ON t.vessel_code = s.vessel_code AND t.datetime IS NULL"
+                + fields.map(column -> " AND t." + column + " IS NOT DISTINCT FROM s." + column).collect(Collectors.joining()) + " "
+                + "WHEN NOT MATCHED THEN INSERT (" + columnList + ") VALUES (" + sourceColumns + ")";
+    }
+
+    private static void setInvalid(PreparedStatement statement, InvalidVesselData data) throws SQLException {
+
+        statement.setLong(1, data.getId());
+        statement.setString(2, data.getVesselCode());
+        setInstant(statement, 3, data.getDatetime());
+        setDouble(statement, 4, data.getLatitude());
+        setDouble(statement, 5, data.getLongitude());
+        setDouble(statement, 6, data.getPower());
+        setDouble(statement, 7, data.getFuelConsumption());
+        setDouble(statement, 8, data.getActualSpeedOverground());
+        setDouble(statement, 9, data.getProposedSpeedOverground());
+        setDouble(statement, 10, data.getPredictedFuelConsumption());
+        statement.setString(11, data.getInvalidReason());
+    }
+
+    private static void setInstant(PreparedStatement statement, int index, Instant value) throws SQLException {
+
+        if (isNull(value)) {
+            statement.setNull(index, Types.TIMESTAMP_WITH_TIMEZONE);
+        } else {
+            // Bound as UTC offset, the same way Hibernate writes Instant columns
+            statement.setObject(index, value.atOffset(ZoneOffset.UTC));
+        }
+    }
+
+    private static void setDouble(PreparedStatement statement, int index, Double value) throws SQLException {
+
+        if (isNull(value)) {
+            statement.setNull(index, Types.DOUBLE);
+        } else {
+            statement.setDouble(index, value);
+        }
+    }
+}
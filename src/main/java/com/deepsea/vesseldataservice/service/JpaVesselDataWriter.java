@@ -0,0 +1,115 @@
+package com.deepsea.vesseldataservice.service;
+
+import com.deepsea.vesseldataservice.model.InvalidVesselData;
+import com.deepsea.vesseldataservice.model.ValidVesselData;
+import com.deepsea.vesseldataservice.repository.InvalidVesselDataRepository;
+import com.deepsea.vesseldataservice.repository.ValidVesselDataRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+@ConditionalOnProperty(name = "csv.file.process.writer", havingValue = "jpa")
+public class JpaVesselDataWriter implements VesselDataWriter {
+
+    private final ValidVesselDataRepository validVesselDataRepository;
+    private final InvalidVesselDataRepository invalidVesselDataRepository;
+    private final VesselSummaryService vesselSummaryService;
+    private final TransactionTemplate transactionTemplate;
+
+    public JpaVesselDataWriter(ValidVesselDataRepository validVesselDataRepository, InvalidVesselDataRepository invalidVesselDataRepository,
+            VesselSummaryService vesselSummaryService, TransactionTemplate transactionTemplate) {
+
+        this.validVesselDataRepository = validVesselDataRepository;
+        this.invalidVesselDataRepository = invalidVesselDataRepository;
+        this.vesselSummaryService = vesselSummaryService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void writeValid(List<ValidVesselData> validData) {
+
+        transactionTemplate.executeWithoutResult(status -> {
+            var saved = validVesselDataRepository.saveAllAndFlush(
+                    skipStored(validData, ValidVesselData::getVesselCode, ValidVesselData::getDatetime, validVesselDataRepository::findDatetimes));
+            vesselSummaryService.applyValid(saved.stream().mapToLong(ValidVesselData::getId).toArray());
+        });
+    }
+
+    @Override
+    public void writeInvalid(List<InvalidVesselData> invalidData) {
+
+        transactionTemplate.executeWithoutResult(status -> {
+            var saved = invalidVesselDataRepository.saveAllAndFlush(
+                    skipStoredUntimed(skipStored(invalidData, InvalidVesselData::getVesselCode, InvalidVesselData::getDatetime,
+                            invalidVesselDataRepository::findDatetimes)));
+            vesselSummaryService.applyInvalid(saved.stream().mapToLong(InvalidVesselData::getId).toArray());
+        });
+    }
+
+    // Leaves out rows whose (vessel_code, datetime) is stored or comes earlier in the batch, as the JDBC insert does
+    private static <T> List<T> skipStored(List<T> data, Function<T, String> vesselCode, Function<T, Instant> datetime, StoredDatetimes stored) {
+
+        Map<String, Instant[]> bounds = new HashMap<>();
+        for (T row : data) {
+            var time = datetime.apply(row);
+            if (time != null) {
+                bounds.merge(vesselCode.apply(row), new Instant[] {time, time}, (a, b) -> new Instant[] {
+                        a[0].isBefore(b[0]) ? a[0] : b[0], a[1].isAfter(b[1]) ? a[1] : b[1]});
+            }
+        }
+
+        Map<String, Set<Instant>> taken = new HashMap<>();
+        bounds.forEach((code, range) -> taken.put(code, new HashSet<>(stored.find(code, range[0], range[1]))));
+
+        List<T> kept = new ArrayList<>(data.size());
+        for (T row : data) {
+            var time = datetime.apply(row);
+            if (time == null || taken.get(vesselCode.apply(row)).add(time)) {
+                kept.add(row);
+            }
+        }
+        return kept;
+    }
+
+    // Invalid rows with a NULL datetime are matched on all their fields, as the JDBC insert does
+    private List<InvalidVesselData> skipStoredUntimed(List<InvalidVesselData> data) {
+
+        Map<String, Set<List<Object>>> taken = new HashMap<>();
+        List<InvalidVesselData> kept = new ArrayList<>(data.size());
+        for (InvalidVesselData row : data) {
+            if (row.getDatetime() != null) {
+                kept.add(row);
+                continue;
+            }
+            var stored = taken.computeIfAbsent(row.getVesselCode(), code -> invalidVesselDataRepository.findByVesselCodeAndDatetimeIsNull(code)
+                    .stream().map(JpaVesselDataWriter::fields).collect(Collectors.toCollection(HashSet::new)));
+            if (stored.add(fields(row))) {
+                kept.add(row);
+            }
+        }
+        return kept;
+    }
+
+    private static List<Object> fields(InvalidVesselData data) {
+
+        return Arrays.asList(data.getLatitude(), data.getLongitude(), data.getPower(), data.getFuelConsumption(),
+                data.getActualSpeedOverground(), data.getProposedSpeedOverground(), data.getPredictedFuelConsumption(), data.getInvalidReason());
+    }
+
+    @FunctionalInterface
+    private interface StoredDatetimes {
+
+        List<Instant> find(String vesselCode, Instant startDate, Instant endDate);
+    }
+}
@@ -1,5 +1,6 @@
 package com.deepsea.vesseldataservice.service;
 
+import com.deepsea.vesseldataservice.response.AccessLogStatsResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -8,4 +9,6 @@ public interface LoggingService {
     void displayReq(HttpServletRequest request, Object body);
 
     void displayResp(HttpServletRequest request, HttpServletResponse response, Object body);
-}
\ No newline at end of file
+
+    AccessLogStatsResponse stats();
+}
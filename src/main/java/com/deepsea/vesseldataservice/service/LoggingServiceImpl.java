@@ -1,5 +1,8 @@
 package com.deepsea.vesseldataservice.service;
 
+import com.deepsea.vesseldataservice.response.AccessLogStatsResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.util.Collection;
@@ -7,50 +10,184 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.HandlerMapping;
 
+// Sampled entries go to a bounded queue drained by one writer thread; a full queue drops the entry
 @Service
 public class LoggingServiceImpl implements LoggingService {
 
     Logger logger = LoggerFactory.getLogger("LoggingServiceImpl");
 
+    private static final String SAMPLED_ATTRIBUTE = LoggingServiceImpl.class.getName() + ".sampled";
+    private static final String TRUNCATED = "... [truncated]";
+
+    // Parameters of a request or headers of a response, and the body already cut to size
+    private record Entry(String kind, int status, String method, String uri, Map<String, String> values, String body) {
+
+    }
+
+    private final BlockingQueue<Entry> queue;
+    private final int bodyMaxLength;
+    private final double sampleRate;
+    private final Map<String, Double> sampleRates;
+    private final AtomicLong written = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private Thread writer;
+
+    // sampleRates are comma separated pattern=rate overrides per endpoint mapping
+    public LoggingServiceImpl(@Value("${vessel.access.log.queue.capacity:10000}") int queueCapacity,
+            @Value("${vessel.access.log.body.max.length:1000}") int bodyMaxLength,
+            @Value("${vessel.access.log.sample.rate:1.0}") double sampleRate,
+            @Value("${vessel.access.log.sample.rates:}") String sampleRates) {
+
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.bodyMaxLength = bodyMaxLength;
+        this.sampleRate = sampleRate;
+        this.sampleRates = parseSampleRates(sampleRates);
+    }
+
+    @PostConstruct
+    public void start() {
+
+        writer = Thread.ofPlatform().name("access-log-writer").daemon().start(this::drain);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+
+        writer.interrupt();
+        writer.join();
+    }
+
     @Override
     public void displayReq(HttpServletRequest request, Object body) {
 
-        StringBuilder reqMessage = new StringBuilder();
-        Map<String, String> parameters = getParameters(request);
+        if (isSampled(request)) {
+            enqueue(new Entry("REQUEST", 0, request.getMethod(), request.getRequestURI(), getParameters(request),
+                    Objects.isNull(body) ? null : truncate(body)));
+        }
+    }
 
-        reqMessage.append("REQUEST:");
-        reqMessage.append(" [").append(request.getMethod()).append("]");
-        reqMessage.append(" [").append(request.getRequestURI()).append("]");
+    @Override
+    public void displayResp(HttpServletRequest request, HttpServletResponse response, Object body) {
 
-        if (!parameters.isEmpty()) {
-            reqMessage.append(" [").append(parameters).append("]");
+        if (isSampled(request)) {
+            enqueue(new Entry("RESPONSE", response.getStatus(), request.getMethod(), request.getRequestURI(), getHeaders(response),
+                    truncate(body)));
         }
+    }
 
-        if (!Objects.isNull(body)) {
-            reqMessage.append(" [").append(body).append("]");
+    @Override
+    public AccessLogStatsResponse stats() {
+
+        return new AccessLogStatsResponse(queue.size(), written.get(), dropped.sum(), sampledOut.sum());
+    }
+
+    // Decided once per request, so that a request and its response are logged together or not at all
+    private boolean isSampled(HttpServletRequest request) {
+
+        if (request.getAttribute(SAMPLED_ATTRIBUTE) instanceof Boolean sampled) {
+            return sampled;
         }
 
-        logger.info("{}", reqMessage);
+        var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        var rate = sampleRates.getOrDefault(Objects.isNull(pattern) ? request.getRequestURI() : pattern.toString(), sampleRate);
+        var sampled = rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate;
+        if (!sampled) {
+            sampledOut.increment();
+        }
+        request.setAttribute(SAMPLED_ATTRIBUTE, sampled);
+        return sampled;
     }
 
-    @Override
-    public void displayResp(HttpServletRequest request, HttpServletResponse response, Object body) {
+    private void enqueue(Entry entry) {
+
+        if (!queue.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    private void drain() {
+
+        try {
+            while (true) {
+                write(queue.take());
+            }
+        } catch (InterruptedException e) {
+            // Stopping: what is still queued is written before the thread ends
+            Entry entry;
+            while ((entry = queue.poll()) != null) {
+                write(entry);
+            }
+        }
+    }
+
+    private void write(Entry entry) {
+
+        StringBuilder message = new StringBuilder();
+        message.append(entry.kind()).append(':');
+        if (entry.status() != 0) {
+            message.append(" [").append(entry.status()).append("]");
+        }
+        message.append(" [").append(entry.method()).append("]");
+        message.append(" [").append(entry.uri()).append("]");
 
-        StringBuilder respMessage = new StringBuilder();
-        Map<String, String> headers = getHeaders(response);
-        respMessage.append("RESPONSE:");
-        respMessage.append(" [").append(response.getStatus()).append("]");
-        respMessage.append(" [").append(request.getMethod()).append("]");
-        if (!headers.isEmpty()) {
-            respMessage.append(" [").append(headers).append("]");
+        if (!entry.values().isEmpty()) {
+            message.append(" [").append(entry.values()).append("]");
         }
-        respMessage.append(" [").append(body).append("]");
+        if (!Objects.isNull(entry.body())) {
+            message.append(" [").append(entry.body()).append("]");
+        }
+
+        logger.info("{}", message);
+        written.incrementAndGet();
+    }
+
+    // Collections are rendered element by element up to the limit, never as a whole
+    String truncate(Object body) {
+
+        String text;
+        if (body instanceof Iterable<?> elements) {
+            var builder = new StringBuilder("[");
+            var iterator = elements.iterator();
+            while (iterator.hasNext() && builder.length() <= bodyMaxLength) {
+                builder.append(builder.length() > 1 ? ", " : "").append(iterator.next());
+            }
+            if (iterator.hasNext()) {
+                return cut(builder.toString()) + TRUNCATED;
+            }
+            text = builder.append(']').toString();
+        } else {
+            text = String.valueOf(body);
+        }
+        return text.length() > bodyMaxLength ? cut(text) + TRUNCATED : text;
+    }
 
-        logger.info("{}", respMessage);
+    private String cut(String text) {
+
+        return text.substring(0, Math.min(text.length(), bodyMaxLength));
+    }
+
+    private static Map<String, Double> parseSampleRates(String sampleRates) {
+
+        Map<String, Double> rates = new HashMap<>();
+        for (String entry : sampleRates.split(",")) {
+            var separator = entry.lastIndexOf('=');
+            if (separator > 0) {
+                rates.put(entry.substring(0, separator).trim(), Double.parseDouble(entry.substring(separator + 1).trim()));
+            }
+        }
+        return rates;
     }
 
     private Map<String, String> getHeaders(HttpServletResponse response) {
@@ -74,4 +211,4 @@ public class LoggingServiceImpl implements LoggingService {
         }
         return parameters;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,96 @@
+package com.deepsea.vesseldataservice.service;
+
+import com.deepsea.vesseldataservice.model.ProblemGroup;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.LongConsumer;
+
+// Single pass over timestamps in order; only the open group and the kept groups are held
+final class ProblemGroupDetector implements LongConsumer {
+
+    private record Group(int size, long startEpochSecond, long endEpochSecond) {
+
+    }
+
+    // Head is the group that goes first: the smallest, and of those the latest
+    private static final Comparator<Group> WORST_FIRST = Comparator.comparingInt(Group::size)
+            .thenComparing(Comparator.comparingLong(Group::startEpochSecond).reversed());
+
+    private final long gapSeconds;
+    private final int sizeThreshold;
+    private final int limit;
+    private final PriorityQueue<Group> largest = new PriorityQueue<>(WORST_FIRST);
+
+    private int size;
+    private long startEpochSecond;
+    private long lastEpochSecond;
+
+    ProblemGroupDetector(long gapMinutes, int sizeThreshold, int limit) {
+
+        this.gapSeconds = gapMinutes * 60;
+        this.sizeThreshold = sizeThreshold;
+        this.limit = limit;
+    }
+
+    static boolean sameGroup(long previousEpochSecond, long epochSecond, long gapSeconds) {
+
+        return epochSecond - previousEpochSecond < gapSeconds;
+    }
+
+    @Override
+    public void accept(long epochSecond) {
+
+        accept(1, epochSecond, epochSecond);
+    }
+
+    // Runs come in order of their start and may overlap the open group
+    void accept(int runSize, long runStartEpochSecond, long runEndEpochSecond) {
+
+        if (size > 0 && sameGroup(lastEpochSecond, runStartEpochSecond, gapSeconds)) {
+            size += runSize;
+            lastEpochSecond = Math.max(lastEpochSecond, runEndEpochSecond);
+        } else {
+            close();
+            size = runSize;
+            startEpochSecond = runStartEpochSecond;
+            lastEpochSecond = runEndEpochSecond;
+        }
+    }
+
+    // Largest first, equal sizes in time order
+    List<ProblemGroup> groups() {
+
+        close();
+        size = 0;
+
+        var sorted = new ArrayList<>(largest);
+        sorted.sort(WORST_FIRST.reversed());
+        return sorted.stream().map(ProblemGroupDetector::toProblemGroup).toList();
+    }
+
+    private void close() {
+
+        if (size <= sizeThreshold || limit <= 0) {
+            return;
+        }
+        var group = new Group(size, startEpochSecond, lastEpochSecond);
+        if (largest.size() < limit) {
+            largest.add(group);
+        } else if (WORST_FIRST.compare(group, largest.peek()) > 0) {
+            largest.poll();
+            largest.add(group);
+        }
+    }
+
+    private static ProblemGroup toProblemGroup(Group group) {
+
+        var problemGroup = new ProblemGroup();
+        problemGroup.setSize(group.size());
+        problemGroup.setStartDateTime(Instant.ofEpochSecond(group.startEpochSecond()));
+        problemGroup.setEndDateTime(Instant.ofEpochSecond(group.endEpochSecond()));
+        return problemGroup;
+    }
+}
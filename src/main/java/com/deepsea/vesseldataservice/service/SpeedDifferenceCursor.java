@@ -0,0 +1,32 @@
+package com.deepsea.vesseldataservice.service;
+
+import com.deepsea.vesseldataservice.exception.InvalidCursorException;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+// (datetime, id) of the last row of a slice, handed out as an opaque token
+record SpeedDifferenceCursor(long epochSecond, long id) {
+
+    private static final int TOKEN_BYTES = 2 * Long.BYTES;
+
+    String encode() {
+
+        var bytes = ByteBuffer.allocate(TOKEN_BYTES).putLong(epochSecond).putLong(id).array();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    static SpeedDifferenceCursor decode(String token) {
+
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + token);
+        }
+        if (bytes.length != TOKEN_BYTES) {
+            throw new InvalidCursorException("Invalid cursor: " + token);
+        }
+        var buffer = ByteBuffer.wrap(bytes);
+        return new SpeedDifferenceCursor(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,16 @@
+package com.deepsea.vesseldataservice.service;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// MySQL has no MERGE, H2 takes the standard SQL
+enum SqlDialect {
+
+    MYSQL, STANDARD;
+
+    static SqlDialect of(JdbcTemplate jdbcTemplate) {
+
+        var productName = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return "MySQL".equalsIgnoreCase(productName) || "MariaDB".equalsIgnoreCase(productName) ? MYSQL : STANDARD;
+    }
+}
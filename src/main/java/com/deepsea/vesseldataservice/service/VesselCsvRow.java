@@ -0,0 +1,329 @@
+package com.deepsea.vesseldataservice.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+// Tokenizes a line in place and decodes the fields straight from the bytes; one per parser thread
+final class VesselCsvRow {
+
+    static final int VESSEL_CODE = 0;
+    static final int DATETIME = 1;
+    static final int LATITUDE = 2;
+    static final int LONGITUDE = 3;
+    static final int POWER = 4;
+    static final int FUEL_CONSUMPTION = 5;
+    static final int ACTUAL_SPEED_OVERGROUND = 6;
+    static final int PROPOSED_SPEED_OVERGROUND = 7;
+    static final int PREDICTED_FUEL_CONSUMPTION = 8;
+    static final int FIELD_COUNT = 9;
+
+    static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private static final int MAX_FAST_PATH_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final int VESSEL_CODE_CACHE_SIZE = 1024;
+
+    private final int[] fieldStart = new int[FIELD_COUNT];
+    private final int[] fieldEnd = new int[FIELD_COUNT];
+    private final double[] values = new double[FIELD_COUNT];
+    private final String[] vesselCodeCache;
+    private byte[] scratch = new byte[64];
+
+    private ByteBuffer buffer;
+    private int lineStart;
+    private int lineEnd;
+    private int numberMask; // bit set for every numeric field that holds a number
+    private long epochSecond;
+
+    VesselCsvRow() {
+
+        this(newVesselCodeCache());
+    }
+
+    VesselCsvRow(String[] vesselCodeCache) {
+
+        this.vesselCodeCache = vesselCodeCache;
+    }
+
+    static String[] newVesselCodeCache() {
+
+        return new String[VESSEL_CODE_CACHE_SIZE];
+    }
+
+    // Same fields as String.split(",") with quotes stripped; false unless there are FIELD_COUNT of them
+    boolean parse(ByteBuffer buffer, int start, int end) {
+
+        this.buffer = buffer;
+        this.lineStart = start;
+        this.lineEnd = end;
+        this.numberMask = 0;
+        this.epochSecond = NO_TIMESTAMP;
+
+        var field = 0;
+        var lastNonEmptyField = -1;
+        var position = start;
+
+        while (true) {
+            var delimiter = position;
+            while (delimiter < end && buffer.get(delimiter) != ',') {
+                delimiter++;
+            }
+
+            var valueStart = position;
+            var valueEnd = delimiter;
+            while (valueStart < valueEnd && buffer.get(valueStart) == '"') {
+                valueStart++;
+            }
+            while (valueEnd > valueStart && buffer.get(valueEnd - 1) == '"') {
+                valueEnd--;
+            }
+
+            if (valueEnd > valueStart) {
+                lastNonEmptyField = field;
+            }
+            if (field < FIELD_COUNT) {
+                fieldStart[field] = valueStart;
+                fieldEnd[field] = valueEnd;
+            }
+            field++;
+
+            if (delimiter >= end) {
+                break;
+            }
+            position = delimiter + 1;
+        }
+
+        if (lastNonEmptyField + 1 != FIELD_COUNT) {
+            return false;
+        }
+
+        for (int i = LATITUDE; i < FIELD_COUNT; i++) {
+            if (parseNumber(i)) {
+                numberMask |= 1 << i;
+            }
+        }
+        epochSecond = parseTimestamp();
+        return true;
+    }
+
+    static VesselCsvRow of(String... fields) {
+
+        var row = new VesselCsvRow();
+        var bytes = String.join(",", fields).getBytes(StandardCharsets.UTF_8);
+        row.parse(ByteBuffer.wrap(bytes), 0, bytes.length);
+        return row;
+    }
+
+    boolean isNumber(int field) {
+
+        return (numberMask & (1 << field)) != 0;
+    }
+
+    double value(int field) {
+
+        return values[field];
+    }
+
+    long epochSecond() {
+
+        return epochSecond;
+    }
+
+    Instant datetime() {
+
+        return epochSecond == NO_TIMESTAMP ? null : Instant.ofEpochSecond(epochSecond);
+    }
+
+    boolean isHeader() {
+
+        return epochSecond == NO_TIMESTAMP && "datetime".equals(text(DATETIME));
+    }
+
+    Double number(int field) {
+
+        return isNumber(field) ? values[field] : null;
+    }
+
+    String vesselCode() {
+
+        var start = fieldStart[VESSEL_CODE];
+        var length = fieldEnd[VESSEL_CODE] - start;
+
+        var hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + buffer.get(i);
+        }
+        var slot = hash & (VESSEL_CODE_CACHE_SIZE - 1);
+
+        var cached = vesselCodeCache[slot];
+        if (cached != null && matches(cached, start, length)) {
+            return cached;
+        }
+        var vesselCode = text(VESSEL_CODE);
+        vesselCodeCache[slot] = vesselCode;
+        return vesselCode;
+    }
+
+    String text(int field) {
+
+        return decode(fieldStart[field], fieldEnd[field]);
+    }
+
+    String line() {
+
+        return decode(lineStart, lineEnd);
+    }
+
+    private boolean matches(String cached, int start, int length) {
+
+        if (cached.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (cached.charAt(i) != buffer.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String decode(int start, int end) {
+
+        var length = end - start;
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private boolean parseNumber(int field) {
+
+        var start = fieldStart[field];
+        var end = fieldEnd[field];
+
+        if (isNullLiteral(start, end)) {
+            return false;
+        }
+
+        var position = start;
+        var negative = false;
+        if (position < end && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+            negative = buffer.get(position) == '-';
+            position++;
+        }
+
+        var mantissa = 0L;
+        var significantDigits = 0;
+        var fractionDigits = 0;
+        var sawDigit = false;
+        var sawDot = false;
+
+        for (; position < end; position++) {
+            var c = buffer.get(position);
+            if (c >= '0' && c <= '9') {
+                sawDigit = true;
+                if (mantissa != 0 || c != '0') {
+                    if (++significantDigits > MAX_FAST_PATH_DIGITS) {
+                        break;
+                    }
+                    mantissa = mantissa * 10 + (c - '0');
+                }
+                if (sawDot) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && !sawDot) {
+                sawDot = true;
+            } else {
+                break;
+            }
+        }
+
+        // Exact operands divided once are correctly rounded, so this matches Double.parseDouble
+        if (position == end && sawDigit && fractionDigits < POWERS_OF_TEN.length) {
+            var value = mantissa / POWERS_OF_TEN[fractionDigits];
+            values[field] = negative ? -value : value;
+            return true;
+        }
+
+        // Long mantissas, exponents and other unusual input take the slow but exact path
+        try {
+            values[field] = Double.parseDouble(decode(start, end));
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private boolean isNullLiteral(int start, int end) {
+
+        return end - start == 4
+                && buffer.get(start) == 'N'
+                && buffer.get(start + 1) == 'U'
+                && buffer.get(start + 2) == 'L'
+                && buffer.get(start + 3) == 'L';
+    }
+
+    private long parseTimestamp() {
+
+        var start = fieldStart[DATETIME];
+        if (fieldEnd[DATETIME] - start != 19
+                || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-' || buffer.get(start + 10) != ' '
+                || buffer.get(start + 13) != ':' || buffer.get(start + 16) != ':') {
+            return NO_TIMESTAMP;
+        }
+
+        var year = digits(start, 4);
+        var month = digits(start + 5, 2);
+        var day = digits(start + 8, 2);
+        var hour = digits(start + 11, 2);
+        var minute = digits(start + 14, 2);
+        var second = digits(start + 17, 2);
+
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return NO_TIMESTAMP;
+        }
+        return epochDay(year, month, day) * 86_400L + hour * 3_600L + minute * 60L + second;
+    }
+
+    private int digits(int start, int count) {
+
+        var value = 0;
+        for (int i = start; i < start + count; i++) {
+            var c = buffer.get(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    // Days since 1970-01-01 in the proleptic Gregorian calendar, same as LocalDate.toEpochDay()
+    private static long epochDay(int year, int month, int day) {
+
+        var y = month <= 2 ? year - 1 : year;
+        var era = Math.floorDiv(y, 400);
+        var yearOfEra = y - era * 400;
+        var dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        var dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468L;
+    }
+}
@@ -0,0 +1,17 @@
+package com.deepsea.vesseldataservice.service;
+
+import com.deepsea.vesseldataservice.model.InvalidVesselData;
+import com.deepsea.vesseldataservice.model.ValidVesselData;
+import java.util.List;
+
+// Called on the importing thread after each committed batch, which may include skipped duplicates
+public interface VesselDataListener {
+
+    default void validDataCommitted(List<ValidVesselData> validData) {
+
+    }
+
+    default void invalidDataCommitted(List<InvalidVesselData> invalidData) {
+
+    }
+}
@@ -4,21 +4,34 @@ import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 import com.deepsea.vesseldataservice.exception.DataNotFoundException;
-import com.deepsea.vesseldataservice.model.InvalidVesselData;
+import com.deepsea.vesseldataservice.model.GeoGrid;
 import com.deepsea.vesseldataservice.model.ProblemGroup;
 import com.deepsea.vesseldataservice.model.ValidVesselData;
-import com.deepsea.vesseldataservice.repository.InvalidVesselDataRepository;
+import com.deepsea.vesseldataservice.model.VesselComplianceSummary;
+import com.deepsea.vesseldataservice.model.VesselDateTimeFormat;
+import com.deepsea.vesseldataservice.repository.InvalidVesselDataCursorRepository;
+import com.deepsea.vesseldataservice.repository.ValidVesselDataCursorRepository;
 import com.deepsea.vesseldataservice.repository.ValidVesselDataRepository;
+import com.deepsea.vesseldataservice.repository.VesselComplianceSummaryRepository;
+import com.deepsea.vesseldataservice.repository.VesselInvalidReasonCountRepository;
+import com.deepsea.vesseldataservice.response.ComplianceRankingResponse;
 import com.deepsea.vesseldataservice.response.InvalidReasonResponse;
+import com.deepsea.vesseldataservice.response.LocatedSpeedDifferenceResponse;
 import com.deepsea.vesseldataservice.response.SpeedDifferenceResponse;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import com.deepsea.vesseldataservice.response.SpeedDifferenceScrollResponse;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
@@ -27,49 +40,92 @@ public class VesselDataService {
 
     private static final Logger logger = LoggerFactory.getLogger(VesselDataService.class);
 
-    long minutesIntervalForConsecutiveGroups = 60;
+    static final long DEFAULT_MINUTES_INTERVAL_FOR_CONSECUTIVE_GROUPS = 60;
 
     private final ValidVesselDataRepository validVesselDataRepository;
-    private final InvalidVesselDataRepository invalidVesselDataRepository;
-
-    public VesselDataService(ValidVesselDataRepository validVesselDataRepository, InvalidVesselDataRepository invalidVesselDataRepository) {
+    private final InvalidVesselDataCursorRepository invalidVesselDataCursorRepository;
+    private final VesselComplianceSummaryRepository vesselComplianceSummaryRepository;
+    private final VesselInvalidReasonCountRepository vesselInvalidReasonCountRepository;
+    private final ValidVesselDataCursorRepository validVesselDataCursorRepository;
+    private final InvalidDataSegmentService invalidDataSegmentService;
+    private final VesselQueryCache vesselQueryCache;
+    // Only present when vessel.store.enabled is set
+    private final VesselTimeSeriesStore vesselTimeSeriesStore;
+
+    public VesselDataService(ValidVesselDataRepository validVesselDataRepository, InvalidVesselDataCursorRepository invalidVesselDataCursorRepository,
+            VesselComplianceSummaryRepository vesselComplianceSummaryRepository,
+            VesselInvalidReasonCountRepository vesselInvalidReasonCountRepository,
+            ValidVesselDataCursorRepository validVesselDataCursorRepository, InvalidDataSegmentService invalidDataSegmentService,
+            VesselQueryCache vesselQueryCache, ObjectProvider<VesselTimeSeriesStore> vesselTimeSeriesStore) {
 
         this.validVesselDataRepository = validVesselDataRepository;
-        this.invalidVesselDataRepository = invalidVesselDataRepository;
+        this.invalidVesselDataCursorRepository = invalidVesselDataCursorRepository;
+        this.vesselComplianceSummaryRepository = vesselComplianceSummaryRepository;
+        this.vesselInvalidReasonCountRepository = vesselInvalidReasonCountRepository;
+        this.validVesselDataCursorRepository = validVesselDataCursorRepository;
+        this.invalidDataSegmentService = invalidDataSegmentService;
+        this.vesselQueryCache = vesselQueryCache;
+        this.vesselTimeSeriesStore = vesselTimeSeriesStore.getIfAvailable();
         logger.debug("VesselDataService instantiated with repositories.");
     }
 
-    public List<SpeedDifferenceResponse> calculateSpeedDifference(String vesselCode, String latitude, String longitude) {
+    public List<SpeedDifferenceResponse> calculateSpeedDifference(String vesselCode, Double latitude, Double longitude) {
+
+        return vesselQueryCache.get(vesselCode, "speedDifference", Arrays.asList(latitude, longitude),
+                () -> loadSpeedDifference(vesselCode, latitude, longitude));
+    }
+
+    private List<SpeedDifferenceResponse> loadSpeedDifference(String vesselCode, Double latitude, Double longitude) {
 
         logger.debug("Calculating speed difference for vesselCode: {}, latitude: {}, longitude: {}", vesselCode, latitude, longitude);
 
-        List<ValidVesselData> vesselDataList;
+        List<SpeedDifferenceResponse> speedDifferences;
 
-        if (nonNull(latitude) && nonNull(longitude)) {
-            vesselDataList = validVesselDataRepository.findByVesselCodeAndLatitudeAndLongitude(vesselCode, latitude, longitude);
+        if (isStoreReady()) {
+            var series = vesselTimeSeriesStore.series(vesselCode);
+            speedDifferences = isNull(series) ? List.of() : series.speedDifferences(latitude, longitude);
         } else {
-            vesselDataList = validVesselDataRepository.findByVesselCode(vesselCode);
+            List<ValidVesselData> vesselDataList;
+
+            if (nonNull(latitude) && nonNull(longitude)) {
+                vesselDataList = validVesselDataRepository.findByVesselCodeAndLatitudeAndLongitudeOrderByDatetimeAsc(vesselCode, latitude, longitude);
+            } else {
+                vesselDataList = validVesselDataRepository.findByVesselCodeOrderByDatetimeAsc(vesselCode);
+            }
+
+            speedDifferences = vesselDataList.stream()
+                    .map(data -> new SpeedDifferenceResponse(
+                            data.getLatitude(),
+                            data.getLongitude(),
+                            data.getSpeedDifference()))
+                    .toList();
         }
 
-        if (vesselDataList.isEmpty()) {
+        if (speedDifferences.isEmpty()) {
             logger.warn("No data found for vessel code: {} and coordinates: {}, {}", vesselCode, latitude, longitude);
             throw new DataNotFoundException("No data found for the given vessel code and coordinates.");
         }
 
-        logger.debug("Found {} valid vessel data entries.", vesselDataList.size());
-        return vesselDataList.stream()
-                .map(data -> new SpeedDifferenceResponse(
-                        data.getLatitude(),
-                        data.getLongitude(),
-                        data.getSpeedDifference()))
-                .toList();
+        logger.debug("Found {} valid vessel data entries.", speedDifferences.size());
+        return speedDifferences;
     }
 
     public Page<SpeedDifferenceResponse> calculateSpeedDifferences(String vesselCode, Pageable pageable) {
 
         logger.debug("Calculating speed differences for vesselCode: {} with pagination: {}", vesselCode, pageable);
 
-        Page<ValidVesselData> page = validVesselDataRepository.findByVesselCode(vesselCode, pageable);
+        // The store only knows the time order, other sort orders go to the database
+        if (isStoreReady() && pageable.getSort().isUnsorted()) {
+            var series = vesselTimeSeriesStore.series(vesselCode);
+            if (isNull(series)) {
+                return Page.empty(pageable);
+            }
+            var content = pageable.isPaged() ? series.speedDifferences(pageable.getOffset(), pageable.getPageSize())
+                    : series.speedDifferences(0, Integer.MAX_VALUE);
+            return new PageImpl<>(content, pageable, series.size());
+        }
+
+        Page<ValidVesselData> page = validVesselDataRepository.findByVesselCodeOrderByDatetimeAscIdAsc(vesselCode, pageable);
         logger.debug("Found {} valid vessel data entries for vesselCode: {}", page.getTotalElements(), vesselCode);
 
         return page.map(data -> new SpeedDifferenceResponse(
@@ -79,11 +135,104 @@ public class VesselDataService {
         );
     }
 
+    // minLongitude greater than maxLongitude for an area across the antimeridian
+    public List<LocatedSpeedDifferenceResponse> findSpeedDifferencesInArea(String vesselCode, double minLatitude, double maxLatitude,
+            double minLongitude, double maxLongitude, int limit) {
+
+        logger.debug("Finding speed differences for vesselCode: {} in latitude [{}, {}] and longitude [{}, {}]",
+                vesselCode, minLatitude, maxLatitude, minLongitude, maxLongitude);
+
+        return findInArea(vesselCode, minLatitude, maxLatitude, minLongitude, maxLongitude, data -> true, limit);
+    }
+
+    public List<LocatedSpeedDifferenceResponse> findSpeedDifferencesNear(String vesselCode, double latitude, double longitude,
+            double radiusKm, int limit) {
+
+        logger.debug("Finding speed differences for vesselCode: {} within {} km of {}, {}", vesselCode, radiusKm, latitude, longitude);
+
+        // The bounding box of the circle narrows the candidates down, the distance decides
+        var latitudeDelta = radiusKm / GeoGrid.KM_PER_DEGREE_OF_LATITUDE;
+        var minLatitude = latitude - latitudeDelta;
+        var maxLatitude = latitude + latitudeDelta;
+        var longitudeDelta = latitudeDelta / Math.cos(Math.toRadians(Math.max(Math.abs(minLatitude), Math.abs(maxLatitude))));
+
+        double minLongitude = -180;
+        double maxLongitude = 180;
+        if (minLatitude > -90 && maxLatitude < 90 && longitudeDelta < 180) {
+            minLongitude = wrapLongitude(longitude - longitudeDelta);
+            maxLongitude = wrapLongitude(longitude + longitudeDelta);
+        }
+
+        return findInArea(vesselCode, Math.max(minLatitude, -90), Math.min(maxLatitude, 90), minLongitude, maxLongitude,
+                data -> GeoGrid.distanceKm(latitude, longitude, data.getLatitude(), data.getLongitude()) <= radiusKm, limit);
+    }
+
+    private List<LocatedSpeedDifferenceResponse> findInArea(String vesselCode, double minLatitude, double maxLatitude,
+            double minLongitude, double maxLongitude, Predicate<ValidVesselData> filter, int limit) {
+
+        List<ValidVesselData> found;
+        if (minLongitude <= maxLongitude) {
+            found = validVesselDataCursorRepository.findInArea(vesselCode, minLatitude, maxLatitude, minLongitude, maxLongitude, filter, limit);
+        } else {
+            // Across the antimeridian: both sides, merged back into one order
+            found = new ArrayList<>(validVesselDataCursorRepository.findInArea(vesselCode, minLatitude, maxLatitude, minLongitude, 180, filter, limit));
+            found.addAll(validVesselDataCursorRepository.findInArea(vesselCode, minLatitude, maxLatitude, -180, maxLongitude, filter, limit));
+            found.sort(Comparator.comparing(ValidVesselData::getVesselCode).thenComparing(ValidVesselData::getDatetime));
+            found = found.subList(0, Math.min(limit, found.size()));
+        }
+
+        return found.stream()
+                .map(data -> new LocatedSpeedDifferenceResponse(data.getVesselCode(), data.getDatetime(), data.getLatitude(),
+                        data.getLongitude(), data.getSpeedDifference()))
+                .toList();
+    }
+
+    private static double wrapLongitude(double longitude) {
+
+        return longitude < -180 ? longitude + 360 : longitude > 180 ? longitude - 360 : longitude;
+    }
+
+    // Keyset pagination: each slice seeks past the previous one and nothing is counted
+    public SpeedDifferenceScrollResponse scrollSpeedDifferences(String vesselCode, String cursor, int size) {
+
+        logger.debug("Scrolling speed differences for vesselCode: {} after cursor: {}", vesselCode, cursor);
+
+        var after = isNull(cursor) ? null : SpeedDifferenceCursor.decode(cursor);
+
+        if (isStoreReady()) {
+            var series = vesselTimeSeriesStore.series(vesselCode);
+            return isNull(series) ? new SpeedDifferenceScrollResponse(List.of(), null) : series.speedDifferencesAfter(after, size);
+        }
+
+        // One row more than asked for tells whether another slice follows
+        var limit = Limit.of(size + 1);
+        var rows = isNull(after) ? validVesselDataRepository.findByVesselCodeOrderByDatetimeAscIdAsc(vesselCode, limit)
+                : validVesselDataRepository.findByVesselCodeAfter(vesselCode, Instant.ofEpochSecond(after.epochSecond()), after.id(), limit);
+
+        var slice = rows.subList(0, Math.min(size, rows.size()));
+        var content = slice.stream()
+                .map(data -> new SpeedDifferenceResponse(data.getLatitude(), data.getLongitude(), data.getSpeedDifference()))
+                .toList();
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            var last = slice.getLast();
+            nextCursor = new SpeedDifferenceCursor(last.getDatetime().getEpochSecond(), last.getId()).encode();
+        }
+        return new SpeedDifferenceScrollResponse(content, nextCursor);
+    }
+
     public List<InvalidReasonResponse> getInvalidReasonsByVesselCode(String vesselCode) {
 
+        return vesselQueryCache.get(vesselCode, "invalidReasons", List.of(), () -> loadInvalidReasonsByVesselCode(vesselCode));
+    }
+
+    private List<InvalidReasonResponse> loadInvalidReasonsByVesselCode(String vesselCode) {
+
         logger.debug("Fetching invalid reasons for vesselCode: {}", vesselCode);
 
-        List<Object[]> results = invalidVesselDataRepository.findInvalidReasonsByVesselCode(vesselCode);
+        // Read from the per-vessel rollup maintained by ingestion
+        var results = vesselInvalidReasonCountRepository.findByVesselCodeOrderByRowCountDesc(vesselCode);
         if (results.isEmpty()) {
             logger.warn("No invalid data found for vessel code: {}", vesselCode);
             throw new DataNotFoundException("No invalid data found for vessel code: " + vesselCode);
@@ -91,8 +240,8 @@ public class VesselDataService {
 
         logger.debug("Found {} invalid reasons for vesselCode: {}", results.size(), vesselCode);
         return results.stream()
-                .filter(result -> nonNull(result[0]) && (Long) result[1] > 0)
-                .map(result -> new InvalidReasonResponse((String) result[0], (Long) result[1]))
+                .filter(result -> result.getRowCount() > 0)
+                .map(result -> new InvalidReasonResponse(result.getInvalidReason(), result.getRowCount()))
                 .toList();
     }
 
@@ -112,11 +261,53 @@ public class VesselDataService {
         };
     }
 
+    public ComplianceRankingResponse rankVesselCompliance(String startDate, String endDate, int limit) {
+
+        logger.debug("Ranking vessel compliance from {} to {} with limit: {}", startDate, endDate, limit);
+
+        var start = VesselDateTimeFormat.parse(startDate);
+        var end = VesselDateTimeFormat.parse(endDate);
+        var ranking = new ComplianceRanking(limit);
+
+        if (isStoreReady()) {
+            vesselTimeSeriesStore.allSeries().parallelStream().forEach(series -> series.complianceTotal(start, end,
+                    (vesselCode, complianceSum, readingCount) -> {
+                        synchronized (ranking) {
+                            ranking.accept(vesselCode, complianceSum, readingCount);
+                        }
+                    }));
+        } else {
+            validVesselDataCursorRepository.streamComplianceTotals(start, end, ranking);
+        }
+
+        if (ranking.vesselCount() == 0) {
+            logger.warn("No data found for any vessel in the specified period.");
+            throw new DataNotFoundException("No data found for any vessel in the specified period.");
+        }
+
+        logger.debug("Ranked {} vessels by compliance", ranking.vesselCount());
+        return ranking.result();
+    }
+
     public double calculateOverallCompliance(String vesselCode) {
 
+        return vesselQueryCache.get(vesselCode, "overallCompliance", List.of(), () -> loadOverallCompliance(vesselCode));
+    }
+
+    private double loadOverallCompliance(String vesselCode) {
+
         logger.debug("Calculating overall compliance for vesselCode: {}", vesselCode);
 
-        var overallCompliance = validVesselDataRepository.calculateOverallComplianceByVesselCode(vesselCode);
+        Double overallCompliance;
+        if (isStoreReady()) {
+            var series = vesselTimeSeriesStore.series(vesselCode);
+            overallCompliance = isNull(series) ? null : series.averageCompliance();
+        } else {
+            // Read from the per-vessel rollup maintained by ingestion
+            overallCompliance = vesselComplianceSummaryRepository.findById(vesselCode)
+                    .map(VesselComplianceSummary::getAverageCompliance)
+                    .orElse(null);
+        }
 
         if (isNull(overallCompliance)) {
             logger.warn("No data found for vessel code: {}", vesselCode);
@@ -127,104 +318,81 @@ public class VesselDataService {
         return overallCompliance;
     }
 
-    public List<ValidVesselData> getVesselDataForPeriod(String vesselCode, String startDate, String endDate) {
+    // Throws DataNotFoundException before the first row when the period has no data
+    public void streamVesselDataForPeriod(String vesselCode, String startDate, String endDate, Consumer<ValidVesselData> consumer) {
 
-        logger.debug("Fetching vessel data for vesselCode: {} from {} to {}", vesselCode, startDate, endDate);
+        logger.debug("Streaming vessel data for vesselCode: {} from {} to {}", vesselCode, startDate, endDate);
 
-        var vesselDataList = validVesselDataRepository.findByVesselCodeAndDateRange(vesselCode, startDate, endDate);
+        var start = VesselDateTimeFormat.parse(startDate);
+        var end = VesselDateTimeFormat.parse(endDate);
 
-        if (vesselDataList.isEmpty()) {
-            logger.warn("No data found for vessel code: {} in the specified period.", vesselCode);
-            throw new DataNotFoundException("No data found for vessel code: " + vesselCode + " in the specified period.");
+        if (isStoreReady()) {
+            var series = vesselTimeSeriesStore.series(vesselCode);
+            if (isNull(series) || series.count(start, end) == 0) {
+                throw periodNotFound(vesselCode);
+            }
+            var count = series.forEachInRange(start, end, consumer);
+            logger.debug("Streamed {} vessel data entries for vesselCode: {} from the store", count, vesselCode);
+            return;
         }
 
-        logger.debug("Found {} vessel data entries for vesselCode: {} in the specified period.", vesselDataList.size(), vesselCode);
-        return vesselDataList;
+        // Checked up front, because once streaming has started the response can no longer become an error
+        if (!validVesselDataRepository.existsByVesselCodeAndDatetimeBetween(vesselCode, start, end)) {
+            throw periodNotFound(vesselCode);
+        }
+        validVesselDataCursorRepository.streamByVesselCodeAndDateRange(vesselCode, start, end, consumer);
     }
 
-    public List<ProblemGroup> identifyProblematicData(String vesselCode, String invalidReason, Long overrideIntervalValue, Integer sizeThreshold) {
-
-        logger.debug("Identifying problematic data for vesselCode: {}, invalidReason: {}, overrideIntervalValue: {}, sizeThreshold: {}", vesselCode, invalidReason, overrideIntervalValue, sizeThreshold);
+    private DataNotFoundException periodNotFound(String vesselCode) {
 
-        List<ProblemGroup> results = new ArrayList<>();
-
-        if (nonNull(overrideIntervalValue)) {
-            this.minutesIntervalForConsecutiveGroups = overrideIntervalValue;
-            logger.debug("Override interval value set to: {}", overrideIntervalValue);
-        }
-
-        List<InvalidVesselData> invalidDataList;
+        logger.warn("No data found for vessel code: {} in the specified period.", vesselCode);
+        return new DataNotFoundException("No data found for vessel code: " + vesselCode + " in the specified period.");
+    }
 
-        if ("all".equals(invalidReason)) {
-            invalidDataList = invalidVesselDataRepository.findByVesselCode(vesselCode);
-        } else {
-            invalidDataList = invalidVesselDataRepository.findByVesselCodeAndInvalidReason(vesselCode, invalidReason);
-        }
+    public List<ProblemGroup> identifyProblematicData(String vesselCode, String invalidReason, Long overrideIntervalValue, Integer sizeThreshold,
+            Integer limit) {
 
-        if (invalidDataList.isEmpty()) {
-            logger.warn("No invalid data found for vessel code: {}", vesselCode);
-            throw new DataNotFoundException("No invalid data found for vessel code: " + vesselCode);
-        }
+        return vesselQueryCache.get(vesselCode, "problematicData", Arrays.asList(invalidReason, overrideIntervalValue, sizeThreshold, limit),
+                () -> loadProblematicData(vesselCode, invalidReason, overrideIntervalValue, sizeThreshold, limit));
+    }
 
-        logger.debug("Found {} invalid data entries for vesselCode: {}", invalidDataList.size(), vesselCode);
+    private List<ProblemGroup> loadProblematicData(String vesselCode, String invalidReason, Long overrideIntervalValue, Integer sizeThreshold,
+            Integer limit) {
 
-        // Identify groups of consecutive waypoints (not sorted)
-        List<List<InvalidVesselData>> unsortedGroupsOfConsecutiveWaypoints = identifyGroupsOfConsecutiveWaypoints(invalidDataList);
+        logger.debug("Identifying problematic data for vesselCode: {}, invalidReason: {}, overrideIntervalValue: {}, sizeThreshold: {}, limit: {}",
+                vesselCode, invalidReason, overrideIntervalValue, sizeThreshold, limit);
 
-        for (List<InvalidVesselData> invalidVesselDataList : unsortedGroupsOfConsecutiveWaypoints) {
-            ProblemGroup problemGroup = new ProblemGroup();
+        // Local to this call, concurrent requests with other intervals must not see it
+        var minutesInterval = nonNull(overrideIntervalValue) ? overrideIntervalValue : DEFAULT_MINUTES_INTERVAL_FOR_CONSECUTIVE_GROUPS;
 
-            problemGroup.setSize(invalidVesselDataList.size());
-            problemGroup.setStartDateTime(invalidVesselDataList.getFirst().getDatetime());
-            problemGroup.setEndDateTime(invalidVesselDataList.getLast().getDatetime());
+        var detector = new ProblemGroupDetector(minutesInterval, sizeThreshold,
+                isNull(limit) ? Integer.MAX_VALUE : limit);
+        var reason = "all".equals(invalidReason) ? null : invalidReason;
 
-            if (invalidVesselDataList.size() > sizeThreshold) {
-                results.add(problemGroup);
-                logger.debug("Added problem group of size {} for vesselCode: {}", invalidVesselDataList.size(), vesselCode);
+        // Segments precomputed for this interval stand in for the rows of vessels that have them
+        if (invalidDataSegmentService.covers(minutesInterval)) {
+            var segments = invalidDataSegmentService.detect(vesselCode, reason, detector);
+            if (segments > 0) {
+                var results = detector.groups();
+                logger.debug("Returning {} problem groups out of {} segments for vesselCode: {}", results.size(), segments, vesselCode);
+                return results;
             }
         }
 
-        results.sort(Comparator.comparingInt(ProblemGroup::getSize).reversed());
-        logger.debug("Returning {} problem groups for vesselCode: {}", results.size(), vesselCode);
-        return results;
-    }
-
-    private List<List<InvalidVesselData>> identifyGroupsOfConsecutiveWaypoints(List<InvalidVesselData> invalidDataList) {
-
-        List<List<InvalidVesselData>> result = new ArrayList<>();
-        List<InvalidVesselData> group = new ArrayList<>();
-        InvalidVesselData last = null;
+        var rows = invalidVesselDataCursorRepository.streamEpochSeconds(vesselCode, reason, detector);
 
-        for (InvalidVesselData currentVesselData : invalidDataList) {
-            if (last == null) {
-                last = currentVesselData;
-                group.add(currentVesselData);
-                result.add(group);
-            } else if (belongsToSameGroup(last.getDatetime(), currentVesselData.getDatetime())) {
-                last = currentVesselData;
-                group.add(currentVesselData);
-            } else {
-                logger.debug("Creating a new group of anomalies ");
-                group = new ArrayList<>();
-                group.add(currentVesselData);
-                last = currentVesselData;
-                result.add(group);
-            }
+        if (rows == 0) {
+            logger.warn("No invalid data found for vessel code: {}", vesselCode);
+            throw new DataNotFoundException("No invalid data found for vessel code: " + vesselCode);
         }
-        logger.debug("Returning a list of size {} groups ", result.size());
-        return result;
-    }
 
-    boolean belongsToSameGroup(String datetime, String currentDateTime) {
+        var results = detector.groups();
+        logger.debug("Returning {} problem groups out of {} invalid data entries for vesselCode: {}", results.size(), rows, vesselCode);
+        return results;
+    }
 
-        //convert datetime to java dates
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private boolean isStoreReady() {
 
-        // Convert the string to LocalDateTime
-        LocalDateTime dateTime = LocalDateTime.parse(datetime, formatter);
-        LocalDateTime currentLocalDateTime = LocalDateTime.parse(currentDateTime, formatter);
-        boolean belongs = currentLocalDateTime.isBefore(dateTime.plusMinutes(minutesIntervalForConsecutiveGroups));
-        logger.debug("Checking if {} belongs to the same group as {}: {}", currentDateTime, datetime, belongs);
-        return belongs;
+        return nonNull(vesselTimeSeriesStore) && vesselTimeSeriesStore.isReady();
     }
-}
\ No newline at end of file
+}
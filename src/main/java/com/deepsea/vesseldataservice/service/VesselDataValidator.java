@@ -0,0 +1,144 @@
+package com.deepsea.vesseldataservice.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Rules compiled once into checks over the parsed fields, in the order their reasons take precedence
+@Component
+public class VesselDataValidator {
+
+    static final String NUMBER_FORMAT = "Number format exception";
+    static final String INVALID_POSITION = "Invalid latitude or longitude";
+    static final String NEGATIVE_VALUES = "Negative values";
+    static final String OUTLIERS = "Outliers";
+    static final String INVALID_DATETIME = "Invalid datetime";
+    static final String REASON_SEPARATOR = "; ";
+
+    @FunctionalInterface
+    private interface Check {
+
+        boolean fails(VesselCsvRow row);
+    }
+
+    private record Rule(String reason, Check check) {
+
+    }
+
+    private final Rule[] rules;
+    private final boolean reportAll;
+
+    // maxSpeedOverrides are comma separated vesselCode=speed pairs
+    public VesselDataValidator(@Value("${vessel.validation.latitude.min:-90}") double minLatitude,
+            @Value("${vessel.validation.latitude.max:90}") double maxLatitude,
+            @Value("${vessel.validation.longitude.min:-180}") double minLongitude,
+            @Value("${vessel.validation.longitude.max:180}") double maxLongitude,
+            @Value("${vessel.validation.max.speed:20}") double maxSpeed,
+            @Value("${vessel.validation.max.speed.overrides:}") String maxSpeedOverrides,
+            @Value("${vessel.validation.report.all:false}") boolean reportAll) {
+
+        this.reportAll = reportAll;
+
+        List<Rule> compiled = new ArrayList<>();
+        compiled.add(new Rule(NUMBER_FORMAT, row -> !row.isNumber(VesselCsvRow.LATITUDE) || !row.isNumber(VesselCsvRow.LONGITUDE)));
+        compiled.add(new Rule(INVALID_POSITION, row -> {
+            var latitude = row.value(VesselCsvRow.LATITUDE);
+            var longitude = row.value(VesselCsvRow.LONGITUDE);
+            return row.isNumber(VesselCsvRow.LATITUDE) && row.isNumber(VesselCsvRow.LONGITUDE)
+                    && (latitude < minLatitude || latitude > maxLatitude || longitude < minLongitude || longitude > maxLongitude);
+        }));
+        compiled.add(new Rule(NUMBER_FORMAT, row -> {
+            for (int field = VesselCsvRow.POWER; field < VesselCsvRow.FIELD_COUNT; field++) {
+                if (!row.isNumber(field)) {
+                    return true;
+                }
+            }
+            return false;
+        }));
+        compiled.add(new Rule(NEGATIVE_VALUES, row -> {
+            for (int field = VesselCsvRow.POWER; field < VesselCsvRow.FIELD_COUNT; field++) {
+                if (row.isNumber(field) && row.value(field) < 0) {
+                    return true;
+                }
+            }
+            return false;
+        }));
+
+        // Only rows of overridden vessels pay for the vessel code lookup
+        var overrides = parseOverrides(maxSpeedOverrides);
+        compiled.add(new Rule(OUTLIERS, overrides.isEmpty()
+                ? row -> exceeds(row, maxSpeed)
+                : row -> exceeds(row, overrides.getOrDefault(row.vesselCode(), maxSpeed))));
+
+        compiled.add(new Rule(INVALID_DATETIME, row -> row.epochSecond() == VesselCsvRow.NO_TIMESTAMP));
+        this.rules = compiled.toArray(Rule[]::new);
+    }
+
+    static VesselDataValidator defaults() {
+
+        return new VesselDataValidator(-90, 90, -180, 180, 20, "", false);
+    }
+
+    String invalidReason(VesselCsvRow row) {
+
+        if (!reportAll) {
+            for (Rule rule : rules) {
+                if (rule.check().fails(row)) {
+                    return rule.reason();
+                }
+            }
+            return null;
+        }
+
+        String reasons = null;
+        for (Rule rule : rules) {
+            if (rule.check().fails(row) && (reasons == null || !reasons.contains(rule.reason()))) {
+                reasons = reasons == null ? rule.reason() : reasons + REASON_SEPARATOR + rule.reason();
+            }
+        }
+        return reasons;
+    }
+
+    void invalidReasons(VesselCsvRow[] rows, int count, String[] reasons) {
+
+        if (reportAll) {
+            for (int i = 0; i < count; i++) {
+                reasons[i] = invalidReason(rows[i]);
+            }
+            return;
+        }
+
+        // One rule at a time over the rows still valid, which keeps each check's call site monomorphic
+        Arrays.fill(reasons, 0, count, null);
+        for (Rule rule : rules) {
+            var check = rule.check();
+            for (int i = 0; i < count; i++) {
+                if (reasons[i] == null && check.fails(rows[i])) {
+                    reasons[i] = rule.reason();
+                }
+            }
+        }
+    }
+
+    private static boolean exceeds(VesselCsvRow row, double maxSpeed) {
+
+        return (row.isNumber(VesselCsvRow.ACTUAL_SPEED_OVERGROUND) && row.value(VesselCsvRow.ACTUAL_SPEED_OVERGROUND) > maxSpeed)
+                || (row.isNumber(VesselCsvRow.PROPOSED_SPEED_OVERGROUND) && row.value(VesselCsvRow.PROPOSED_SPEED_OVERGROUND) > maxSpeed);
+    }
+
+    private static Map<String, Double> parseOverrides(String overrides) {
+
+        Map<String, Double> parsed = new HashMap<>();
+        for (String entry : overrides.split(",")) {
+            var separator = entry.indexOf('=');
+            if (separator > 0) {
+                parsed.put(entry.substring(0, separator).trim(), Double.parseDouble(entry.substring(separator + 1).trim()));
+            }
+        }
+        return parsed;
+    }
+}
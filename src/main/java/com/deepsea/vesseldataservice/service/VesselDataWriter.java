@@ -0,0 +1,12 @@
+package com.deepsea.vesseldataservice.service;
+
+import com.deepsea.vesseldataservice.model.InvalidVesselData;
+import com.deepsea.vesseldataservice.model.ValidVesselData;
+import java.util.List;
+
+public interface VesselDataWriter {
+
+    void writeValid(List<ValidVesselData> validData);
+
+    void writeInvalid(List<InvalidVesselData> invalidData);
+}
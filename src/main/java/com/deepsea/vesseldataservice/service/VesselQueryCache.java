@@ -0,0 +1,116 @@
+package com.deepsea.vesseldataservice.service;
+
+import com.deepsea.vesseldataservice.model.InvalidVesselData;
+import com.deepsea.vesseldataservice.model.ValidVesselData;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// A result loaded while an import commits is returned but not cached
+@Component
+// Invalidated after every other listener, so that the data a reload reads is already up to date
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class VesselQueryCache implements VesselDataListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(VesselQueryCache.class);
+
+    private record Key(String vesselCode, String query, List<Object> arguments) {
+
+    }
+
+    private final Cache<Key, Object> cache;
+    private final boolean enabled;
+    private final AtomicLong generation = new AtomicLong();
+
+    public VesselQueryCache(@Value("${vessel.cache.enabled:true}") boolean enabled,
+            @Value("${vessel.cache.max.weight:1000000}") long maxWeight,
+            @Value("${vessel.cache.ttl:PT10M}") Duration ttl) {
+
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Key key, Object value) -> weigh(value))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String vesselCode, String query, List<Object> arguments, Supplier<T> loader) {
+
+        if (!enabled) {
+            return loader.get();
+        }
+
+        var key = new Key(vesselCode, query, arguments);
+        var cached = (T) cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        var generationBefore = generation.get();
+        var result = loader.get();
+        if (result != null && generation.get() == generationBefore) {
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    public CacheStats stats() {
+
+        return cache.stats();
+    }
+
+    public long size() {
+
+        // Runs pending evictions first, which otherwise happen asynchronously
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public void validDataCommitted(List<ValidVesselData> validData) {
+
+        invalidate(validData.stream().map(ValidVesselData::getVesselCode).collect(Collectors.toSet()));
+    }
+
+    @Override
+    public void invalidDataCommitted(List<InvalidVesselData> invalidData) {
+
+        invalidate(invalidData.stream().map(InvalidVesselData::getVesselCode).collect(Collectors.toSet()));
+    }
+
+    // For changes that are not per vessel, such as a rebuild of the summaries
+    public void invalidateAll() {
+
+        generation.incrementAndGet();
+        cache.invalidateAll();
+        logger.debug("Invalidated all cached queries");
+    }
+
+    private void invalidate(Set<String> vesselCodes) {
+
+        // Bumped first, so that results computed before the commit are not cached after the removal
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> vesselCodes.contains(key.vesselCode()));
+        logger.debug("Invalidated cached queries of {} vessels", vesselCodes.size());
+    }
+
+    private static int weigh(Object value) {
+
+        return value instanceof Collection<?> collection ? collection.size() + 1 : 1;
+    }
+}
@@ -0,0 +1,280 @@
+package com.deepsea.vesseldataservice.service;
+
+import com.deepsea.vesseldataservice.model.ValidVesselData;
+import com.deepsea.vesseldataservice.repository.ValidVesselDataCursorRepository.ComplianceTotalConsumer;
+import com.deepsea.vesseldataservice.response.SpeedDifferenceResponse;
+import com.deepsea.vesseldataservice.response.SpeedDifferenceScrollResponse;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Readers use an immutable snapshot of the columns; writes are serialized
+final class VesselSeries {
+
+    static final int LATITUDE = 0;
+    static final int LONGITUDE = 1;
+    static final int POWER = 2;
+    static final int FUEL_CONSUMPTION = 3;
+    static final int ACTUAL_SPEED_OVERGROUND = 4;
+    static final int PROPOSED_SPEED_OVERGROUND = 5;
+    static final int PREDICTED_FUEL_CONSUMPTION = 6;
+    static final int SPEED_DIFFERENCE = 7;
+    static final int COMPLIANCE_PERCENTAGE = 8;
+    static final int COLUMN_COUNT = 9;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private record Snapshot(int size, long[] ids, long[] epochSeconds, double[][] values, double complianceSum) {
+
+    }
+
+    private final String vesselCode;
+    private volatile Snapshot snapshot = new Snapshot(0, new long[0], new long[0], new double[COLUMN_COUNT][0], 0);
+
+    VesselSeries(String vesselCode) {
+
+        this.vesselCode = vesselCode;
+    }
+
+    // Readings at a second already stored are skipped, as in the database
+    synchronized void append(List<ValidVesselData> data) {
+
+        var current = snapshot;
+        var sorted = data.stream()
+                .sorted((left, right) -> left.getDatetime().compareTo(right.getDatetime()))
+                .toList();
+
+        var lastEpochSecond = current.size() == 0 ? Long.MIN_VALUE : current.epochSeconds()[current.size() - 1];
+        if (sorted.isEmpty() || sorted.getFirst().getDatetime().getEpochSecond() > lastEpochSecond) {
+            appendInOrder(current, sorted);
+        } else {
+            merge(current, sorted);
+        }
+    }
+
+    int size() {
+
+        return snapshot.size();
+    }
+
+    Double averageCompliance() {
+
+        var current = snapshot;
+        return current.size() == 0 ? null : current.complianceSum() / current.size();
+    }
+
+    String vesselCode() {
+
+        return vesselCode;
+    }
+
+    void complianceTotal(Instant start, Instant end, ComplianceTotalConsumer consumer) {
+
+        var current = snapshot;
+        var from = lowerBound(current, start.getEpochSecond());
+        var to = lowerBound(current, end.getEpochSecond() + 1);
+        if (from >= to) {
+            return;
+        }
+
+        var compliances = current.values()[COMPLIANCE_PERCENTAGE];
+        var complianceSum = 0.0;
+        for (int i = from; i < to; i++) {
+            complianceSum += compliances[i];
+        }
+        consumer.accept(vesselCode, complianceSum, to - from);
+    }
+
+    List<ValidVesselData> range(Instant start, Instant end) {
+
+        List<ValidVesselData> result = new ArrayList<>();
+        forEachInRange(start, end, result::add);
+        return result;
+    }
+
+    int count(Instant start, Instant end) {
+
+        var current = snapshot;
+        return Math.max(lowerBound(current, end.getEpochSecond() + 1) - lowerBound(current, start.getEpochSecond()), 0);
+    }
+
+    int forEachInRange(Instant start, Instant end, Consumer<ValidVesselData> consumer) {
+
+        var current = snapshot;
+        var from = lowerBound(current, start.getEpochSecond());
+        var to = lowerBound(current, end.getEpochSecond() + 1);
+
+        for (int i = from; i < to; i++) {
+            consumer.accept(toValidVesselData(current, i));
+        }
+        return Math.max(to - from, 0);
+    }
+
+    List<SpeedDifferenceResponse> speedDifferences(Double latitude, Double longitude) {
+
+        var current = snapshot;
+        var latitudes = current.values()[LATITUDE];
+        var longitudes = current.values()[LONGITUDE];
+        var speedDifferences = current.values()[SPEED_DIFFERENCE];
+
+        List<SpeedDifferenceResponse> result = new ArrayList<>();
+        for (int i = 0; i < current.size(); i++) {
+            if (latitude == null || longitude == null || (latitudes[i] == latitude && longitudes[i] == longitude)) {
+                result.add(new SpeedDifferenceResponse(latitudes[i], longitudes[i], speedDifferences[i]));
+            }
+        }
+        return result;
+    }
+
+    List<SpeedDifferenceResponse> speedDifferences(long offset, int limit) {
+
+        var current = snapshot;
+        var from = (int) Math.min(offset, current.size());
+        var to = (int) Math.min((long) from + limit, current.size());
+        return speedDifferences(current, from, to);
+    }
+
+    private static List<SpeedDifferenceResponse> speedDifferences(Snapshot current, int from, int to) {
+
+        List<SpeedDifferenceResponse> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(new SpeedDifferenceResponse(current.values()[LATITUDE][i], current.values()[LONGITUDE][i],
+                    current.values()[SPEED_DIFFERENCE][i]));
+        }
+        return result;
+    }
+
+    SpeedDifferenceScrollResponse speedDifferencesAfter(SpeedDifferenceCursor after, int limit) {
+
+        var current = snapshot;
+        var from = 0;
+        if (after != null) {
+            from = lowerBound(current, after.epochSecond());
+            while (from < current.size() && current.epochSeconds()[from] == after.epochSecond() && current.ids()[from] <= after.id()) {
+                from++;
+            }
+        }
+        var to = (int) Math.min((long) from + limit, current.size());
+
+        var content = speedDifferences(current, from, to);
+        var next = to < current.size()
+                ? new SpeedDifferenceCursor(current.epochSeconds()[to - 1], current.ids()[to - 1]).encode() : null;
+        return new SpeedDifferenceScrollResponse(content, next);
+    }
+
+    private void appendInOrder(Snapshot current, List<ValidVesselData> sorted) {
+
+        var size = current.size();
+        var ids = current.ids();
+        var epochSeconds = current.epochSeconds();
+        var values = current.values();
+        var complianceSum = current.complianceSum();
+
+        if (size + sorted.size() > ids.length) {
+            var capacity = Math.max(Math.max(INITIAL_CAPACITY, ids.length * 2), size + sorted.size());
+            ids = Arrays.copyOf(ids, capacity);
+            epochSeconds = Arrays.copyOf(epochSeconds, capacity);
+            values = copyOf(values, capacity);
+        }
+
+        // Only slots past the published size are written, which no reader looks at
+        var lastEpochSecond = size == 0 ? Long.MIN_VALUE : epochSeconds[size - 1];
+        for (ValidVesselData data : sorted) {
+            var epochSecond = data.getDatetime().getEpochSecond();
+            if (epochSecond > lastEpochSecond) {
+                set(ids, epochSeconds, values, size++, data);
+                complianceSum += data.getCompliancePercentage();
+                lastEpochSecond = epochSecond;
+            }
+        }
+        snapshot = new Snapshot(size, ids, epochSeconds, values, complianceSum);
+    }
+
+    private void merge(Snapshot current, List<ValidVesselData> sorted) {
+
+        var capacity = Math.max(current.ids().length, current.size() + sorted.size());
+        var ids = new long[capacity];
+        var epochSeconds = new long[capacity];
+        var values = new double[COLUMN_COUNT][capacity];
+        var complianceSum = current.complianceSum();
+
+        var size = 0;
+        var existing = 0;
+        var added = 0;
+        while (existing < current.size() || added < sorted.size()) {
+            var takeExisting = added == sorted.size() || (existing < current.size()
+                    && current.epochSeconds()[existing] <= sorted.get(added).getDatetime().getEpochSecond());
+
+            if (takeExisting) {
+                ids[size] = current.ids()[existing];
+                epochSeconds[size] = current.epochSeconds()[existing];
+                for (int column = 0; column < COLUMN_COUNT; column++) {
+                    values[column][size] = current.values()[column][existing];
+                }
+                existing++;
+                size++;
+            } else {
+                var data = sorted.get(added++);
+                if (size == 0 || epochSeconds[size - 1] != data.getDatetime().getEpochSecond()) {
+                    set(ids, epochSeconds, values, size++, data);
+                    complianceSum += data.getCompliancePercentage();
+                }
+            }
+        }
+        snapshot = new Snapshot(size, ids, epochSeconds, values, complianceSum);
+    }
+
+    private static void set(long[] ids, long[] epochSeconds, double[][] values, int index, ValidVesselData data) {
+
+        ids[index] = data.getId() == null ? 0 : data.getId();
+        epochSeconds[index] = data.getDatetime().getEpochSecond();
+        values[LATITUDE][index] = data.getLatitude();
+        values[LONGITUDE][index] = data.getLongitude();
+        values[POWER][index] = data.getPower();
+        values[FUEL_CONSUMPTION][index] = data.getFuelConsumption();
+        values[ACTUAL_SPEED_OVERGROUND][index] = data.getActualSpeedOverground();
+        values[PROPOSED_SPEED_OVERGROUND][index] = data.getProposedSpeedOverground();
+        values[PREDICTED_FUEL_CONSUMPTION][index] = data.getPredictedFuelConsumption();
+        values[SPEED_DIFFERENCE][index] = data.getSpeedDifference();
+        values[COMPLIANCE_PERCENTAGE][index] = data.getCompliancePercentage();
+    }
+
+    private ValidVesselData toValidVesselData(Snapshot current, int index) {
+
+        var values = current.values();
+        var data = new ValidVesselData(vesselCode, Instant.ofEpochSecond(current.epochSeconds()[index]),
+                values[LATITUDE][index], values[LONGITUDE][index], values[POWER][index], values[FUEL_CONSUMPTION][index],
+                values[ACTUAL_SPEED_OVERGROUND][index], values[PROPOSED_SPEED_OVERGROUND][index], values[PREDICTED_FUEL_CONSUMPTION][index]);
+        data.setId(current.ids()[index]);
+        data.setSpeedDifference(values[SPEED_DIFFERENCE][index]);
+        data.setCompliancePercentage(values[COMPLIANCE_PERCENTAGE][index]);
+        return data;
+    }
+
+    // First index whose epoch second is not less than the given one
+    private static int lowerBound(Snapshot current, long epochSecond) {
+
+        var low = 0;
+        var high = current.size();
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (current.epochSeconds()[middle] < epochSecond) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static double[][] copyOf(double[][] values, int capacity) {
+
+        var copy = new double[COLUMN_COUNT][];
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            copy[column] = Arrays.copyOf(values[column], capacity);
+        }
+        return copy;
+    }
+}
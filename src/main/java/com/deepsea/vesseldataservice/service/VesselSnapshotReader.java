@@ -0,0 +1,208 @@
+package com.deepsea.vesseldataservice.service;
+
+import com.deepsea.vesseldataservice.exception.InvalidSnapshotException;
+import com.deepsea.vesseldataservice.model.GeoGrid;
+import com.deepsea.vesseldataservice.model.InvalidVesselData;
+import com.deepsea.vesseldataservice.model.ValidVesselData;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Maps each block on its own, so files larger than one mapping can be read
+final class VesselSnapshotReader {
+
+    private VesselSnapshotReader() {
+
+    }
+
+    static void read(FileChannel channel, Consumer<List<ValidVesselData>> validConsumer,
+            Consumer<List<InvalidVesselData>> invalidConsumer) throws IOException {
+
+        var size = channel.size();
+        var header = read(channel, 0, Integer.BYTES * 2);
+        if (header.getInt() != VesselSnapshotWriter.MAGIC) {
+            throw new InvalidSnapshotException("Not a vessel data snapshot");
+        }
+        var version = header.getInt();
+        if (version != VesselSnapshotWriter.VERSION) {
+            throw new InvalidSnapshotException("Unsupported snapshot version: " + version);
+        }
+
+        var position = (long) Integer.BYTES * 2;
+        while (position < size) {
+            var blockHeader = read(channel, position, VesselSnapshotWriter.BLOCK_HEADER_BYTES);
+            var table = blockHeader.get();
+            var rows = blockHeader.getInt();
+            var length = blockHeader.getInt();
+            position += VesselSnapshotWriter.BLOCK_HEADER_BYTES;
+            if (rows < 0 || length < 0 || position + length > size) {
+                throw new InvalidSnapshotException("Truncated snapshot block at byte " + position);
+            }
+            // Checked before anything is allocated for the rows
+            if ((long) rows * minimumRowBytes(table) > length) {
+                throw new InvalidSnapshotException("Corrupt snapshot block at byte " + position);
+            }
+
+            var body = channel.map(FileChannel.MapMode.READ_ONLY, position, length).order(ByteOrder.LITTLE_ENDIAN);
+            try {
+                switch (table) {
+                    case VesselSnapshotWriter.VALID -> validConsumer.accept(decodeValid(body, rows));
+                    case VesselSnapshotWriter.INVALID -> invalidConsumer.accept(decodeInvalid(body, rows));
+                    default -> throw new InvalidSnapshotException("Unknown snapshot block type: " + table);
+                }
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException | ArithmeticException e) {
+                throw new InvalidSnapshotException("Corrupt snapshot block at byte " + position);
+            }
+            position += length;
+        }
+    }
+
+    static List<ValidVesselData> decodeValid(ByteBuffer body, int rows) {
+
+        var vesselCodes = getDictionary(body, rows);
+
+        var epochSeconds = new long[rows];
+        var previous = 0L;
+        for (int i = 0; i < rows; i++) {
+            previous += unzigzag(getVarLong(body));
+            epochSeconds[i] = previous;
+        }
+
+        var columns = new double[VesselSnapshotWriter.VALID_COLUMN_COUNT][rows];
+        for (double[] column : columns) {
+            getDoubles(body, column, rows);
+        }
+
+        List<ValidVesselData> block = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            var data = new ValidVesselData(vesselCodes[i], Instant.ofEpochSecond(epochSeconds[i]), columns[0][i], columns[1][i],
+                    columns[2][i], columns[3][i], columns[4][i], columns[5][i], columns[6][i]);
+            data.setSpeedDifference(columns[7][i]);
+            data.setCompliancePercentage(columns[8][i]);
+            data.setGeoCell(GeoGrid.cell(data.getLatitude(), data.getLongitude()));
+            block.add(data);
+        }
+        return block;
+    }
+
+    static List<InvalidVesselData> decodeInvalid(ByteBuffer body, int rows) {
+
+        var vesselCodes = getDictionary(body, rows);
+
+        var datetimes = new Instant[rows];
+        var hasDatetime = getBitmap(body, rows);
+        var previous = 0L;
+        for (int i = 0; i < rows; i++) {
+            if (isSet(hasDatetime, i)) {
+                previous += unzigzag(getVarLong(body));
+                datetimes[i] = Instant.ofEpochSecond(previous);
+            }
+        }
+
+        var columns = new Double[VesselSnapshotWriter.INVALID_COLUMN_COUNT][rows];
+        for (Double[] column : columns) {
+            var present = getBitmap(body, rows);
+            for (int i = 0; i < rows; i++) {
+                column[i] = isSet(present, i) ? body.getDouble() : null;
+            }
+        }
+
+        var reasons = getDictionary(body, rows);
+
+        List<InvalidVesselData> block = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            var data = new InvalidVesselData(vesselCodes[i], datetimes[i], columns[0][i], columns[1][i], columns[2][i],
+                    columns[3][i], columns[4][i], columns[5][i], columns[6][i]);
+            data.setInvalidReason(reasons[i]);
+            block.add(data);
+        }
+        return block;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+
+        var buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new InvalidSnapshotException("Truncated snapshot at byte " + (position + buffer.position()));
+            }
+        }
+        return buffer.flip();
+    }
+
+    // A valid row holds all of its doubles, an invalid row at least the codes of its vessel and reason
+    private static int minimumRowBytes(byte table) {
+
+        return table == VesselSnapshotWriter.VALID ? VesselSnapshotWriter.VALID_COLUMN_COUNT * Double.BYTES : 2;
+    }
+
+    // The value of every row, decoded once per distinct value
+    private static String[] getDictionary(ByteBuffer body, int rows) {
+
+        var entries = new String[getLength(body) + 1];
+        for (int code = 1; code < entries.length; code++) {
+            var bytes = new byte[getLength(body)];
+            body.get(bytes);
+            entries[code] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        var values = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            values[i] = entries[Math.toIntExact(getVarLong(body))];
+        }
+        return values;
+    }
+
+    // A count of entries or bytes that follow, each taking at least one byte of the body
+    private static int getLength(ByteBuffer body) {
+
+        var length = getVarLong(body);
+        if (length < 0 || length > body.remaining()) {
+            throw new InvalidSnapshotException("Corrupt snapshot length: " + length);
+        }
+        return (int) length;
+    }
+
+    private static void getDoubles(ByteBuffer body, double[] column, int rows) {
+
+        body.asDoubleBuffer().get(column, 0, rows);
+        body.position(body.position() + rows * Double.BYTES);
+    }
+
+    private static byte[] getBitmap(ByteBuffer body, int rows) {
+
+        var bitmap = new byte[(rows + 7) / 8];
+        body.get(bitmap);
+        return bitmap;
+    }
+
+    private static boolean isSet(byte[] bitmap, int row) {
+
+        return (bitmap[row >>> 3] & (1 << (row & 7))) != 0;
+    }
+
+    private static long unzigzag(long value) {
+
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+
+        var value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            var b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new InvalidSnapshotException("Malformed varint in snapshot");
+    }
+}
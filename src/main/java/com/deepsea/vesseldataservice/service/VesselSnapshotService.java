@@ -0,0 +1,156 @@
+package com.deepsea.vesseldataservice.service;
+
+import com.deepsea.vesseldataservice.exception.DataNotFoundException;
+import com.deepsea.vesseldataservice.exception.InvalidSnapshotException;
+import com.deepsea.vesseldataservice.model.InvalidVesselData;
+import com.deepsea.vesseldataservice.model.ValidVesselData;
+import com.deepsea.vesseldataservice.repository.InvalidVesselDataCursorRepository;
+import com.deepsea.vesseldataservice.repository.ValidVesselDataCursorRepository;
+import com.deepsea.vesseldataservice.response.SnapshotResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+// Reloads a database from pre-validated columnar files instead of parsing the CSV again
+@Service
+public class VesselSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VesselSnapshotService.class);
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._-]*");
+
+    private final ValidVesselDataCursorRepository validVesselDataCursorRepository;
+    private final InvalidVesselDataCursorRepository invalidVesselDataCursorRepository;
+    private final VesselDataWriter vesselDataWriter;
+    private final List<VesselDataListener> vesselDataListeners;
+    private final IngestionMetrics ingestionMetrics;
+    private final Path directory;
+    private final int blockRows;
+
+    public VesselSnapshotService(ValidVesselDataCursorRepository validVesselDataCursorRepository,
+            InvalidVesselDataCursorRepository invalidVesselDataCursorRepository, VesselDataWriter vesselDataWriter,
+            List<VesselDataListener> vesselDataListeners, IngestionMetrics ingestionMetrics,
+            @Value("${vessel.snapshot.dir:snapshots}") String directory,
+            @Value("${vessel.snapshot.block.rows:65536}") int blockRows) {
+
+        this.validVesselDataCursorRepository = validVesselDataCursorRepository;
+        this.invalidVesselDataCursorRepository = invalidVesselDataCursorRepository;
+        this.vesselDataWriter = vesselDataWriter;
+        this.vesselDataListeners = vesselDataListeners;
+        this.ingestionMetrics = ingestionMetrics;
+        this.directory = Path.of(directory);
+        this.blockRows = blockRows;
+    }
+
+    // The file only appears once complete
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public SnapshotResponse export(String name) throws IOException {
+
+        var file = resolve(name);
+        var partial = file.resolveSibling(file.getFileName() + ".partial");
+        var start = System.nanoTime();
+        Files.createDirectories(directory);
+
+        long validRows;
+        long invalidRows;
+        try {
+            try (var channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE)) {
+                var writer = new VesselSnapshotWriter(channel, blockRows);
+                validVesselDataCursorRepository.streamAll(data -> unchecked(() -> writer.addValid(data)));
+                invalidVesselDataCursorRepository.streamAll(data -> unchecked(() -> writer.addInvalid(data)));
+                writer.close();
+                validRows = writer.validRows();
+                invalidRows = writer.invalidRows();
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+
+        var response = new SnapshotResponse(name, validRows, invalidRows, Files.size(file), (System.nanoTime() - start) / 1_000_000);
+        logger.info("Exported {} valid and {} invalid data to snapshot {} of {} bytes in {} ms",
+                validRows, invalidRows, file, response.getBytes(), response.getElapsedMillis());
+        return response;
+    }
+
+    public SnapshotResponse importSnapshot(String name) throws IOException {
+
+        var file = resolve(name);
+        if (!Files.isRegularFile(file)) {
+            throw new DataNotFoundException("No snapshot found with name: " + name);
+        }
+
+        var start = System.nanoTime();
+        var importRate = ingestionMetrics.importStarted();
+        long[] rows = new long[2];
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            VesselSnapshotReader.read(channel, validData -> {
+                flushValid(importRate, validData);
+                rows[0] += validData.size();
+            }, invalidData -> {
+                flushInvalid(importRate, invalidData);
+                rows[1] += invalidData.size();
+            });
+        }
+
+        var response = new SnapshotResponse(name, rows[0], rows[1], Files.size(file), (System.nanoTime() - start) / 1_000_000);
+        logger.info("Imported {} valid and {} invalid data from snapshot {} in {} ms",
+                rows[0], rows[1], file, response.getElapsedMillis());
+        return response;
+    }
+
+    private void flushValid(IngestionMetrics.ImportRate importRate, List<ValidVesselData> validData) {
+
+        var flushStart = System.nanoTime();
+        vesselDataWriter.writeValid(validData);
+        ingestionMetrics.recordFlush(importRate, IngestionMetrics.VALID_TABLE, validData.size(), System.nanoTime() - flushStart);
+        vesselDataListeners.forEach(listener -> listener.validDataCommitted(validData));
+    }
+
+    private void flushInvalid(IngestionMetrics.ImportRate importRate, List<InvalidVesselData> invalidData) {
+
+        var flushStart = System.nanoTime();
+        vesselDataWriter.writeInvalid(invalidData);
+        ingestionMetrics.recordFlush(importRate, IngestionMetrics.INVALID_TABLE, invalidData.size(), System.nanoTime() - flushStart);
+        vesselDataListeners.forEach(listener -> listener.invalidDataCommitted(invalidData));
+    }
+
+    // Snapshot names are plain file names, so a request can never reach outside of the directory
+    private Path resolve(String name) {
+
+        if (name == null || !NAME.matcher(name).matches()) {
+            throw new InvalidSnapshotException("Invalid snapshot name: " + name);
+        }
+        return directory.resolve(name);
+    }
+
+    private static void unchecked(IoAction action) {
+
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoAction {
+
+        void run() throws IOException;
+    }
+}
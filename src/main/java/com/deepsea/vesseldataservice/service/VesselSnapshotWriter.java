@@ -0,0 +1,244 @@
+package com.deepsea.vesseldataservice.service;
+
+import com.deepsea.vesseldataservice.model.InvalidVesselData;
+import com.deepsea.vesseldataservice.model.ValidVesselData;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+// Blocks of one table: header, dictionary encoded codes, varint datetime deltas, one column per measurement
+final class VesselSnapshotWriter implements AutoCloseable {
+
+    static final int MAGIC = 0x564E5350; // "VSNP"
+    static final int VERSION = 1;
+    static final byte VALID = 1;
+    static final byte INVALID = 2;
+    static final int BLOCK_HEADER_BYTES = Byte.BYTES + Integer.BYTES + Integer.BYTES;
+
+    private static final List<ToDoubleFunction<ValidVesselData>> VALID_COLUMNS = List.of(
+            ValidVesselData::getLatitude, ValidVesselData::getLongitude, ValidVesselData::getPower,
+            ValidVesselData::getFuelConsumption, ValidVesselData::getActualSpeedOverground,
+            ValidVesselData::getProposedSpeedOverground, ValidVesselData::getPredictedFuelConsumption,
+            ValidVesselData::getSpeedDifference, ValidVesselData::getCompliancePercentage);
+
+    private static final List<Function<InvalidVesselData, Double>> INVALID_COLUMNS = List.of(
+            InvalidVesselData::getLatitude, InvalidVesselData::getLongitude, InvalidVesselData::getPower,
+            InvalidVesselData::getFuelConsumption, InvalidVesselData::getActualSpeedOverground,
+            InvalidVesselData::getProposedSpeedOverground, InvalidVesselData::getPredictedFuelConsumption);
+
+    static final int VALID_COLUMN_COUNT = VALID_COLUMNS.size();
+    static final int INVALID_COLUMN_COUNT = INVALID_COLUMNS.size();
+
+    // Upper bound of the bytes of a row outside of the dictionaries: two varint codes, a varlong and the doubles
+    private static final int MAX_ROW_BYTES = 5 + 10 + 5 + Double.BYTES * VALID_COLUMN_COUNT + 1;
+
+    private final FileChannel channel;
+    private final int blockRows;
+    private final List<ValidVesselData> validBlock = new ArrayList<>();
+    private final List<InvalidVesselData> invalidBlock = new ArrayList<>();
+    private long validRows;
+    private long invalidRows;
+
+    VesselSnapshotWriter(FileChannel channel, int blockRows) throws IOException {
+
+        this.channel = channel;
+        this.blockRows = blockRows;
+
+        var header = ByteBuffer.allocate(Integer.BYTES * 2).order(ByteOrder.LITTLE_ENDIAN).putInt(MAGIC).putInt(VERSION);
+        write(header.flip());
+    }
+
+    void addValid(ValidVesselData data) throws IOException {
+
+        validBlock.add(data);
+        if (validBlock.size() == blockRows) {
+            writeValidBlock();
+        }
+    }
+
+    void addInvalid(InvalidVesselData data) throws IOException {
+
+        invalidBlock.add(data);
+        if (invalidBlock.size() == blockRows) {
+            writeInvalidBlock();
+        }
+    }
+
+    long validRows() {
+
+        return validRows;
+    }
+
+    long invalidRows() {
+
+        return invalidRows;
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        writeValidBlock();
+        writeInvalidBlock();
+    }
+
+    private void writeValidBlock() throws IOException {
+
+        if (validBlock.isEmpty()) {
+            return;
+        }
+
+        var rows = validBlock.size();
+        var vesselCodes = dictionary(validBlock, ValidVesselData::getVesselCode);
+        var body = allocate(rows, vesselCodes);
+
+        putDictionary(body, vesselCodes, validBlock, ValidVesselData::getVesselCode);
+        var previous = 0L;
+        for (ValidVesselData data : validBlock) {
+            var epochSecond = data.getDatetime().getEpochSecond();
+            putVarLong(body, zigzag(epochSecond - previous));
+            previous = epochSecond;
+        }
+        for (ToDoubleFunction<ValidVesselData> column : VALID_COLUMNS) {
+            for (ValidVesselData data : validBlock) {
+                body.putDouble(column.applyAsDouble(data));
+            }
+        }
+
+        writeBlock(VALID, rows, body);
+        validRows += rows;
+        validBlock.clear();
+    }
+
+    private void writeInvalidBlock() throws IOException {
+
+        if (invalidBlock.isEmpty()) {
+            return;
+        }
+
+        var rows = invalidBlock.size();
+        var vesselCodes = dictionary(invalidBlock, InvalidVesselData::getVesselCode);
+        var reasons = dictionary(invalidBlock, InvalidVesselData::getInvalidReason);
+        var body = allocate(rows, vesselCodes, reasons);
+
+        putDictionary(body, vesselCodes, invalidBlock, InvalidVesselData::getVesselCode);
+
+        putBitmap(body, invalidBlock, data -> data.getDatetime() != null);
+        var previous = 0L;
+        for (InvalidVesselData data : invalidBlock) {
+            if (data.getDatetime() != null) {
+                var epochSecond = data.getDatetime().getEpochSecond();
+                putVarLong(body, zigzag(epochSecond - previous));
+                previous = epochSecond;
+            }
+        }
+
+        for (Function<InvalidVesselData, Double> column : INVALID_COLUMNS) {
+            putBitmap(body, invalidBlock, data -> column.apply(data) != null);
+            for (InvalidVesselData data : invalidBlock) {
+                var value = column.apply(data);
+                if (value != null) {
+                    body.putDouble(value);
+                }
+            }
+        }
+
+        putDictionary(body, reasons, invalidBlock, InvalidVesselData::getInvalidReason);
+
+        writeBlock(INVALID, rows, body);
+        invalidRows += rows;
+        invalidBlock.clear();
+    }
+
+    private void writeBlock(byte table, int rows, ByteBuffer body) throws IOException {
+
+        body.flip();
+        var header = ByteBuffer.allocate(BLOCK_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                .put(table).putInt(rows).putInt(body.remaining());
+        write(header.flip());
+        write(body);
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // The distinct values in order of appearance, null excluded; codes are their index plus one, 0 stands for null
+    private static <T> Map<String, Integer> dictionary(List<T> block, Function<T, String> value) {
+
+        Map<String, Integer> codes = new HashMap<>();
+        for (T data : block) {
+            var text = value.apply(data);
+            if (text != null) {
+                codes.putIfAbsent(text, codes.size() + 1);
+            }
+        }
+        return codes;
+    }
+
+    @SafeVarargs
+    private static ByteBuffer allocate(int rows, Map<String, Integer>... dictionaries) {
+
+        long bytes = (long) rows * MAX_ROW_BYTES + (rows / 8 + 1) * (INVALID_COLUMN_COUNT + 1L);
+        for (Map<String, Integer> dictionary : dictionaries) {
+            bytes += 5;
+            for (String text : dictionary.keySet()) {
+                bytes += 5 + (long) text.length() * 3; // UTF-8 takes at most three bytes per char
+            }
+        }
+        return ByteBuffer.allocate(Math.toIntExact(bytes)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static <T> void putDictionary(ByteBuffer body, Map<String, Integer> codes, List<T> block, Function<T, String> value) {
+
+        var entries = new String[codes.size()];
+        codes.forEach((text, code) -> entries[code - 1] = text);
+
+        putVarLong(body, entries.length);
+        for (String text : entries) {
+            var bytes = text.getBytes(StandardCharsets.UTF_8);
+            putVarLong(body, bytes.length);
+            body.put(bytes);
+        }
+        for (T data : block) {
+            var text = value.apply(data);
+            putVarLong(body, text == null ? 0 : codes.get(text));
+        }
+    }
+
+    private static <T> void putBitmap(ByteBuffer body, List<T> block, Predicate<T> present) {
+
+        var bitmap = new byte[(block.size() + 7) / 8];
+        for (int i = 0; i < block.size(); i++) {
+            if (present.test(block.get(i))) {
+                bitmap[i >>> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+        body.put(bitmap);
+    }
+
+    static long zigzag(long value) {
+
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static void putVarLong(ByteBuffer buffer, long value) {
+
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+}
@@ -0,0 +1,97 @@
+package com.deepsea.vesseldataservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Writers fold in the ids they inserted, so duplicates skipped by the database are not counted
+@Service
+public class VesselSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VesselSummaryService.class);
+
+    private static final String VALID_DELTA = "SELECT vessel_code, SUM(compliance_percentage) AS compliance_sum, COUNT(*) AS compliance_count "
+            + "FROM valid_vessel_data WHERE {ids} GROUP BY vessel_code";
+
+    private static final String INVALID_DELTA = "SELECT vessel_code, invalid_reason, COUNT(*) AS row_count "
+            + "FROM invalid_vessel_data WHERE {ids} AND invalid_reason IS NOT NULL GROUP BY vessel_code, invalid_reason";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InvalidDataSegmentService invalidDataSegmentService;
+    private final VesselQueryCache vesselQueryCache;
+    private final String applyValidSql;
+    private final String applyInvalidSql;
+
+    public VesselSummaryService(JdbcTemplate jdbcTemplate, InvalidDataSegmentService invalidDataSegmentService,
+            VesselQueryCache vesselQueryCache) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.invalidDataSegmentService = invalidDataSegmentService;
+        this.vesselQueryCache = vesselQueryCache;
+
+        if (SqlDialect.of(jdbcTemplate) == SqlDialect.MYSQL) {
+            applyValidSql = "INSERT INTO vessel_compliance_summary (vessel_code, compliance_sum, compliance_count) " + VALID_DELTA
+                    + " ON DUPLICATE KEY UPDATE compliance_sum = compliance_sum + VALUES(compliance_sum), "
+                    + "compliance_count = compliance_count + VALUES(compliance_count)";
+            applyInvalidSql = "INSERT INTO vessel_invalid_reason_count (vessel_code, invalid_reason, row_count) " + INVALID_DELTA
+                    + " ON DUPLICATE KEY UPDATE row_count = row_count + VALUES(row_count)";
+        } else {
+            applyValidSql = "MERGE INTO vessel_compliance_summary t USING (" + VALID_DELTA + ") s ON t.vessel_code = s.vessel_code "
+                    + "WHEN MATCHED THEN UPDATE SET compliance_sum = t.compliance_sum + s.compliance_sum, "
+                    + "compliance_count = t.compliance_count + s.compliance_count "
+                    + "WHEN NOT MATCHED THEN INSERT (vessel_code, compliance_sum, compliance_count) "
+                    + "VALUES (s.vessel_code, s.compliance_sum, s.compliance_count)";
+            applyInvalidSql = "MERGE INTO vessel_invalid_reason_count t USING (" + INVALID_DELTA + ") s "
+                    + "ON t.vessel_code = s.vessel_code AND t.invalid_reason = s.invalid_reason "
+                    + "WHEN MATCHED THEN UPDATE SET row_count = t.row_count + s.row_count "
+                    + "WHEN NOT MATCHED THEN INSERT (vessel_code, invalid_reason, row_count) "
+                    + "VALUES (s.vessel_code, s.invalid_reason, s.row_count)";
+        }
+    }
+
+    // Must run in the transaction that inserted the ids
+    public void applyValid(long[] ids) {
+
+        apply(applyValidSql, IdRanges.of(ids));
+    }
+
+    public void applyInvalid(long[] ids) {
+
+        var ranges = IdRanges.of(ids);
+        apply(applyInvalidSql, ranges);
+        invalidDataSegmentService.apply(ranges);
+    }
+
+    // Should not run while an import is writing
+    @Transactional
+    public int rebuild() {
+
+        jdbcTemplate.update("DELETE FROM vessel_compliance_summary");
+        jdbcTemplate.update("DELETE FROM vessel_invalid_reason_count");
+        var vessels = apply(applyValidSql, IdRanges.between(Long.MIN_VALUE, Long.MAX_VALUE));
+        apply(applyInvalidSql, IdRanges.between(Long.MIN_VALUE, Long.MAX_VALUE));
+        invalidDataSegmentService.rebuild();
+
+        // Cached results read the rebuilt tables, and would be loaded again from the old rows before the commit
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+
+                vesselQueryCache.invalidateAll();
+            }
+        });
+
+        logger.info("Rebuilt vessel summaries for {} vessels", vessels);
+        return vessels;
+    }
+
+    private int apply(String sql, IdRanges ranges) {
+
+        return ranges.isEmpty() ? 0 : jdbcTemplate.update(sql.replace("{ids}", ranges.predicate()), ranges.arguments());
+    }
+}
@@ -0,0 +1,89 @@
+package com.deepsea.vesseldataservice.service;
+
+import com.deepsea.vesseldataservice.config.Workload;
+import com.deepsea.vesseldataservice.model.ValidVesselData;
+import com.deepsea.vesseldataservice.repository.ValidVesselDataCursorRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+// Loaded once the application is ready; reads use the database until then
+@Service
+// Updated before the query cache is invalidated, so results loaded after the invalidation see the new rows
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "vessel.store.enabled", havingValue = "true")
+public class VesselTimeSeriesStore implements VesselDataListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(VesselTimeSeriesStore.class);
+
+    private static final int LOAD_CHUNK_SIZE = 10_000;
+
+    private final ValidVesselDataCursorRepository validVesselDataCursorRepository;
+    private final Map<String, VesselSeries> series = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public VesselTimeSeriesStore(ValidVesselDataCursorRepository validVesselDataCursorRepository) {
+
+        this.validVesselDataCursorRepository = validVesselDataCursorRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+
+        logger.info("Loading valid vessel data into the in-memory store");
+        var start = System.nanoTime();
+
+        // Rows arrive grouped by vessel, so each chunk usually belongs to a single series
+        List<ValidVesselData> chunk = new ArrayList<>(LOAD_CHUNK_SIZE);
+        // A bulk read of every row, kept off the query pool
+        var previousWorkload = Workload.enter(Workload.INGEST);
+        try {
+            validVesselDataCursorRepository.streamAll(data -> {
+                chunk.add(data);
+                if (chunk.size() >= LOAD_CHUNK_SIZE) {
+                    validDataCommitted(chunk);
+                    chunk.clear();
+                }
+            });
+        } finally {
+            Workload.restore(previousWorkload);
+        }
+        validDataCommitted(chunk);
+
+        ready = true;
+        logger.info("Loaded {} vessels into the in-memory store in {} ms", series.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void validDataCommitted(List<ValidVesselData> validData) {
+
+        var byVessel = validData.stream().collect(Collectors.groupingBy(ValidVesselData::getVesselCode));
+        byVessel.forEach((vesselCode, data) -> series.computeIfAbsent(vesselCode, VesselSeries::new).append(data));
+    }
+
+    public boolean isReady() {
+
+        return ready;
+    }
+
+    VesselSeries series(String vesselCode) {
+
+        return series.get(vesselCode);
+    }
+
+    Collection<VesselSeries> allSeries() {
+
+        return series.values();
+    }
+}
@@ -0,0 +1,21 @@
+-- Makes (vessel_code, datetime) unique, so that re-imported readings are skipped instead of duplicated.
+-- Run once against an existing MySQL database, before starting the new version of the service.
+
+-- Keep the first stored copy of every reading
+DELETE duplicate FROM valid_vessel_data duplicate
+    JOIN valid_vessel_data original
+        ON original.vessel_code = duplicate.vessel_code AND original.datetime = duplicate.datetime AND original.id < duplicate.id;
+DELETE duplicate FROM invalid_vessel_data duplicate
+    JOIN invalid_vessel_data original
+        ON original.vessel_code = duplicate.vessel_code AND original.datetime = duplicate.datetime AND original.id < duplicate.id;
+
+-- The header line used to be stored as an invalid reading
+DELETE FROM invalid_vessel_data WHERE vessel_code = 'vessel_code';
+
+ALTER TABLE valid_vessel_data
+    DROP INDEX idx_valid_vessel_data_vessel_code_datetime,
+    ADD UNIQUE INDEX idx_valid_vessel_data_vessel_code_datetime (vessel_code, datetime);
+
+ALTER TABLE invalid_vessel_data
+    DROP INDEX idx_invalid_vessel_data_vessel_code_datetime,
+    ADD UNIQUE INDEX idx_invalid_vessel_data_vessel_code_datetime (vessel_code, datetime);
@@ -0,0 +1,8 @@
+-- Fills the grid cell of valid readings stored before area lookups existed. Same numbering as GeoGrid.cell:
+-- 0.1 degree cells, row by row from latitude -90 and longitude -180, clamped to the 1800 x 3600 grid.
+-- Run once against an existing MySQL database after the new version of the service has added the column.
+
+UPDATE valid_vessel_data
+SET geo_cell = LEAST(GREATEST(FLOOR((latitude + 90) / 0.1), 0), 1799) * 3600
+             + LEAST(GREATEST(FLOOR((longitude + 180) / 0.1), 0), 3599)
+WHERE geo_cell IS NULL;
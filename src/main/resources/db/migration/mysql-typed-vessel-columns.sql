@@ -0,0 +1,33 @@
+-- Converts vessel data tables created with text columns to the typed schema.
+-- Run once against an existing MySQL database, before starting the new version of the service.
+
+-- Readings that were stored as the literal NULL, or as any other non-numeric text, become SQL NULL
+UPDATE invalid_vessel_data SET latitude = NULL WHERE latitude NOT REGEXP '^[-+]?[0-9]*\\.?[0-9]+([eE][-+]?[0-9]+)?$';
+UPDATE invalid_vessel_data SET longitude = NULL WHERE longitude NOT REGEXP '^[-+]?[0-9]*\\.?[0-9]+([eE][-+]?[0-9]+)?$';
+UPDATE invalid_vessel_data SET power = NULL WHERE power NOT REGEXP '^[-+]?[0-9]*\\.?[0-9]+([eE][-+]?[0-9]+)?$';
+UPDATE invalid_vessel_data SET fuel_consumption = NULL WHERE fuel_consumption NOT REGEXP '^[-+]?[0-9]*\\.?[0-9]+([eE][-+]?[0-9]+)?$';
+UPDATE invalid_vessel_data SET actual_speed_overground = NULL WHERE actual_speed_overground NOT REGEXP '^[-+]?[0-9]*\\.?[0-9]+([eE][-+]?[0-9]+)?$';
+UPDATE invalid_vessel_data SET proposed_speed_overground = NULL WHERE proposed_speed_overground NOT REGEXP '^[-+]?[0-9]*\\.?[0-9]+([eE][-+]?[0-9]+)?$';
+UPDATE invalid_vessel_data SET predicted_fuel_consumption = NULL WHERE predicted_fuel_consumption NOT REGEXP '^[-+]?[0-9]*\\.?[0-9]+([eE][-+]?[0-9]+)?$';
+UPDATE invalid_vessel_data SET datetime = NULL WHERE datetime NOT REGEXP '^[0-9]{4}-[0-9]{2}-[0-9]{2} [0-9]{2}:[0-9]{2}:[0-9]{2}$';
+
+ALTER TABLE invalid_vessel_data
+    MODIFY datetime DATETIME(6) NULL,
+    MODIFY latitude DOUBLE NULL,
+    MODIFY longitude DOUBLE NULL,
+    MODIFY power DOUBLE NULL,
+    MODIFY fuel_consumption DOUBLE NULL,
+    MODIFY actual_speed_overground DOUBLE NULL,
+    MODIFY proposed_speed_overground DOUBLE NULL,
+    MODIFY predicted_fuel_consumption DOUBLE NULL;
+
+-- Valid rows always passed numeric validation, so their text converts directly
+ALTER TABLE valid_vessel_data
+    MODIFY datetime DATETIME(6) NULL,
+    MODIFY latitude DOUBLE NOT NULL,
+    MODIFY longitude DOUBLE NOT NULL,
+    MODIFY power DOUBLE NOT NULL,
+    MODIFY fuel_consumption DOUBLE NOT NULL,
+    MODIFY actual_speed_overground DOUBLE NOT NULL,
+    MODIFY proposed_speed_overground DOUBLE NOT NULL,
+    MODIFY predicted_fuel_consumption DOUBLE NOT NULL;
@@ -0,0 +1,104 @@
+package com.deepsea.vesseldataservice.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.deepsea.vesseldataservice.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+class EndpointConcurrencyLimiterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EndpointConcurrencyLimiter limiter = new EndpointConcurrencyLimiter(1, 1, Duration.ofMillis(10), meterRegistry);
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @AfterEach
+    void tearDown() {
+
+        Workload.restore(null);
+    }
+
+    @Test
+    void testRequestsBeyondTheLimitOfTheirClassAreRejected() throws Exception {
+        // Arrange
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        MockHttpServletRequest second = new MockHttpServletRequest();
+        MockHttpServletRequest ingest = new MockHttpServletRequest();
+        assertTrue(limiter.preHandle(first, response, handler("query")));
+
+        // Act & Assert
+        assertThrows(ConcurrencyLimitExceededException.class, () -> limiter.preHandle(second, response, handler("query")));
+        assertTrue(limiter.preHandle(ingest, response, handler("ingest")));
+        assertEquals(1, meterRegistry.get("vessel.requests.rejected").tag("workload", "query").counter().count());
+        assertEquals(1, meterRegistry.get("vessel.requests.active").tag("workload", "ingest").gauge().value());
+    }
+
+    @Test
+    void testPermitsAreReleasedWhenRequestsComplete() throws Exception {
+        // Arrange
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        MockHttpServletRequest second = new MockHttpServletRequest();
+        limiter.preHandle(first, response, handler("query"));
+
+        // Act
+        limiter.afterCompletion(first, response, handler("query"), null);
+
+        // Assert
+        assertTrue(limiter.preHandle(second, response, handler("query")));
+    }
+
+    @Test
+    void testRequestsRunWithTheWorkloadOfTheirEndpoint() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        // Act
+        limiter.preHandle(request, response, handler("ingest"));
+
+        // Assert
+        assertEquals(Workload.INGEST, Workload.current());
+        limiter.afterCompletion(request, response, handler("ingest"), null);
+        assertEquals(Workload.QUERY, Workload.current());
+    }
+
+    @Test
+    void testWorkloadDeclaredBeforeTheRequestIsRestored() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        Workload.enter(Workload.INGEST);
+
+        // Act
+        limiter.preHandle(request, response, handler("query"));
+        Workload during = Workload.current();
+        limiter.afterCompletion(request, response, handler("query"), null);
+
+        // Assert
+        assertEquals(Workload.QUERY, during);
+        assertEquals(Workload.INGEST, Workload.current());
+    }
+
+    private static HandlerMethod handler(String method) throws NoSuchMethodException {
+
+        return new HandlerMethod(new Endpoints(), Endpoints.class.getMethod(method));
+    }
+
+    static class Endpoints {
+
+        public void query() {
+
+        }
+
+        @IngestEndpoint
+        public void ingest() {
+
+        }
+    }
+}
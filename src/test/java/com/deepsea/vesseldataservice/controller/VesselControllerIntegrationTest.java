@@ -1,9 +1,17 @@
 package com.deepsea.vesseldataservice.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -11,6 +19,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -25,6 +34,15 @@ class VesselControllerIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @BeforeAll
     void whenGetRequestToProcessFile_thenCorrectResponse() throws Exception {
 
@@ -66,6 +84,82 @@ class VesselControllerIntegrationTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$['pageable']['paged']").value("true"));
     }
 
+    @Test
+    void whenScrollingSpeedDifferences_thenPagesMatchTheOffsetPagination() throws Exception {
+
+        // Arrange
+        JsonNode expected = objectMapper.readTree(mockMvc.perform(get("/api/vessels/3001/speed-differences").param("size", "1000"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("content");
+
+        // Act
+        List<JsonNode> scrolled = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/api/vessels/3001/speed-differences/scroll").param("size", "7");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("content").forEach(scrolled::add);
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(expected.size(), scrolled.size());
+        for (int i = 0; i < scrolled.size(); i++) {
+            assertEquals(expected.get(i), scrolled.get(i));
+        }
+    }
+
+    @Test
+    void whenScrollingSpeedDifferencesWithInvalidCursor_thenBadRequest() throws Exception {
+
+        mockMvc.perform(get("/api/vessels/3001/speed-differences/scroll").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid cursor: not-a-cursor"));
+    }
+
+    @Test
+    void whenGetRequestToSpeedDifferencesInArea_thenEveryPositionInsideIsReturned() throws Exception {
+
+        // Arrange
+        Integer expected = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM valid_vessel_data WHERE vessel_code = '3001' "
+                + "AND latitude BETWEEN 40 AND 46 AND longitude BETWEEN -55 AND -50", Integer.class);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/vessels/3001/speed-difference/area")
+                        .param("minLatitude", "40")
+                        .param("maxLatitude", "46")
+                        .param("minLongitude", "-55")
+                        .param("maxLongitude", "-50"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(expected))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].vesselCode").value("3001"));
+    }
+
+    @Test
+    void whenGetRequestToFleetSpeedDifferencesNearby_thenOnlyPositionsWithinTheRadiusAreReturned() throws Exception {
+
+        // Act & Assert
+        mockMvc.perform(get("/api/vessels/speed-difference/nearby")
+                        .param("latitude", "44.8565368652344")
+                        .param("longitude", "-51.4986343383789")
+                        .param("radiusKm", "0.5"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].latitude").value("44.8565368652344"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].longitude").value("-51.4986343383789"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[*].vesselCode", Matchers.everyItem(Matchers.is("3001"))));
+
+        mockMvc.perform(get("/api/vessels/speed-difference/nearby")
+                        .param("latitude", "91")
+                        .param("longitude", "0")
+                        .param("radiusKm", "1"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void handleSpeedDifferenceDataNotFoundException_ShouldReturnNotFound() throws Exception {
 
@@ -161,6 +255,119 @@ class VesselControllerIntegrationTest {
                 .andExpect(content().string(errorMessage));
     }
 
+    @Test
+    void complianceRankingMatchesPerVesselAverages() throws Exception {
+
+        // Arrange
+        String startDate = "2023-01-01 00:00:00";
+        String endDate = "2024-01-01 00:00:00";
+        List<Double> averages = jdbcTemplate.queryForList("SELECT AVG(compliance_percentage) FROM valid_vessel_data "
+                + "GROUP BY vessel_code ORDER BY AVG(compliance_percentage) DESC", Double.class);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/vessels/compliance-ranking")
+                        .param("startDate", startDate)
+                        .param("endDate", endDate)
+                        .param("limit", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.vesselCount").value(averages.size()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.top.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.top[0].compliancePercentage").value(Matchers.closeTo(averages.getFirst(), 1e-9)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.bottom[0].compliancePercentage").value(Matchers.closeTo(averages.getLast(), 1e-9)));
+    }
+
+    @Test
+    void complianceRankingWithoutDataInPeriod_ShouldReturnNotFound() throws Exception {
+
+        // Act & Assert
+        mockMvc.perform(get("/api/vessels/compliance-ranking")
+                        .param("startDate", "2000-01-01 00:00:00")
+                        .param("endDate", "2000-01-02 00:00:00")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("No data found for any vessel in the specified period."));
+    }
+
+    @Test
+    void ingestionMetricsArePublishedPerStageAndTable() throws Exception {
+
+        // Act & Assert
+        for (String stage : List.of("read", "parse", "validate", "metrics")) {
+            mockMvc.perform(get("/actuator/metrics/vessel.ingestion.stage").param("tag", "stage:" + stage))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/actuator/metrics/vessel.ingestion.batch.size").param("tag", "table:valid_vessel_data"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/vessel.ingestion.flush").param("tag", "table:invalid_vessel_data"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/vessel.ingestion.rows.per.second"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void whenExportingAndImportingASnapshot_thenEveryRowRoundTripsWithoutDuplicates() throws Exception {
+
+        // Arrange
+        Long validCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM valid_vessel_data", Long.class);
+        Long invalidCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM invalid_vessel_data", Long.class);
+
+        // Act
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/vessels/snapshots/integration"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.validRows").value(validCount))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.invalidRows").value(invalidCount));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/vessels/snapshots/integration/import"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.validRows").value(validCount))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.invalidRows").value(invalidCount));
+
+        // Assert
+        assertEquals(validCount, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM valid_vessel_data", Long.class));
+        assertEquals(invalidCount, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM invalid_vessel_data", Long.class));
+    }
+
+    @Test
+    void whenImportingAMissingOrInvalidSnapshot_thenClientErrors() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/vessels/snapshots/missing/import"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/vessels/snapshots/..hidden/import"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void endpointLatencyIsPublishedPerEndpoint() throws Exception {
+
+        // Arrange
+        mockMvc.perform(get("/api/vessels/3001/invalid-reasons")).andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(get("/actuator/metrics/http.server.requests").param("tag", "uri:/api/vessels/{vesselCode}/invalid-reasons"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/hikaricp.connections.pending"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/vessel.requests.active").param("tag", "workload:ingest"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void ingestEndpointsTakeConnectionsFromTheIngestPool() throws Exception {
+
+        // Arrange
+        long ingestBefore = connectionsUsed("vessel-ingest");
+        long queryBefore = connectionsUsed("vessel-query");
+
+        // Act
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/vessels/summaries/rebuild"))
+                .andExpect(status().isOk());
+
+        // Assert
+        assertTrue(connectionsUsed("vessel-ingest") > ingestBefore);
+        assertEquals(queryBefore, connectionsUsed("vessel-query"));
+    }
+
     @Test
     void statisticsDataSuccess() throws Exception {
 
@@ -217,6 +424,28 @@ class VesselControllerIntegrationTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void problemsWithLimitReturnsTheLargestGroups() throws Exception {
+
+        // Arrange
+        JsonNode all = objectMapper.readTree(mockMvc.perform(get("/api/vessels/19310/problems").param("sizeThreshold", "0"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        // Act
+        JsonNode limited = objectMapper.readTree(mockMvc.perform(get("/api/vessels/19310/problems")
+                        .param("sizeThreshold", "0")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        // Assert
+        assertEquals(Math.min(2, all.size()), limited.size());
+        for (int i = 0; i < limited.size(); i++) {
+            assertEquals(all.get(i), limited.get(i));
+        }
+    }
+
     @Test
     void handleProblemsDataNotFoundException_ShouldReturnNotFound() throws Exception {
 
@@ -231,4 +460,9 @@ class VesselControllerIntegrationTest {
                 .andExpect(content().string(errorMessage));
     }
 
-}
\ No newline at end of file
+    // Connections returned to the pool so far
+    private long connectionsUsed(String pool) {
+
+        return meterRegistry.get("hikaricp.connections.usage").tag("pool", pool).timer().count();
+    }
+}
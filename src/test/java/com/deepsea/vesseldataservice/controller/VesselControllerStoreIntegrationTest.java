@@ -0,0 +1,9 @@
+package com.deepsea.vesseldataservice.controller;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Same tests with reads served by the in-memory store
+@TestPropertySource(properties = "vessel.store.enabled=true")
+class VesselControllerStoreIntegrationTest extends VesselControllerIntegrationTest {
+
+}
@@ -0,0 +1,179 @@
+package com.deepsea.vesseldataservice.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.deepsea.vesseldataservice.model.VesselDateTimeFormat;
+import com.deepsea.vesseldataservice.repository.InvalidVesselDataRepository;
+import com.deepsea.vesseldataservice.repository.ValidVesselDataRepository;
+import com.deepsea.vesseldataservice.service.CsvService;
+import com.deepsea.vesseldataservice.service.IngestionProgress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+// Imports a generated dataset and reports rows per second and p50/p99 per endpoint; run with mvn -P load test
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:vessel_load_db",
+        "vessel.access.log.sample.rate=0.01",
+        "logging.level.com.deepsea.vesseldataservice=WARN",
+        "logging.level.com.deepsea.vesseldataservice.load=INFO"
+})
+class LoadHarnessTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadHarnessTest.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CsvService csvService;
+
+    @Autowired
+    private ValidVesselDataRepository validVesselDataRepository;
+
+    @Autowired
+    private InvalidVesselDataRepository invalidVesselDataRepository;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void ingestAndQueryUnderLoad() throws Exception {
+
+        var settings = VesselDataGenerator.Settings.fromSystemProperties();
+        var clients = Integer.getInteger("load.clients", 16);
+        var requests = Integer.getInteger("load.requests", 5_000);
+
+        // Generate
+        var file = directory.resolve("vessel_data_load.csv");
+        var summary = VesselDataGenerator.write(settings, file);
+        logger.info("Generated {} rows, {} invalid, of {} vessels in {} MB", summary.rows(), summary.invalidRows(), settings.vessels(),
+                Files.size(file) >> 20);
+
+        // Ingest
+        var ingestStart = System.nanoTime();
+        try (var inputStream = Files.newInputStream(file)) {
+            csvService.importCsvStream(inputStream, Files.size(file), IngestionProgress.NONE);
+        }
+        var ingestSeconds = (System.nanoTime() - ingestStart) / 1e9;
+        assertEquals(summary.rows(), validVesselDataRepository.count() + invalidVesselDataRepository.count());
+
+        // Query
+        var latencies = query(settings, clients, requests);
+
+        var report = new StringBuilder();
+        report.append(String.format("%nIngest: %d rows in %.1f s, %.0f rows/s%n", summary.rows(), ingestSeconds, summary.rows() / ingestSeconds));
+        report.append(String.format("Queries: %d requests from %d clients%n", requests, clients));
+        report.append(String.format("%-28s %8s %10s %10s%n", "endpoint", "requests", "p50 ms", "p99 ms"));
+        latencies.forEach((endpoint, nanos) -> report.append(String.format("%-28s %8d %10.2f %10.2f%n", endpoint, nanos.length,
+                percentile(nanos, 0.50) / 1e6, percentile(nanos, 0.99) / 1e6)));
+        logger.info("{}", report);
+    }
+
+    private Map<String, long[]> query(VesselDataGenerator.Settings settings, int clients, int requests) throws InterruptedException {
+
+        var start = settings.start().getEpochSecond();
+        var span = settings.end().getEpochSecond() - start;
+        var allStart = VesselDateTimeFormat.format(settings.start());
+        var allEnd = VesselDateTimeFormat.format(settings.end());
+
+        Map<String, Function<SplittableRandom, String>> endpoints = new TreeMap<>();
+        endpoints.put("speed-differences", random -> "/api/vessels/" + vessel(settings, random) + "/speed-differences?page="
+                + random.nextInt(100) + "&size=20");
+        endpoints.put("speed-differences/scroll", random -> "/api/vessels/" + vessel(settings, random) + "/speed-differences/scroll?size=100");
+        endpoints.put("invalid-reasons", random -> "/api/vessels/" + vessel(settings, random) + "/invalid-reasons");
+        endpoints.put("compare-compliance", random -> "/api/vessels/compare-compliance?vesselCode1=" + vessel(settings, random)
+                + "&vesselCode2=" + vessel(settings, random));
+        endpoints.put("data", random -> {
+            var from = start + random.nextLong(Math.max(span - 3600, 1));
+            return "/api/vessels/" + vessel(settings, random) + "/data?startDate=" + encode(from) + "&endDate=" + encode(from + 3600);
+        });
+        endpoints.put("problems", random -> "/api/vessels/" + vessel(settings, random) + "/problems?limit=10");
+        endpoints.put("compliance-ranking", random -> "/api/vessels/compliance-ranking?startDate=" + encode(allStart) + "&endDate="
+                + encode(allEnd) + "&limit=10");
+
+        var names = new ArrayList<>(endpoints.keySet());
+        Map<String, ConcurrentLinkedQueue<Long>> recorded = new ConcurrentHashMap<>();
+        var failures = new AtomicLong();
+        var client = HttpClient.newHttpClient();
+
+        try (var executor = Executors.newFixedThreadPool(clients)) {
+            for (int i = 0; i < requests; i++) {
+                var random = new SplittableRandom(i);
+                var name = names.get(i % names.size());
+                var uri = URI.create("http://localhost:" + port + endpoints.get(name).apply(random));
+                executor.execute(() -> {
+                    var requestStart = System.nanoTime();
+                    try {
+                        var response = client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding());
+                        recorded.computeIfAbsent(name, key -> new ConcurrentLinkedQueue<>()).add(System.nanoTime() - requestStart);
+                        // Vessels without problems answer 404, anything from the server side is a failure
+                        if (response.statusCode() >= 500) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                });
+            }
+        }
+        assertEquals(0, failures.get());
+
+        Map<String, long[]> latencies = new TreeMap<>();
+        recorded.forEach((name, nanos) -> {
+            var sorted = nanos.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            latencies.put(name, sorted);
+        });
+        return latencies;
+    }
+
+    private static String vessel(VesselDataGenerator.Settings settings, SplittableRandom random) {
+
+        return String.valueOf(10_000 + random.nextInt(settings.vessels()));
+    }
+
+    private static String encode(long epochSecond) {
+
+        return encode(VesselDateTimeFormat.format(Instant.ofEpochSecond(epochSecond)));
+    }
+
+    private static String encode(String value) {
+
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+
+        return sorted[Math.max((int) Math.ceil(quantile * sorted.length) - 1, 0)];
+    }
+}
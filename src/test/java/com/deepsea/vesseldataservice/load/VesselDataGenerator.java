@@ -0,0 +1,196 @@
+package com.deepsea.vesseldataservice.load;
+
+import com.deepsea.vesseldataservice.model.VesselDateTimeFormat;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.SplittableRandom;
+
+// Synthetic vessel tracks in the production CSV format; the same settings and seed give the same file
+public final class VesselDataGenerator {
+
+    static final String HEADER = "\"vessel_code\",\"datetime\",\"latitude\",\"longitude\",\"power\",\"fuel_consumption\","
+            + "\"actual_speed_overground\",\"proposed_speed_overground\",\"predicted_fuel_consumption\"";
+
+    private static final int MAX_BURST = 20;
+    private static final String[] INVALID_KINDS = {"NULL", "NEGATIVE", "OUTLIER", "POSITION"};
+
+    // Vessels are coded from 10000 up; gaps skip some of the rowsPerVessel steps
+    public record Settings(int vessels, int rowsPerVessel, int intervalSeconds, double invalidRatio, double gapProbability,
+            int gapMinutes, long seed, Instant start) {
+
+        public static Settings fromSystemProperties() {
+
+            return new Settings(
+                    Integer.getInteger("load.vessels", 100),
+                    Integer.getInteger("load.rows.per.vessel", 20_000),
+                    Integer.getInteger("load.interval.seconds", 60),
+                    Double.parseDouble(System.getProperty("load.invalid.ratio", "0.05")),
+                    Double.parseDouble(System.getProperty("load.gap.probability", "0.001")),
+                    Integer.getInteger("load.gap.minutes", 180),
+                    Long.getLong("load.seed", 42),
+                    Instant.parse(System.getProperty("load.start", "2023-06-01T00:00:00Z")));
+        }
+
+        public Instant end() {
+
+            return start.plusSeconds((long) rowsPerVessel * intervalSeconds);
+        }
+    }
+
+    public record Summary(long rows, long invalidRows) {
+
+    }
+
+    // Moving state of one vessel
+    private static final class Track {
+
+        private final String vesselCode;
+        private double latitude;
+        private double longitude;
+        private double heading;
+        private double speed;
+        private int silentSteps;
+        private int burstLeft;
+        private String burstKind;
+
+        private Track(String vesselCode, SplittableRandom random) {
+
+            this.vesselCode = vesselCode;
+            this.latitude = random.nextDouble(-60, 60);
+            this.longitude = random.nextDouble(-179, 179);
+            this.heading = random.nextDouble(0, 2 * Math.PI);
+            this.speed = random.nextDouble(8, 14);
+        }
+    }
+
+    private VesselDataGenerator() {
+
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        var settings = Settings.fromSystemProperties();
+        var summary = write(settings, Path.of(args[0]));
+        System.out.printf("Wrote %d rows, %d invalid, of %d vessels to %s%n", summary.rows(), summary.invalidRows(), settings.vessels(),
+                args[0]);
+    }
+
+    public static Summary write(Settings settings, Path file) throws IOException {
+
+        try (var writer = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 20)) {
+            return write(settings, writer);
+        }
+    }
+
+    static Summary write(Settings settings, Writer writer) throws IOException {
+
+        var random = new SplittableRandom(settings.seed());
+        var tracks = new Track[settings.vessels()];
+        for (int i = 0; i < tracks.length; i++) {
+            tracks[i] = new Track(String.valueOf(10_000 + i), random);
+        }
+
+        var gapSteps = Math.max(1, settings.gapMinutes() * 60 / settings.intervalSeconds());
+        // Bursts average (1 + MAX_BURST) / 2 readings, so they start that much less often than the ratio
+        var burstProbability = settings.invalidRatio() * 2 / (1 + MAX_BURST);
+        var line = new StringBuilder(256);
+        var rows = 0L;
+        var invalidRows = 0L;
+
+        writer.write(HEADER);
+        writer.write('\n');
+
+        for (int step = 0; step < settings.rowsPerVessel(); step++) {
+            var epochSecond = settings.start().getEpochSecond() + (long) step * settings.intervalSeconds();
+            var datetime = VesselDateTimeFormat.format(Instant.ofEpochSecond(epochSecond));
+
+            for (Track track : tracks) {
+                move(track, settings.intervalSeconds(), random);
+                if (track.silentSteps > 0) {
+                    track.silentSteps--;
+                    continue;
+                }
+                if (random.nextDouble() < settings.gapProbability()) {
+                    track.silentSteps = gapSteps;
+                    continue;
+                }
+
+                if (track.burstLeft == 0 && random.nextDouble() < burstProbability) {
+                    track.burstLeft = random.nextInt(1, MAX_BURST + 1);
+                    track.burstKind = INVALID_KINDS[random.nextInt(INVALID_KINDS.length)];
+                }
+
+                line.setLength(0);
+                if (track.burstLeft > 0) {
+                    track.burstLeft--;
+                    invalidRows++;
+                    appendInvalid(line, track, datetime, random);
+                } else {
+                    appendValid(line, track, datetime, random);
+                }
+                line.append('\n');
+                writer.append(line);
+                rows++;
+            }
+        }
+        return new Summary(rows, invalidRows);
+    }
+
+    private static void move(Track track, int intervalSeconds, SplittableRandom random) {
+
+        track.heading += random.nextDouble(-0.05, 0.05);
+        track.speed = Math.clamp(track.speed + random.nextDouble(-0.3, 0.3), 4, 18);
+
+        // Knots to degrees, roughly, and bounced back from the polar regions
+        var degrees = track.speed * intervalSeconds / 3600 / 60;
+        track.latitude += degrees * Math.cos(track.heading);
+        if (Math.abs(track.latitude) > 75) {
+            track.heading = Math.PI - track.heading;
+            track.latitude = Math.clamp(track.latitude, -75, 75);
+        }
+        track.longitude += degrees * Math.sin(track.heading) / Math.cos(Math.toRadians(track.latitude));
+        if (track.longitude > 180) {
+            track.longitude -= 360;
+        } else if (track.longitude < -180) {
+            track.longitude += 360;
+        }
+    }
+
+    private static void appendValid(StringBuilder line, Track track, String datetime, SplittableRandom random) {
+
+        var proposedSpeed = Math.max(0.5, track.speed + random.nextDouble(-1.5, 1.5));
+        var power = 3.2 * track.speed * track.speed * track.speed + random.nextDouble(0, 200);
+        var fuelConsumption = power * 0.0034;
+        var predictedFuelConsumption = fuelConsumption * random.nextDouble(0.95, 1.05);
+
+        append(line, track.vesselCode, datetime, track.latitude, track.longitude, power, fuelConsumption, track.speed, proposedSpeed,
+                predictedFuelConsumption);
+    }
+
+    private static void appendInvalid(StringBuilder line, Track track, String datetime, SplittableRandom random) {
+
+        switch (track.burstKind) {
+            case "NULL" -> line.append('"').append(track.vesselCode).append("\",\"").append(datetime)
+                    .append("\",\"NULL\",\"NULL\",\"NULL\",\"NULL\",\"NULL\",\"NULL\",\"0\"");
+            case "NEGATIVE" -> append(line, track.vesselCode, datetime, track.latitude, track.longitude, -random.nextDouble(1, 500),
+                    0, track.speed, track.speed, 0);
+            case "OUTLIER" -> append(line, track.vesselCode, datetime, track.latitude, track.longitude, 5000, 17,
+                    random.nextDouble(20.5, 60), track.speed, 17);
+            default -> append(line, track.vesselCode, datetime, random.nextDouble(91, 200), track.longitude, 5000, 17, track.speed,
+                    track.speed, 17);
+        }
+    }
+
+    private static void append(StringBuilder line, String vesselCode, String datetime, double... values) {
+
+        line.append('"').append(vesselCode).append("\",\"").append(datetime).append('"');
+        for (double value : values) {
+            line.append(",\"").append(value).append('"');
+        }
+    }
+}
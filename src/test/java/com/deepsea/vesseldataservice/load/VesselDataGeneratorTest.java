@@ -0,0 +1,48 @@
+package com.deepsea.vesseldataservice.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class VesselDataGeneratorTest {
+
+    private static final VesselDataGenerator.Settings SETTINGS = new VesselDataGenerator.Settings(5, 2_000, 60, 0.1, 0.002, 120, 7,
+            Instant.parse("2023-06-01T00:00:00Z"));
+
+    @Test
+    void testSameSettingsWriteTheSameFile() throws IOException {
+        // Arrange
+        StringWriter first = new StringWriter();
+        StringWriter second = new StringWriter();
+
+        // Act
+        VesselDataGenerator.write(SETTINGS, first);
+        VesselDataGenerator.write(SETTINGS, second);
+
+        // Assert
+        assertEquals(first.toString(), second.toString());
+    }
+
+    @Test
+    void testRowsFollowTheSettings() throws IOException {
+        // Arrange
+        StringWriter writer = new StringWriter();
+
+        // Act
+        VesselDataGenerator.Summary summary = VesselDataGenerator.write(SETTINGS, writer);
+
+        // Assert
+        List<String> lines = writer.toString().lines().toList();
+        assertEquals(VesselDataGenerator.HEADER, lines.getFirst());
+        assertEquals(summary.rows(), lines.size() - 1);
+        assertTrue(lines.stream().skip(1).allMatch(line -> line.split(",").length == 9));
+        // Gaps leave some steps out, and about a tenth of the readings are invalid
+        assertTrue(summary.rows() < 5 * 2_000);
+        assertTrue(summary.invalidRows() > summary.rows() * 0.05 && summary.invalidRows() < summary.rows() * 0.15);
+    }
+}
@@ -0,0 +1,33 @@
+package com.deepsea.vesseldataservice.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class GeoGridTest {
+
+    @Test
+    void testCellsAreNumberedRowByRowFromTheSouthWest() {
+
+        assertEquals(0, GeoGrid.cell(-90, -180));
+        assertEquals(1, GeoGrid.cell(-90, -179.85));
+        assertEquals(GeoGrid.COLUMNS, GeoGrid.cell(-89.85, -180));
+        assertEquals(GeoGrid.cellAt(GeoGrid.row(44.85), GeoGrid.column(-51.49)), GeoGrid.cell(44.85, -51.49));
+        assertEquals(GeoGrid.cellAt(1349, 1285), GeoGrid.cell(44.95, -51.45));
+    }
+
+    @Test
+    void testBoundsAndOutOfRangePositionsAreClamped() {
+
+        assertEquals((long) GeoGrid.ROWS * GeoGrid.COLUMNS - 1, GeoGrid.cell(90, 180));
+        assertEquals(0, GeoGrid.cell(-100, -200));
+    }
+
+    @Test
+    void testDistanceKm() {
+
+        assertEquals(0, GeoGrid.distanceKm(44.8, -51.4, 44.8, -51.4), 1e-9);
+        assertEquals(111.195, GeoGrid.distanceKm(0, 0, 1, 0), 1e-3);
+        assertEquals(111.195, GeoGrid.distanceKm(0, 179.5, 0, -179.5), 1e-3); // Across the antimeridian
+    }
+}
@@ -0,0 +1,170 @@
+package com.deepsea.vesseldataservice.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.deepsea.vesseldataservice.model.GeoGrid;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class VesselDataIndexPlanTest {
+
+    private static final Instant START = Instant.parse("2023-10-06T00:00:00Z");
+    private static final Instant END = Instant.parse("2023-12-06T02:04:00Z");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ValidVesselDataRepository validVesselDataRepository;
+
+    @Autowired
+    private ValidVesselDataCursorRepository validVesselDataCursorRepository;
+
+    @Autowired
+    private InvalidVesselDataCursorRepository invalidVesselDataCursorRepository;
+
+    @Autowired
+    private VesselInvalidReasonCountRepository vesselInvalidReasonCountRepository;
+
+    @Test
+    void findValidByVesselCodeUsesVesselCodeDatetimeIndex() {
+
+        String plan = planOf(() -> validVesselDataRepository.findByVesselCodeOrderByDatetimeAsc("3001"), "3001");
+
+        assertThat(plan).containsIgnoringCase("idx_valid_vessel_data_vessel_code_datetime");
+    }
+
+    @Test
+    void findValidByVesselCodeAndPositionUsesVesselCodeDatetimeIndex() {
+
+        String plan = planOf(() -> validVesselDataRepository.findByVesselCodeAndLatitudeAndLongitudeOrderByDatetimeAsc("3001", 45.0, -51.4),
+                "3001", 45.0, -51.4);
+
+        assertThat(plan).containsIgnoringCase("idx_valid_vessel_data_vessel_code_datetime");
+    }
+
+    @Test
+    void firstSpeedDifferencesPageUsesVesselCodeDatetimeIndex() {
+
+        String plan = planOf(() -> validVesselDataRepository.findByVesselCodeOrderByDatetimeAscIdAsc("3001", Limit.of(21)), "3001", 21);
+
+        assertThat(plan).containsIgnoringCase("idx_valid_vessel_data_vessel_code_datetime");
+    }
+
+    @Test
+    void speedDifferencesSeekUsesVesselCodeDatetimeIndexForTheRange() {
+
+        String plan = planOf(() -> validVesselDataRepository.findByVesselCodeAfter("3001", START, 5, Limit.of(21)),
+                "3001", START, START, 5, 21);
+
+        assertThat(plan).containsIgnoringCase("idx_valid_vessel_data_vessel_code_datetime");
+        assertThat(plan).containsIgnoringCase("datetime >=");
+    }
+
+    @Test
+    void existsByDateRangeUsesVesselCodeDatetimeIndexForTheRange() {
+
+        String plan = planOf(() -> validVesselDataRepository.existsByVesselCodeAndDatetimeBetween("3001", START, END), "3001", START, END);
+
+        assertThat(plan).containsIgnoringCase("idx_valid_vessel_data_vessel_code_datetime");
+        assertThat(plan).containsIgnoringCase("datetime >=");
+    }
+
+    @Test
+    void streamValidByDateRangeUsesVesselCodeDatetimeIndexForTheRange() {
+
+        String plan = planOf(() -> validVesselDataCursorRepository.streamByVesselCodeAndDateRange("3001", START, END, data -> {
+        }), "3001", START, END);
+
+        assertThat(plan).containsIgnoringCase("idx_valid_vessel_data_vessel_code_datetime");
+        assertThat(plan).containsIgnoringCase("datetime >=");
+    }
+
+    @Test
+    void fleetAreaLookupUsesGeoCellIndex() {
+
+        String plan = planOf(() -> validVesselDataCursorRepository.findInArea(null, 44.9, 45.1, -51.5, -51.3, data -> true, 10),
+                4857000, 4857001, 4860600, 4860601, 44.9, 45.1, -51.5, -51.3);
+
+        assertThat(plan).containsIgnoringCase("idx_valid_vessel_data_geo_cell_vessel_code");
+        assertThat(plan).containsIgnoringCase("geo_cell in");
+    }
+
+    @Test
+    void vesselAreaLookupSeeksOnTheVessel() {
+
+        String plan = planOf(() -> validVesselDataCursorRepository.findInArea("3001", 44.9, 45.0, -51.5, -51.3, data -> true, 10),
+                "3001", 4857000, 4857001, 4860600, 4860601, 44.9, 45.0, -51.5, -51.3);
+
+        assertThat(plan).containsIgnoringCase("idx_valid_vessel_data_vessel_code_datetime");
+        assertThat(plan).containsIgnoringCase("vessel_code = ?1");
+    }
+
+    @Test
+    void largeFleetAreaLookupUsesGeoCellIndexForTheBand() {
+
+        String plan = planOf(() -> validVesselDataCursorRepository.findInArea(null, 40, 50, -60, -40, data -> true, 10),
+                GeoGrid.cellAt(GeoGrid.row(40), GeoGrid.column(-60)), GeoGrid.cellAt(GeoGrid.row(50), GeoGrid.column(-40)), 40, 50, -60, -40);
+
+        assertThat(plan).containsIgnoringCase("idx_valid_vessel_data_geo_cell_vessel_code");
+        assertThat(plan).containsIgnoringCase("geo_cell >=");
+    }
+
+    @Test
+    void fleetComplianceTotalsUseDatetimeCoveringIndex() {
+
+        String plan = planOf(() -> validVesselDataCursorRepository.streamComplianceTotals(START, END, (vesselCode, sum, count) -> {
+        }), START, END);
+
+        assertThat(plan).containsIgnoringCase("idx_valid_vessel_data_datetime_compliance");
+    }
+
+    @Test
+    void invalidDatetimesByVesselCodeUseVesselCodeDatetimeIndex() {
+
+        String plan = planOf(() -> invalidVesselDataCursorRepository.streamEpochSeconds("19310", null, epochSecond -> {
+        }), "19310");
+
+        assertThat(plan).containsIgnoringCase("idx_invalid_vessel_data_vessel_code_datetime");
+    }
+
+    @Test
+    void invalidDatetimesByVesselCodeAndReasonUseReasonIndex() {
+
+        String plan = planOf(() -> invalidVesselDataCursorRepository.streamEpochSeconds("19310", "Number format exception", epochSecond -> {
+        }), "19310", "Number format exception");
+
+        assertThat(plan).containsIgnoringCase("idx_invalid_vessel_data_vessel_code_reason_datetime");
+    }
+
+    @Test
+    void invalidReasonCountsUseVesselCodeIndex() {
+
+        String plan = planOf(() -> vesselInvalidReasonCountRepository.findByVesselCodeOrderByRowCountDesc("19310"), "19310");
+
+        assertThat(plan).containsIgnoringCase("idx_vessel_invalid_reason_count_vessel_code");
+    }
+
+    // Runs the repository call with H2 query statistics on and explains the one statement it sent, bound to the given arguments
+    private String planOf(Runnable query, Object... arguments) {
+
+        jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+        try {
+            query.run();
+            List<String> statements = jdbcTemplate.queryForList("SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS "
+                    + "WHERE SQL_STATEMENT NOT LIKE '%INFORMATION_SCHEMA%'", String.class);
+            assertThat(statements).hasSize(1);
+            return jdbcTemplate.queryForObject("EXPLAIN " + statements.get(0), String.class, arguments);
+        } finally {
+            jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        }
+    }
+}
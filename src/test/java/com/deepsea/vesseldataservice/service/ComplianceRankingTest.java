@@ -0,0 +1,49 @@
+package com.deepsea.vesseldataservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.deepsea.vesseldataservice.response.ComplianceRankingResponse;
+import com.deepsea.vesseldataservice.response.VesselComplianceResponse;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ComplianceRankingTest {
+
+    @Test
+    void testKeepsTheMostAndLeastCompliantVessels() {
+        // Arrange
+        ComplianceRanking ranking = new ComplianceRanking(2);
+
+        // Act
+        ranking.accept("A", 150, 2);    // 75
+        ranking.accept("B", 90, 1);     // 90
+        ranking.accept("C", 200, 4);    // 50
+        ranking.accept("D", 240, 3);    // 80
+        ranking.accept("E", 0, 0);      // No readings, not ranked
+
+        // Assert
+        assertEquals(new ComplianceRankingResponse(4,
+                List.of(compliance("B", 90, 1), compliance("D", 80, 3)),
+                List.of(compliance("C", 50, 4), compliance("A", 75, 2))), ranking.result());
+    }
+
+    @Test
+    void testEqualCompliancesRankByVesselCode() {
+        // Arrange
+        ComplianceRanking ranking = new ComplianceRanking(1);
+
+        // Act
+        ranking.accept("C", 60, 1);
+        ranking.accept("A", 60, 1);
+        ranking.accept("B", 60, 1);
+
+        // Assert
+        assertEquals(List.of(compliance("A", 60, 1)), ranking.result().getTop());
+        assertEquals(List.of(compliance("A", 60, 1)), ranking.result().getBottom());
+    }
+
+    private VesselComplianceResponse compliance(String vesselCode, double compliancePercentage, long readingCount) {
+
+        return new VesselComplianceResponse(vesselCode, compliancePercentage, readingCount);
+    }
+}
@@ -0,0 +1,89 @@
+package com.deepsea.vesseldataservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CsvFileSplitterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSplitAlignsRangesToLineBoundaries() throws IOException {
+        // Arrange
+        Path csv = Paths.get("src/test/resources/vessel_data_min.csv");
+        byte[] content = Files.readAllBytes(csv);
+
+        try (FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ)) {
+            // Act
+            List<CsvFileSplitter.Range> ranges = CsvFileSplitter.split(channel, 1000);
+
+            // Assert
+            assertEquals(0, ranges.getFirst().start());
+            assertEquals(content.length, ranges.getLast().end());
+            for (int i = 1; i < ranges.size(); i++) {
+                assertEquals(ranges.get(i - 1).end(), ranges.get(i).start());
+                assertEquals('\n', content[(int) ranges.get(i).start() - 1]); // Every range starts right after a line break
+            }
+        }
+    }
+
+    @Test
+    void testSplitWithRangeSizeLargerThanFile() throws IOException {
+        // Arrange
+        Path csv = tempDir.resolve("small.csv");
+        Files.writeString(csv, "a,b\nc,d\n", StandardCharsets.UTF_8);
+
+        try (FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ)) {
+            // Act
+            List<CsvFileSplitter.Range> ranges = CsvFileSplitter.split(channel, 1024);
+
+            // Assert
+            assertEquals(List.of(new CsvFileSplitter.Range(0, 8)), ranges);
+        }
+    }
+
+    @Test
+    void testSplitWithLongLineKeepsLineInOneRange() throws IOException {
+        // Arrange
+        Path csv = tempDir.resolve("long-line.csv");
+        Files.writeString(csv, "0123456789abcdef\nxy\n", StandardCharsets.UTF_8);
+
+        try (FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ)) {
+            // Act
+            List<CsvFileSplitter.Range> ranges = CsvFileSplitter.split(channel, 4);
+
+            // Assert
+            assertEquals(List.of(new CsvFileSplitter.Range(0, 17), new CsvFileSplitter.Range(17, 20)), ranges);
+        }
+    }
+
+    @Test
+    void testSplitKeepsLastLineWithoutLineBreakInItsOwnRange() throws IOException {
+        // Arrange
+        Path csv = tempDir.resolve("unterminated.csv");
+        Files.writeString(csv, "a,b\nc,d\ne,f", StandardCharsets.UTF_8);
+
+        try (FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ)) {
+            // Act
+            List<CsvFileSplitter.Range> ranges = CsvFileSplitter.split(channel, 2);
+            List<CsvFileSplitter.Range> resumed = CsvFileSplitter.split(channel, 8, 2);
+            long lastLineEnd = CsvFileSplitter.lastLineEnd(channel, 0);
+
+            // Assert
+            assertEquals(List.of(new CsvFileSplitter.Range(0, 4), new CsvFileSplitter.Range(4, 8), new CsvFileSplitter.Range(8, 11)), ranges);
+            assertEquals(List.of(new CsvFileSplitter.Range(8, 11)), resumed);
+            assertEquals(8, lastLineEnd);
+        }
+    }
+}
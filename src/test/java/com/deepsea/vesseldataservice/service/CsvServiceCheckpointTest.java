@@ -0,0 +1,78 @@
+package com.deepsea.vesseldataservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.deepsea.vesseldataservice.repository.IngestionCheckpointRepository;
+import com.deepsea.vesseldataservice.repository.InvalidVesselDataRepository;
+import com.deepsea.vesseldataservice.repository.ValidVesselDataRepository;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CsvServiceCheckpointTest {
+
+    @Autowired
+    private CsvService csvService;
+
+    @Autowired
+    private ValidVesselDataRepository validVesselDataRepository;
+
+    @Autowired
+    private InvalidVesselDataRepository invalidVesselDataRepository;
+
+    @Autowired
+    private IngestionCheckpointRepository ingestionCheckpointRepository;
+
+    @Autowired
+    private IngestionCheckpointService ingestionCheckpointService;
+
+    @Test
+    void testImportResumesFromCheckpointAndReplayIsIdempotent() throws Exception {
+        // Arrange
+        byte[] content = Files.readAllBytes(Paths.get("src/test/resources/vessel_data_min.csv"));
+        int lastLineEnd = new String(content, StandardCharsets.ISO_8859_1).lastIndexOf('\n') + 1; // The file has no trailing line break
+        csvService.resetCheckpoint();
+        csvService.importCsvFile(IngestionProgress.NONE);
+        long validCount = validVesselDataRepository.count();
+        long invalidCount = invalidVesselDataRepository.count();
+        IngestionJob resumed = new IngestionJob();
+
+        // Act
+        csvService.importCsvFile(resumed);
+        csvService.resetCheckpoint();
+        csvService.importCsvFile(IngestionProgress.NONE);
+
+        // Assert
+        assertEquals(content.length - lastLineEnd, resumed.getBytesRead().get()); // Only the unterminated last line is read again
+        assertTrue(validVesselDataRepository.existsByVesselCodeAndDatetimeBetween("3001",
+                Instant.parse("2023-10-06T07:49:00Z"), Instant.parse("2023-10-06T07:49:00Z")));
+        assertEquals(validCount, validVesselDataRepository.count());
+        assertEquals(invalidCount, invalidVesselDataRepository.count());
+        assertEquals(lastLineEnd, ingestionCheckpointRepository.findById(csvService.csvFileResource.getDescription()).orElseThrow().getByteOffset());
+    }
+
+    @Test
+    void testReplacedSourceIsImportedFromTheStart() {
+        // Arrange
+        byte[] original = "vessel_code,datetime\n3001,2023-06-01 00:00:00\n".getBytes(StandardCharsets.UTF_8);
+        byte[] appended = "vessel_code,datetime\n3001,2023-06-01 00:00:00\n3001,2023-06-01 00:01:00\n".getBytes(StandardCharsets.UTF_8);
+        byte[] replaced = "vessel_code,datetime\n19310,2023-06-01 00:00:00\n19310,2023-06-01 00:01:00\n".getBytes(StandardCharsets.UTF_8);
+        ingestionCheckpointService.commit("replaced-source", original.length, original);
+
+        // Act
+        long appendedOffset = ingestionCheckpointService.resumeOffset("replaced-source", appended.length, appended);
+        long replacedOffset = ingestionCheckpointService.resumeOffset("replaced-source", replaced.length, replaced);
+
+        // Assert
+        assertEquals(original.length, appendedOffset);
+        assertEquals(0, replacedOffset);
+    }
+}
@@ -9,30 +9,29 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
-import org.mockito.MockitoAnnotations;
 
 class CsvServiceTest {
 
-    @InjectMocks
     private CsvService csvService;
 
     @BeforeEach
     void setUp() {
 
-        MockitoAnnotations.openMocks(this);
+        csvService = new CsvService(null, null, List.of(), null, VesselDataValidator.defaults());
     }
 
     @Test
     void testGetInvalidReasonWithValidData() {
         // Arrange
-        ValidVesselData validData = new ValidVesselData("3001", "2023-10-06 01:06:00",
+        VesselCsvRow row = VesselCsvRow.of("3001", "2023-10-06 01:06:00",
                 "44.8565368652344", "-51.4986343383789", "4947.18", "16.6132", "8.95998", "10.0698497759178", "16.4471915433183");
 
         // Act
-        String result = csvService.getInvalidReason(validData);
+        String result = csvService.getInvalidReason(row);
 
         // Assert
         assertNull(result);
@@ -41,11 +40,11 @@ class CsvServiceTest {
     @Test
     void testGetInvalidReasonWithInvalidLatitude() {
         // Arrange
-        ValidVesselData validData = new ValidVesselData("3001", "2023-10-06 01:06:00",
+        VesselCsvRow row = VesselCsvRow.of("3001", "2023-10-06 01:06:00",
                 "100.0", "-51.4986343383789", "4947.18", "16.6132", "8.95998", "10.0698497759178", "16.4471915433183");
 
         // Act
-        String result = csvService.getInvalidReason(validData);
+        String result = csvService.getInvalidReason(row);
 
         // Assert
         assertEquals("Invalid latitude or longitude", result);
@@ -54,11 +53,11 @@ class CsvServiceTest {
     @Test
     void testGetInvalidReasonWithInvalidLongitude() {
         // Arrange
-        ValidVesselData validData = new ValidVesselData("3001", "2023-10-06 01:06:00",
+        VesselCsvRow row = VesselCsvRow.of("3001", "2023-10-06 01:06:00",
                 "44.8565368652344", "-200.0", "4947.18", "16.6132", "8.95998", "10.0698497759178", "16.4471915433183");
 
         // Act
-        String result = csvService.getInvalidReason(validData);
+        String result = csvService.getInvalidReason(row);
 
         // Assert
         assertEquals("Invalid latitude or longitude", result);
@@ -67,11 +66,11 @@ class CsvServiceTest {
     @Test
     void testGetInvalidReasonWithNegativeValues() {
         // Arrange
-        ValidVesselData validData = new ValidVesselData("3001", "2023-10-06 01:06:00",
+        VesselCsvRow row = VesselCsvRow.of("3001", "2023-10-06 01:06:00",
                 "44.8565368652344", "-51.4986343383789", "-4947.18", "16.6132", "8.95998", "10.0698497759178", "16.4471915433183");
 
         // Act
-        String result = csvService.getInvalidReason(validData);
+        String result = csvService.getInvalidReason(row);
 
         // Assert
         assertEquals("Negative values", result);
@@ -80,11 +79,11 @@ class CsvServiceTest {
     @Test
     void testGetInvalidReasonWithOutliers() {
         // Arrange
-        ValidVesselData validData = new ValidVesselData("3001", "2023-10-06 01:06:00",
+        VesselCsvRow row = VesselCsvRow.of("3001", "2023-10-06 01:06:00",
                 "44.8565368652344", "-51.4986343383789", "4947.18", "16.6132", "8.95998", "20.0698497759178", "30.0");
 
         // Act
-        String result = csvService.getInvalidReason(validData);
+        String result = csvService.getInvalidReason(row);
 
         // Assert
         assertEquals("Outliers", result);
@@ -93,11 +92,11 @@ class CsvServiceTest {
     @Test
     void testGetInvalidReasonWithNumberFormatException_NullValues() {
         // Arrange
-        ValidVesselData validData = new ValidVesselData("19310", "null",
+        VesselCsvRow row = VesselCsvRow.of("19310", "null",
                 "null", "null", "null", "null", "null", "null", "0");
 
         // Act
-        String result = csvService.getInvalidReason(validData);
+        String result = csvService.getInvalidReason(row);
 
         // Assert
         assertEquals("Number format exception", result);
@@ -106,11 +105,11 @@ class CsvServiceTest {
     @Test
     void testGetInvalidReasonWithNumberFormatException_NotNumber() {
         // Arrange
-        ValidVesselData validData = new ValidVesselData("3001", "2023-10-06 01:06:00",
+        VesselCsvRow row = VesselCsvRow.of("3001", "2023-10-06 01:06:00",
                 "44.8565368652344", "-51.4986343383789", "invalidPower", "16.6132", "8.95998", "10.0698497759178", "16.4471915433183");
 
         // Act
-        String result = csvService.getInvalidReason(validData);
+        String result = csvService.getInvalidReason(row);
 
         // Assert
         assertEquals("Number format exception", result);
@@ -119,8 +118,8 @@ class CsvServiceTest {
     @Test
     void testCalculateNewMetricsWithValidData() {
         // Arrange
-        ValidVesselData validData = new ValidVesselData("3001", "2023-10-06 01:06:00",
-                "44.8565368652344", "-51.4986343383789", "4947.18", "16.6132", "8.95998", "10.0698497759178", "16.4471915433183");
+        ValidVesselData validData = new ValidVesselData("3001", Instant.parse("2023-10-06T01:06:00Z"),
+                44.8565368652344, -51.4986343383789, 4947.18, 16.6132, 8.95998, 10.0698497759178, 16.4471915433183);
 
         // Act
         csvService.calculateNewMetrics(validData);
@@ -133,8 +132,8 @@ class CsvServiceTest {
     @Test
     void testCalculateNewMetricsWithZeroProposedSpeed() {
         // Arrange
-        ValidVesselData validData = new ValidVesselData("3001", "2023-10-06 01:06:00",
-                "44.8565368652344", "-51.4986343383789", "4947.18", "16.6132", "8.95998", "0.0", "16.4471915433183");
+        ValidVesselData validData = new ValidVesselData("3001", Instant.parse("2023-10-06T01:06:00Z"),
+                44.8565368652344, -51.4986343383789, 4947.18, 16.6132, 8.95998, 0.0, 16.4471915433183);
 
         // Act
         csvService.calculateNewMetrics(validData);
@@ -147,8 +146,8 @@ class CsvServiceTest {
     @Test
     void testCalculateNewMetricsWithNegativeActualSpeed() {
         // Arrange
-        ValidVesselData validData = new ValidVesselData("3001", "2023-10-06 01:06:00",
-                "44.8565368652344", "-51.4986343383789", "4947.18", "16.6132", "-8.95998", "10.0698497759178", "16.4471915433183");
+        ValidVesselData validData = new ValidVesselData("3001", Instant.parse("2023-10-06T01:06:00Z"),
+                44.8565368652344, -51.4986343383789, 4947.18, 16.6132, -8.95998, 10.0698497759178, 16.4471915433183);
 
         // Act
         csvService.calculateNewMetrics(validData);
@@ -161,8 +160,8 @@ class CsvServiceTest {
     @Test
     void testCalculateCompliancePercentageWithValidData() {
         // Arrange
-        ValidVesselData validData = new ValidVesselData("3001", "2023-10-06 01:06:00",
-                "44.8565368652344", "-51.4986343383789", "4947.18", "16.6132", "8.95998", "10.0698497759178", "16.4471915433183");
+        ValidVesselData validData = new ValidVesselData("3001", Instant.parse("2023-10-06T01:06:00Z"),
+                44.8565368652344, -51.4986343383789, 4947.18, 16.6132, 8.95998, 10.0698497759178, 16.4471915433183);
         validData.setSpeedDifference(-1.109869775917801); // Set speed difference for testing
 
         // Act
@@ -175,8 +174,8 @@ class CsvServiceTest {
     @Test
     void testCalculateCompliancePercentageWithZeroProposedSpeed() {
         // Arrange
-        ValidVesselData validData = new ValidVesselData("3001", "2023-10-06 01:06:00",
-                "44.8565368652344", "-51.4986343383789", "4947.18", "16.6132", "8.95998", "0.0", "16.4471915433183");
+        ValidVesselData validData = new ValidVesselData("3001", Instant.parse("2023-10-06T01:06:00Z"),
+                44.8565368652344, -51.4986343383789, 4947.18, 16.6132, 8.95998, 0.0, 16.4471915433183);
 
         // Act
         double compliance = csvService.calculateCompliancePercentage(validData);
@@ -188,8 +187,8 @@ class CsvServiceTest {
     @Test
     void testCalculateCompliancePercentageWithExactCompliance() {
         // Arrange
-        ValidVesselData validData = new ValidVesselData("3001", "2023-10-06 01:06:00",
-                "44.8565368652344", "-51.4986343383789", "4947.18", "16.6132", "8.95998", "8.95998", "16.4471915433183");
+        ValidVesselData validData = new ValidVesselData("3001", Instant.parse("2023-10-06T01:06:00Z"),
+                44.8565368652344, -51.4986343383789, 4947.18, 16.6132, 8.95998, 8.95998, 16.4471915433183);
         validData.setSpeedDifference(0.0); // Set speed difference to 0
 
         // Act
@@ -200,59 +199,59 @@ class CsvServiceTest {
     }
 
     @Test
-    void testParseLineToValidVesselDataWithValidInput() throws IOException {
+    void testParseLineWithValidInput() throws IOException {
         // Arrange
         String line = readLineFromCsv(1); // Read the first line
 
         line = line.replace("\"", ""); // Remove all double quotes from strings
         // Act
-        ValidVesselData result = csvService.parseLineToValidVesselData(line);
+        VesselCsvRow result = csvService.parseLine(line);
 
         // Assert
         assertNotNull(result);
-        assertEquals("3001", result.getVesselCode());
-        assertEquals("2023-06-01 00:00:00", result.getDatetime());
-        assertEquals("10.2894458770752", result.getLatitude());
-        assertEquals("-14.788875579834", result.getLongitude());
-        assertEquals("0", result.getPower());
-        assertEquals("0", result.getFuelConsumption());
-        assertEquals("0.039996", result.getActualSpeedOverground());
-        assertEquals("-0.189904262498021", result.getProposedSpeedOverground());
-        assertEquals("0", result.getPredictedFuelConsumption());
+        assertEquals("3001", result.vesselCode());
+        assertEquals(Instant.parse("2023-06-01T00:00:00Z"), result.datetime());
+        assertEquals(10.2894458770752, result.value(VesselCsvRow.LATITUDE));
+        assertEquals(-14.788875579834, result.value(VesselCsvRow.LONGITUDE));
+        assertEquals(0.0, result.value(VesselCsvRow.POWER));
+        assertEquals(0.0, result.value(VesselCsvRow.FUEL_CONSUMPTION));
+        assertEquals(0.039996, result.value(VesselCsvRow.ACTUAL_SPEED_OVERGROUND));
+        assertEquals(-0.189904262498021, result.value(VesselCsvRow.PROPOSED_SPEED_OVERGROUND));
+        assertEquals(0.0, result.value(VesselCsvRow.PREDICTED_FUEL_CONSUMPTION));
     }
 
     @Test
-    void testParseLineToValidVesselDataWithNullValues() throws IOException {
+    void testParseLineWithNullValues() throws IOException {
         // Arrange
         String line = readLineFromCsv(2); // Read the second line
 
         line = line.replace("\"", ""); // Remove all double quotes from strings
 
         // Act
-        ValidVesselData result = csvService.parseLineToValidVesselData(line);
+        VesselCsvRow result = csvService.parseLine(line);
 
         // Assert
         assertNotNull(result);
-        assertEquals("19310", result.getVesselCode());
-        assertEquals("2023-06-01 00:07:00", result.getDatetime());
-        assertEquals("NULL", result.getLatitude());
-        assertEquals("NULL", result.getLongitude());
-        assertEquals("NULL", result.getPower());
-        assertEquals("NULL", result.getFuelConsumption());
-        assertEquals("NULL", result.getActualSpeedOverground());
-        assertEquals("NULL", result.getProposedSpeedOverground());
-        assertEquals("0", result.getPredictedFuelConsumption());
+        assertEquals("19310", result.vesselCode());
+        assertEquals(Instant.parse("2023-06-01T00:07:00Z"), result.datetime());
+        assertNull(result.number(VesselCsvRow.LATITUDE));
+        assertNull(result.number(VesselCsvRow.LONGITUDE));
+        assertNull(result.number(VesselCsvRow.POWER));
+        assertNull(result.number(VesselCsvRow.FUEL_CONSUMPTION));
+        assertNull(result.number(VesselCsvRow.ACTUAL_SPEED_OVERGROUND));
+        assertNull(result.number(VesselCsvRow.PROPOSED_SPEED_OVERGROUND));
+        assertEquals(0.0, result.number(VesselCsvRow.PREDICTED_FUEL_CONSUMPTION));
     }
 
     @Test
-    void testParseLineToValidVesselDataWithInvalidInput() throws IOException {
+    void testParseLineWithInvalidInput() throws IOException {
         // Arrange
         String line = readLineFromCsv(3); // Only 3 fields
 
         line = line.replace("\"", ""); // Remove all double quotes from strings
 
         // Act
-        ValidVesselData result = csvService.parseLineToValidVesselData(line);
+        VesselCsvRow result = csvService.parseLine(line);
 
         // Assert
         assertNull(result); // Should return null due to wrong number of fields
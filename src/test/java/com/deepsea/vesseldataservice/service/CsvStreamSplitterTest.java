@@ -0,0 +1,61 @@
+package com.deepsea.vesseldataservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CsvStreamSplitterTest {
+
+    @Test
+    void testNextCutsBlocksAtLineBoundariesAndKeepsEveryByte() throws IOException {
+        // Arrange
+        byte[] content = Files.readAllBytes(Paths.get("src/test/resources/vessel_data_min.csv"));
+        CsvStreamSplitter splitter = new CsvStreamSplitter(new ByteArrayInputStream(content), 1000);
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+
+        // Act
+        List<ByteBuffer> blocks = readAll(splitter);
+
+        // Assert
+        for (ByteBuffer block : blocks.subList(0, blocks.size() - 1)) {
+            assertEquals('\n', block.get(block.limit() - 1)); // Every block but the last ends with a line break
+        }
+        blocks.forEach(block -> joined.write(block.array(), 0, block.limit()));
+        assertEquals(new String(content, StandardCharsets.UTF_8), joined.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testNextWithLongLineKeepsLineInOneBlock() throws IOException {
+        // Arrange
+        byte[] content = "0123456789abcdef\nxy".getBytes(StandardCharsets.UTF_8);
+        CsvStreamSplitter splitter = new CsvStreamSplitter(new ByteArrayInputStream(content), 4);
+
+        // Act
+        List<ByteBuffer> blocks = readAll(splitter);
+
+        // Assert
+        assertEquals(List.of("0123456789abcdef\nxy"), blocks.stream()
+                .map(block -> new String(block.array(), 0, block.limit(), StandardCharsets.UTF_8))
+                .toList());
+    }
+
+    private List<ByteBuffer> readAll(CsvStreamSplitter splitter) throws IOException {
+
+        List<ByteBuffer> blocks = new ArrayList<>();
+        for (ByteBuffer block = splitter.next(); block != null; block = splitter.next()) {
+            blocks.add(block);
+        }
+        assertNull(splitter.next());
+        return blocks;
+    }
+}
@@ -0,0 +1,177 @@
+package com.deepsea.vesseldataservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.deepsea.vesseldataservice.exception.DataNotFoundException;
+import com.deepsea.vesseldataservice.exception.JobRejectedException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class IngestionJobServiceTest {
+
+    private static final Duration UPLOAD_ACQUIRE_TIMEOUT = Duration.ofMillis(100);
+
+    @Mock
+    private CsvService csvService;
+
+    private IngestionJobService ingestionJobService;
+
+    @AfterEach
+    void tearDown() {
+
+        ingestionJobService.shutdown();
+    }
+
+    @Test
+    void testSubmittedJobReportsProgressAndCompletes() throws Exception {
+        // Arrange
+        ingestionJobService = new IngestionJobService(csvService, 1, 10, 100, UPLOAD_ACQUIRE_TIMEOUT);
+        doAnswer(invocation -> {
+            IngestionProgress progress = invocation.getArgument(0);
+            progress.started(1000);
+            progress.rangeProcessed(1000, 440, 404, 36);
+            return null;
+        }).when(csvService).importCsvFile(any());
+
+        // Act
+        IngestionJob job = ingestionJobService.submit(false);
+        awaitStatus(job, IngestionJob.Status.COMPLETED);
+
+        // Assert
+        assertEquals(440, job.getRowsRead().get());
+        assertEquals(404, job.getValidRows().get());
+        assertEquals(36, job.getInvalidRows().get());
+        assertEquals(job, ingestionJobService.getJob(job.getId()));
+    }
+
+    @Test
+    void testRunningJobCanBeCancelled() throws Exception {
+        // Arrange
+        ingestionJobService = new IngestionJobService(csvService, 1, 10, 100, UPLOAD_ACQUIRE_TIMEOUT);
+        CountDownLatch started = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            IngestionProgress progress = invocation.getArgument(0);
+            started.countDown();
+            while (!progress.isCancelled()) {
+                Thread.sleep(5);
+            }
+            throw new CancellationException("CSV processing was cancelled");
+        }).when(csvService).importCsvFile(any());
+
+        // Act
+        IngestionJob job = ingestionJobService.submit(false);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        ingestionJobService.cancel(job.getId());
+
+        // Assert
+        awaitStatus(job, IngestionJob.Status.CANCELLED);
+    }
+
+    @Test
+    void testQueuedJobsAreBoundedAndCancellable() throws Exception {
+        // Arrange
+        ingestionJobService = new IngestionJobService(csvService, 1, 1, 100, UPLOAD_ACQUIRE_TIMEOUT);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(csvService).importCsvFile(any());
+
+        // Act
+        IngestionJob running = ingestionJobService.submit(false);
+        awaitStatus(running, IngestionJob.Status.RUNNING);
+        IngestionJob queued = ingestionJobService.submit(false);
+
+        // Assert
+        assertThrows(JobRejectedException.class, () -> ingestionJobService.submit(false));
+        assertEquals(IngestionJob.Status.CANCELLED, ingestionJobService.cancel(queued.getId()).getStatus());
+
+        release.countDown();
+        awaitStatus(running, IngestionJob.Status.COMPLETED);
+        assertEquals(IngestionJob.Status.CANCELLED, queued.getStatus());
+    }
+
+    @Test
+    void testGzipUploadIsDecompressedWhileImported() throws Exception {
+        // Arrange
+        ingestionJobService = new IngestionJobService(csvService, 1, 10, 100, UPLOAD_ACQUIRE_TIMEOUT);
+        byte[] csv = "\"3001\",\"2023-10-06 01:06:00\",1,1,1,1,1,1,1\n".getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+            out.write(csv);
+        }
+        doAnswer(invocation -> {
+            InputStream body = invocation.getArgument(0);
+            assertArrayEquals(csv, body.readAllBytes());
+            return null;
+        }).when(csvService).importCsvStream(any(), eq(0L), any());
+
+        // Act
+        IngestionJob job = ingestionJobService.importUpload(new ByteArrayInputStream(gzip.toByteArray()), gzip.size());
+
+        // Assert
+        assertEquals(IngestionJob.Status.COMPLETED, job.getStatus());
+    }
+
+    @Test
+    void testUploadIsRejectedWhileAnotherImportRuns() throws Exception {
+        // Arrange
+        ingestionJobService = new IngestionJobService(csvService, 1, 10, 100, UPLOAD_ACQUIRE_TIMEOUT);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(csvService).importCsvFile(any());
+        IngestionJob running = ingestionJobService.submit(false);
+        awaitStatus(running, IngestionJob.Status.RUNNING);
+        InputStream upload = new ByteArrayInputStream("\"3001\",\"2023-10-06 01:06:00\",1,1,1,1,1,1,1\n".getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        assertThrows(JobRejectedException.class, () -> ingestionJobService.importUpload(upload, -1));
+        assertEquals(List.of(running), ingestionJobService.getJobs()); // The rejected upload is not left queued
+        verify(csvService, never()).importCsvStream(any(), anyLong(), any());
+
+        release.countDown();
+        awaitStatus(running, IngestionJob.Status.COMPLETED);
+    }
+
+    @Test
+    void testUnknownJobThrowsException() {
+
+        ingestionJobService = new IngestionJobService(csvService, 1, 10, 100, UPLOAD_ACQUIRE_TIMEOUT);
+
+        assertThrows(DataNotFoundException.class, () -> ingestionJobService.getJob("unknown"));
+    }
+
+    private void awaitStatus(IngestionJob job, IngestionJob.Status status) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (job.getStatus() != status && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(status, job.getStatus());
+    }
+}
@@ -0,0 +1,70 @@
+package com.deepsea.vesseldataservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class IngestionMetricsTest {
+
+    @Test
+    void testRangesAreRecordedPerStage() {
+        // Arrange
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        IngestionMetrics ingestionMetrics = new IngestionMetrics(meterRegistry);
+
+        // Act
+        ingestionMetrics.recordRead(1_000);
+        ingestionMetrics.recordRange(3_000_000, 2_000_000, 1_000_000);
+        ingestionMetrics.recordRange(3_000_000, 2_000_000, 1_000_000);
+
+        // Assert
+        assertEquals(1, meterRegistry.get("vessel.ingestion.stage").tag("stage", "read").timer().count());
+        assertEquals(6, meterRegistry.get("vessel.ingestion.stage").tag("stage", "parse").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(4, meterRegistry.get("vessel.ingestion.stage").tag("stage", "validate").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(2, meterRegistry.get("vessel.ingestion.stage").tag("stage", "metrics").timer().totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testFlushesAreRecordedPerTable() {
+        // Arrange
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        IngestionMetrics ingestionMetrics = new IngestionMetrics(meterRegistry);
+        IngestionMetrics.ImportRate importRate = ingestionMetrics.importStarted();
+
+        // Act
+        ingestionMetrics.recordFlush(importRate, IngestionMetrics.VALID_TABLE, 1000, 5_000_000);
+        ingestionMetrics.recordFlush(importRate, IngestionMetrics.VALID_TABLE, 500, 5_000_000);
+        ingestionMetrics.recordFlush(importRate, IngestionMetrics.INVALID_TABLE, 20, 1_000_000);
+
+        // Assert
+        assertEquals(2, meterRegistry.get("vessel.ingestion.flush").tag("table", "valid_vessel_data").timer().count());
+        assertEquals(750, meterRegistry.get("vessel.ingestion.batch.size").tag("table", "valid_vessel_data").summary().mean());
+        assertEquals(1500, meterRegistry.get("vessel.ingestion.rows").tag("table", "valid_vessel_data").counter().count());
+        assertEquals(20, meterRegistry.get("vessel.ingestion.rows").tag("table", "invalid_vessel_data").counter().count());
+        assertTrue(meterRegistry.get("vessel.ingestion.rows.per.second").gauge().value() > 0);
+    }
+
+    @Test
+    void testConcurrentImportsDoNotResetEachOther() throws InterruptedException {
+        // Arrange
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        IngestionMetrics ingestionMetrics = new IngestionMetrics(meterRegistry);
+        IngestionMetrics.ImportRate first = ingestionMetrics.importStarted();
+        Thread.sleep(10);
+
+        // Act
+        IngestionMetrics.ImportRate second = ingestionMetrics.importStarted(); // Starts while the first one runs
+        ingestionMetrics.recordFlush(first, IngestionMetrics.VALID_TABLE, 1000, 5_000_000);
+        double withoutOwnRows = meterRegistry.get("vessel.ingestion.rows.per.second").gauge().value();
+        ingestionMetrics.recordFlush(second, IngestionMetrics.VALID_TABLE, 1000, 5_000_000);
+
+        // Assert
+        assertEquals(0, withoutOwnRows); // The rows of the first import are not credited to the second
+        assertTrue(meterRegistry.get("vessel.ingestion.rows.per.second").gauge().value() > 0);
+        assertTrue(first.rowsPerSecond() < second.rowsPerSecond()); // Same rows, the first over a longer time
+    }
+}
@@ -0,0 +1,138 @@
+package com.deepsea.vesseldataservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.deepsea.vesseldataservice.model.InvalidDataSegment;
+import com.deepsea.vesseldataservice.model.ProblemGroup;
+import com.deepsea.vesseldataservice.repository.InvalidDataSegmentRepository;
+import com.deepsea.vesseldataservice.repository.ValidVesselDataRowMapper;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InvalidDataSegmentServiceTest {
+
+    @Autowired
+    private CsvService csvService;
+
+    @Autowired
+    private VesselSummaryService vesselSummaryService;
+
+    @Autowired
+    private VesselDataService vesselDataService;
+
+    @Autowired
+    private InvalidDataSegmentRepository invalidDataSegmentRepository;
+
+    @Autowired
+    private InvalidDataSegmentService invalidDataSegmentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void importData() throws Exception {
+
+        csvService.resetCheckpoint();
+        csvService.importCsvFile(IngestionProgress.NONE);
+    }
+
+    @Test
+    void testIncrementalSegmentsMatchRebuild() {
+        // Arrange
+        List<List<Object>> incremental = segments();
+
+        // Act
+        vesselSummaryService.rebuild();
+
+        // Assert
+        assertFalse(incremental.isEmpty());
+        assertEquals(incremental, segments());
+    }
+
+    @Test
+    void testSegmentsOfDataAppliedOutOfOrderMatchRebuild() {
+        // Arrange
+        vesselSummaryService.rebuild();
+        List<List<Object>> rebuilt = segments();
+        long minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM invalid_vessel_data", Long.class);
+        long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM invalid_vessel_data", Long.class);
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM invalid_data_segment");
+            // Every other reading from the latest to the earliest, then the ones in between which have to bridge the
+            // stored segments
+            for (long id = minId + (maxId - minId) / 2 * 2; id >= minId; id -= 2) {
+                invalidDataSegmentService.apply(IdRanges.between(id, id));
+            }
+            for (long id = minId + 1; id <= maxId; id += 2) {
+                invalidDataSegmentService.apply(IdRanges.between(id, id));
+            }
+        });
+
+        // Assert
+        assertEquals(rebuilt, segments());
+    }
+
+    @Test
+    void testProblemsFromSegmentsMatchGroupingTheRows() {
+        // Arrange
+        List<String> reasons = jdbcTemplate.queryForList("SELECT DISTINCT invalid_reason FROM invalid_vessel_data "
+                + "WHERE vessel_code = '19310' AND invalid_reason IS NOT NULL", String.class);
+
+        List<String> queried = new ArrayList<>(reasons);
+        queried.add("all");
+
+        for (String reason : queried) {
+            for (int sizeThreshold : new int[]{0, 1, 10}) {
+                // Act
+                List<ProblemGroup> fromSegments = vesselDataService.identifyProblematicData("19310", reason, 60L, sizeThreshold, null);
+
+                // Assert
+                assertEquals(groupRows("19310", reason, sizeThreshold), fromSegments, reason + " above " + sizeThreshold);
+            }
+        }
+    }
+
+    private List<ProblemGroup> groupRows(String vesselCode, String reason, int sizeThreshold) {
+
+        ProblemGroupDetector detector = new ProblemGroupDetector(60, sizeThreshold, Integer.MAX_VALUE);
+        RowCallbackHandler accept = resultSet -> detector.accept(ValidVesselDataRowMapper.getInstant(resultSet, 1).getEpochSecond());
+
+        if ("all".equals(reason)) {
+            jdbcTemplate.query("SELECT datetime FROM invalid_vessel_data WHERE vessel_code = ? AND datetime IS NOT NULL "
+                    + "ORDER BY datetime", accept, vesselCode);
+        } else {
+            jdbcTemplate.query("SELECT datetime FROM invalid_vessel_data WHERE vessel_code = ? AND invalid_reason = ? "
+                    + "AND datetime IS NOT NULL ORDER BY datetime", accept, vesselCode, reason);
+        }
+        return detector.groups();
+    }
+
+    private List<List<Object>> segments() {
+
+        return invalidDataSegmentRepository.findAll().stream()
+                .sorted(Comparator.comparing(InvalidDataSegment::getVesselCode)
+                        .thenComparing(InvalidDataSegment::getInvalidReason)
+                        .thenComparing(InvalidDataSegment::getStartDatetime))
+                .map(segment -> List.<Object>of(segment.getVesselCode(), segment.getInvalidReason(),
+                        Timestamp.from(segment.getStartDatetime()), Timestamp.from(segment.getEndDatetime()), segment.getRowCount()))
+                .toList();
+    }
+}
@@ -0,0 +1,84 @@
+package com.deepsea.vesseldataservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.deepsea.vesseldataservice.model.InvalidVesselData;
+import com.deepsea.vesseldataservice.model.VesselInvalidReasonCount;
+import com.deepsea.vesseldataservice.repository.VesselInvalidReasonCountRepository;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class JdbcVesselDataWriterTest {
+
+    private static final String VESSEL_CODE = "jdbc-writer-test";
+
+    @Autowired
+    private JdbcVesselDataWriter jdbcVesselDataWriter;
+
+    @Autowired
+    private VesselInvalidReasonCountRepository vesselInvalidReasonCountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testMySqlInsertOnlySkipsDuplicates() {
+        // Arrange
+        List<String> columns = List.of("id", "vessel_code", "datetime");
+
+        // Act
+        String sql = JdbcVesselDataWriter.insertSkippingDuplicates("valid_vessel_data", columns, SqlDialect.MYSQL);
+
+        // Assert
+        assertEquals("INSERT INTO valid_vessel_data (id, vessel_code, datetime) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE id = id", sql);
+    }
+
+    @Test
+    void testMySqlUntimedInsertMatchesAllFieldsNullSafe() {
+        // Arrange
+        List<String> columns = List.of("id", "vessel_code", "datetime", "power", "invalid_reason");
+
+        // Act
+        String sql = JdbcVesselDataWriter.insertSkippingUntimedDuplicates("invalid_vessel_data", columns, SqlDialect.MYSQL);
+
+        // Assert
+        assertEquals("INSERT INTO invalid_vessel_data (id, vessel_code, datetime, power, invalid_reason) SELECT id, vessel_code, datetime, "
+                + "power, invalid_reason FROM (SELECT ? AS id, ? AS vessel_code, ? AS datetime, ? AS power, ? AS invalid_reason) s "
+                + "WHERE NOT EXISTS (SELECT 1 FROM invalid_vessel_data t WHERE t.vessel_code = s.vessel_code AND t.datetime IS NULL "
+                + "AND t.power <=> s.power AND t.invalid_reason <=> s.invalid_reason)", sql);
+    }
+
+    @Test
+    @Transactional
+    void testReplayedInvalidRowsWithoutDatetimeAreSkipped() {
+        // Arrange
+        jdbcVesselDataWriter.writeInvalid(untimedRows());
+
+        // Act
+        jdbcVesselDataWriter.writeInvalid(untimedRows());
+
+        // Assert
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM invalid_vessel_data WHERE vessel_code = ?", Long.class, VESSEL_CODE));
+        assertEquals(List.of(2L), vesselInvalidReasonCountRepository.findByVesselCodeOrderByRowCountDesc(VESSEL_CODE).stream()
+                .map(VesselInvalidReasonCount::getRowCount).toList());
+    }
+
+    private static List<InvalidVesselData> untimedRows() {
+
+        List<InvalidVesselData> rows = new ArrayList<>();
+        for (Double power : new Double[] {null, 4925.67}) {
+            InvalidVesselData data = new InvalidVesselData(VESSEL_CODE, null, 44.2, -50.4, power, null, null, null, null);
+            data.setInvalidReason("Invalid datetime");
+            rows.add(data);
+        }
+        return rows;
+    }
+}
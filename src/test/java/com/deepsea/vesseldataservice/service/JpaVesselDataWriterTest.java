@@ -0,0 +1,84 @@
+package com.deepsea.vesseldataservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.deepsea.vesseldataservice.model.InvalidVesselData;
+import com.deepsea.vesseldataservice.model.ValidVesselData;
+import com.deepsea.vesseldataservice.repository.InvalidVesselDataRepository;
+import com.deepsea.vesseldataservice.repository.ValidVesselDataRepository;
+import com.deepsea.vesseldataservice.repository.VesselComplianceSummaryRepository;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class JpaVesselDataWriterTest {
+
+    private static final String VESSEL_CODE = "jpa-writer-test";
+
+    @Autowired
+    private ValidVesselDataRepository validVesselDataRepository;
+
+    @Autowired
+    private InvalidVesselDataRepository invalidVesselDataRepository;
+
+    @Autowired
+    private VesselComplianceSummaryRepository vesselComplianceSummaryRepository;
+
+    @Autowired
+    private VesselSummaryService vesselSummaryService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @Transactional
+    void testReplayedRowsAreSkipped() {
+        // Arrange
+        JpaVesselDataWriter writer = new JpaVesselDataWriter(validVesselDataRepository, invalidVesselDataRepository, vesselSummaryService,
+                transactionTemplate);
+        writer.writeValid(List.of(validAt(0), validAt(60)));
+        writer.writeInvalid(List.of(invalidAt(0), invalidAt(null)));
+
+        // Act
+        writer.writeValid(List.of(validAt(0), validAt(60), validAt(120), validAt(120))); // Replay, one new reading twice in the batch
+        writer.writeInvalid(List.of(invalidAt(0), invalidAt(null))); // Without a datetime, matched on all fields
+
+        // Assert
+        assertEquals(3, count("valid_vessel_data"));
+        assertEquals(2, count("invalid_vessel_data"));
+        assertEquals(3, vesselComplianceSummaryRepository.findById(VESSEL_CODE).orElseThrow().getComplianceCount());
+    }
+
+    private static ValidVesselData validAt(long epochSecond) {
+
+        ValidVesselData data = new ValidVesselData();
+        data.setVesselCode(VESSEL_CODE);
+        data.setDatetime(Instant.ofEpochSecond(epochSecond));
+        data.setCompliancePercentage(50);
+        return data;
+    }
+
+    private static InvalidVesselData invalidAt(Integer epochSecond) {
+
+        Instant datetime = epochSecond == null ? null : Instant.ofEpochSecond(epochSecond);
+        InvalidVesselData data = new InvalidVesselData(VESSEL_CODE, datetime, null, null, null, null, null, null, null);
+        data.setInvalidReason("Number format exception");
+        return data;
+    }
+
+    private long count(String table) {
+
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE vessel_code = ?", Long.class, VESSEL_CODE);
+    }
+}
@@ -0,0 +1,62 @@
+package com.deepsea.vesseldataservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.deepsea.vesseldataservice.response.AccessLogStatsResponse;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+class LoggingServiceImplTest {
+
+    @Test
+    void testBodiesAreTruncatedWithoutRenderingLargeCollections() {
+        // Arrange
+        LoggingServiceImpl loggingService = new LoggingServiceImpl(10, 20, 1.0, "");
+        List<Integer> body = IntStream.range(0, 1_000_000).boxed().toList();
+
+        // Act & Assert
+        assertEquals("[0, 1, 2, 3, 4, 5, 6... [truncated]", loggingService.truncate(body));
+        assertEquals("short", loggingService.truncate("short"));
+        assertEquals("abcdefghijklmnopqrst... [truncated]", loggingService.truncate("abcdefghijklmnopqrstuvwxyz"));
+    }
+
+    @Test
+    void testEntriesAreDroppedWhenTheQueueIsFull() {
+        // Arrange
+        // Not started, so nothing drains the queue
+        LoggingServiceImpl loggingService = new LoggingServiceImpl(2, 100, 1.0, "");
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/vessels/3001/invalid-reasons");
+            loggingService.displayReq(request, null);
+            loggingService.displayResp(request, new MockHttpServletResponse(), List.of());
+        }
+
+        // Assert
+        assertEquals(new AccessLogStatsResponse(2, 0, 4, 0), loggingService.stats());
+    }
+
+    @Test
+    void testSampleRatesApplyPerEndpointToRequestAndResponseTogether() {
+        // Arrange
+        LoggingServiceImpl loggingService = new LoggingServiceImpl(10, 100, 1.0, "/api/vessels/{vesselCode}/data=0");
+        MockHttpServletRequest bulk = new MockHttpServletRequest("GET", "/api/vessels/3001/data");
+        bulk.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/vessels/{vesselCode}/data");
+        MockHttpServletRequest other = new MockHttpServletRequest("GET", "/api/vessels/3001/invalid-reasons");
+        other.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/vessels/{vesselCode}/invalid-reasons");
+
+        // Act
+        loggingService.displayReq(bulk, null);
+        loggingService.displayResp(bulk, new MockHttpServletResponse(), List.of());
+        loggingService.displayReq(other, null);
+        loggingService.displayResp(other, new MockHttpServletResponse(), List.of());
+
+        // Assert
+        assertEquals(new AccessLogStatsResponse(2, 0, 0, 1), loggingService.stats());
+    }
+}
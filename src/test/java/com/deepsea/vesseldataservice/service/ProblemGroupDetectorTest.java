@@ -0,0 +1,94 @@
+package com.deepsea.vesseldataservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.deepsea.vesseldataservice.model.ProblemGroup;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ProblemGroupDetectorTest {
+
+    private static final long START = Instant.parse("2023-06-01T00:00:00Z").getEpochSecond();
+
+    @Test
+    void testSameGroup() {
+
+        long datetime = Instant.parse("2024-09-09T12:00:00Z").getEpochSecond();
+
+        assertTrue(ProblemGroupDetector.sameGroup(datetime, datetime + 5 * 60, 60 * 60)); // 5 minutes later
+        assertFalse(ProblemGroupDetector.sameGroup(datetime, datetime + 60 * 60, 60 * 60)); // Exactly the interval later
+    }
+
+    @Test
+    void testGroupsAreSplitAtGapsAndSortedBySize() {
+        // Arrange
+        ProblemGroupDetector detector = new ProblemGroupDetector(60, 1, Integer.MAX_VALUE);
+
+        // Act
+        accept(detector, 0, 30, 89);        // 3 readings, each less than an hour after the previous one
+        accept(detector, 150);              // exactly one hour after the previous one: a group of 1, under the threshold
+        accept(detector, 300, 301);         // 2 readings
+        accept(detector, 500, 510, 520);    // 3 readings, same size as the first group
+
+        // Assert
+        assertEquals(List.of(group(3, 0, 89), group(3, 500, 520), group(2, 300, 301)), detector.groups());
+    }
+
+    @Test
+    void testLimitKeepsTheLargestGroupsPreferringEarlierOnes() {
+        // Arrange
+        ProblemGroupDetector detector = new ProblemGroupDetector(60, 0, 2);
+
+        // Act
+        accept(detector, 0, 1);
+        accept(detector, 100, 101, 102);
+        accept(detector, 200);
+        accept(detector, 300, 301);
+
+        // Assert
+        assertEquals(List.of(group(3, 100, 102), group(2, 0, 1)), detector.groups());
+    }
+
+    @Test
+    void testOverlappingRunsMergeIntoOneGroup() {
+        // Arrange
+        ProblemGroupDetector detector = new ProblemGroupDetector(60, 0, Integer.MAX_VALUE);
+
+        // Act
+        detector.accept(3, START, START + 300 * 60);                  // A long run
+        detector.accept(2, START + 100 * 60, START + 120 * 60);       // Inside it, for another reason
+        detector.accept(4, START + 350 * 60, START + 400 * 60);       // Less than an hour after the first run ends
+        detector.accept(1, START + 460 * 60, START + 460 * 60);       // An hour later
+
+        // Assert
+        assertEquals(List.of(group(9, 0, 400), group(1, 460, 460)), detector.groups());
+    }
+
+    @Test
+    void testNoTimestamps() {
+        // Arrange
+        ProblemGroupDetector detector = new ProblemGroupDetector(60, 0, 10);
+
+        // Act & Assert
+        assertEquals(List.of(), detector.groups());
+    }
+
+    private void accept(ProblemGroupDetector detector, long... minutes) {
+
+        for (long minute : minutes) {
+            detector.accept(START + minute * 60);
+        }
+    }
+
+    private ProblemGroup group(int size, long startMinute, long endMinute) {
+
+        ProblemGroup group = new ProblemGroup();
+        group.setSize(size);
+        group.setStartDateTime(Instant.ofEpochSecond(START + startMinute * 60));
+        group.setEndDateTime(Instant.ofEpochSecond(START + endMinute * 60));
+        return group;
+    }
+}
@@ -0,0 +1,117 @@
+package com.deepsea.vesseldataservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class VesselCsvRowTest {
+
+    @Test
+    void testParseMatchesStringParsingForEveryLineOfTheDataset() throws IOException {
+        // Arrange
+        List<String> lines = Files.readAllLines(Paths.get("src/test/resources/vessel_data_min.csv"));
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        VesselCsvRow row = new VesselCsvRow();
+
+        for (String line : lines.subList(1, lines.size())) {
+            String[] fields = line.replace("\"", "").split(",");
+
+            // Act
+            assertTrue(parse(row, line));
+
+            // Assert
+            assertEquals(fields[0], row.vesselCode());
+            assertEquals(LocalDateTime.parse(fields[1], formatter).toEpochSecond(ZoneOffset.UTC), row.epochSecond());
+            for (int field = VesselCsvRow.LATITUDE; field < VesselCsvRow.FIELD_COUNT; field++) {
+                if ("NULL".equals(fields[field])) {
+                    assertFalse(row.isNumber(field));
+                } else {
+                    assertTrue(row.isNumber(field));
+                    assertEquals(Double.parseDouble(fields[field]), row.value(field), line);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testParseWithUnusualNumbersFallsBackToExactParsing() {
+        // Arrange
+        VesselCsvRow row = new VesselCsvRow();
+
+        // Act
+        assertTrue(parse(row, "1,2023-06-01 00:00:00,1e2,-0.00907997563481322,29.05306814871728,.5,-0,abc,"
+                + "12345678901234567890"));
+
+        // Assert
+        assertEquals(100.0, row.value(VesselCsvRow.LATITUDE));
+        assertEquals(-0.00907997563481322, row.value(VesselCsvRow.LONGITUDE));
+        assertEquals(29.05306814871728, row.value(VesselCsvRow.POWER));
+        assertEquals(0.5, row.value(VesselCsvRow.FUEL_CONSUMPTION));
+        assertEquals(-0.0, row.value(VesselCsvRow.ACTUAL_SPEED_OVERGROUND));
+        assertFalse(row.isNumber(VesselCsvRow.PROPOSED_SPEED_OVERGROUND));
+        assertEquals(12345678901234567890.0, row.value(VesselCsvRow.PREDICTED_FUEL_CONSUMPTION));
+    }
+
+    @Test
+    void testParseWithWrongNumberOfFields() {
+        // Arrange
+        VesselCsvRow row = new VesselCsvRow();
+
+        // Act & Assert
+        assertFalse(parse(row, "\"19310\",\"2023-06-01 00:07:00\",\"NULL\",\"NULL\",\"NULL\",\"NULL\",\"NULL\",\"0\""));
+        assertFalse(parse(row, "1,2,3,4,5,6,7,8,9,10"));
+        assertTrue(parse(row, "1,2,3,4,5,6,7,8,9,,")); // Trailing empty fields are ignored, like String.split
+    }
+
+    @Test
+    void testParseWithMalformedTimestamp() {
+        // Arrange
+        VesselCsvRow row = new VesselCsvRow();
+
+        // Act
+        assertTrue(parse(row, "1,2023-13-01 00:00:00,1,1,1,1,1,1,1"));
+
+        // Assert
+        assertEquals(VesselCsvRow.NO_TIMESTAMP, row.epochSecond());
+    }
+
+    @Test
+    void testParseRejectsDaysBeyondTheEndOfTheMonth() {
+        // Arrange
+        VesselCsvRow row = new VesselCsvRow();
+
+        // Act & Assert
+        for (String datetime : List.of("2023-02-29 00:00:00", "2023-02-31 00:00:00", "2023-04-31 00:00:00", "1900-02-29 00:00:00")) {
+            assertTrue(parse(row, "1," + datetime + ",1,1,1,1,1,1,1"));
+            assertEquals(VesselCsvRow.NO_TIMESTAMP, row.epochSecond(), datetime);
+        }
+        assertTrue(parse(row, "1,2024-02-29 00:00:00,1,1,1,1,1,1,1")); // Leap year
+        assertEquals(LocalDateTime.of(2024, 2, 29, 0, 0).toEpochSecond(ZoneOffset.UTC), row.epochSecond());
+        assertEquals(VesselDataValidator.INVALID_DATETIME,
+                VesselDataValidator.defaults().invalidReason(rowOf("1,2023-02-31 00:00:00,1,1,1,1,1,1,1")));
+    }
+
+    private boolean parse(VesselCsvRow row, String line) {
+
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        return row.parse(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    private VesselCsvRow rowOf(String line) {
+
+        VesselCsvRow row = new VesselCsvRow();
+        parse(row, line);
+        return row;
+    }
+}
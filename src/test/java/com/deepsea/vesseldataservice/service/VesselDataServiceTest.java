@@ -3,21 +3,44 @@ package com.deepsea.vesseldataservice.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.deepsea.vesseldataservice.exception.DataNotFoundException;
+import com.deepsea.vesseldataservice.model.ProblemGroup;
 import com.deepsea.vesseldataservice.model.ValidVesselData;
-import com.deepsea.vesseldataservice.repository.InvalidVesselDataRepository;
+import com.deepsea.vesseldataservice.model.VesselComplianceSummary;
+import com.deepsea.vesseldataservice.model.VesselInvalidReasonCount;
+import com.deepsea.vesseldataservice.repository.InvalidVesselDataCursorRepository;
+import com.deepsea.vesseldataservice.repository.ValidVesselDataCursorRepository;
 import com.deepsea.vesseldataservice.repository.ValidVesselDataRepository;
+import com.deepsea.vesseldataservice.repository.VesselComplianceSummaryRepository;
+import com.deepsea.vesseldataservice.repository.VesselInvalidReasonCountRepository;
 import com.deepsea.vesseldataservice.response.InvalidReasonResponse;
 import com.deepsea.vesseldataservice.response.SpeedDifferenceResponse;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 
 @ExtendWith(MockitoExtension.class)
 class VesselDataServiceTest {
@@ -26,7 +49,25 @@ class VesselDataServiceTest {
     private ValidVesselDataRepository validVesselDataRepository;
 
     @Mock
-    private InvalidVesselDataRepository invalidVesselDataRepository;
+    private InvalidVesselDataCursorRepository invalidVesselDataCursorRepository;
+
+    @Mock
+    private VesselComplianceSummaryRepository vesselComplianceSummaryRepository;
+
+    @Mock
+    private VesselInvalidReasonCountRepository vesselInvalidReasonCountRepository;
+
+    @Mock
+    private ValidVesselDataCursorRepository validVesselDataCursorRepository;
+
+    @Mock
+    private InvalidDataSegmentService invalidDataSegmentService;
+
+    @Mock
+    private ObjectProvider<VesselTimeSeriesStore> vesselTimeSeriesStore; // No in-memory store
+
+    @Spy
+    private VesselQueryCache vesselQueryCache = new VesselQueryCache(false, 1, Duration.ofMinutes(1));
 
     @InjectMocks
     private VesselDataService vesselDataService;
@@ -35,16 +76,16 @@ class VesselDataServiceTest {
     void testCalculateSpeedDifferenceWithCoordinates() {
         // Arrange
         String vesselCode = "3001";
-        String latitude = "44.8565368652344";
-        String longitude = "-51.4986343383789";
+        double latitude = 44.8565368652344;
+        double longitude = -51.4986343383789;
 
         List<ValidVesselData> vesselDataList = new ArrayList<>();
-        ValidVesselData validData = new ValidVesselData("3001", "2023-10-06 01:06:00",
-                latitude, longitude, "4947.18", "16.6132", "8.95998", "10.0698497759178", "16.4471915433183");
+        ValidVesselData validData = new ValidVesselData("3001", Instant.parse("2023-10-06T01:06:00Z"),
+                latitude, longitude, 4947.18, 16.6132, 8.95998, 10.0698497759178, 16.4471915433183);
         validData.setSpeedDifference(-1.109869775917801); // Set speed difference for testing
         vesselDataList.add(validData);
 
-        when(validVesselDataRepository.findByVesselCodeAndLatitudeAndLongitude(vesselCode, latitude, longitude))
+        when(validVesselDataRepository.findByVesselCodeAndLatitudeAndLongitudeOrderByDatetimeAsc(vesselCode, latitude, longitude))
                 .thenReturn(vesselDataList);
 
         // Act
@@ -63,16 +104,16 @@ class VesselDataServiceTest {
         String vesselCode = "3001";
 
         List<ValidVesselData> vesselDataList = new ArrayList<>();
-        ValidVesselData validData = new ValidVesselData("3001", "2023-10-06 01:06:00",
-                "10.2894496917725", "-14.7888498306274", "4947.18", "16.6132", "8.95998", "10.0698497759178", "16.4471915433183");
+        ValidVesselData validData = new ValidVesselData("3001", Instant.parse("2023-10-06T01:06:00Z"),
+                10.2894496917725, -14.7888498306274, 4947.18, 16.6132, 8.95998, 10.0698497759178, 16.4471915433183);
         validData.setSpeedDifference(-0.846507989632189);
-        ValidVesselData validData2 = new ValidVesselData("3001", "2023-10-06 01:06:00",
-                "10.2894401550293", "-14.7888078689575", "4947.18", "16.6132", "8.95998", "10.0698497759178", "16.4471915433183");
+        ValidVesselData validData2 = new ValidVesselData("3001", Instant.parse("2023-10-06T01:06:00Z"),
+                10.2894401550293, -14.7888078689575, 4947.18, 16.6132, 8.95998, 10.0698497759178, 16.4471915433183);
         validData2.setSpeedDifference(-0.709315650920331);
         vesselDataList.add(validData);
         vesselDataList.add(validData2);
 
-        when(validVesselDataRepository.findByVesselCode(vesselCode)).thenReturn(vesselDataList);
+        when(validVesselDataRepository.findByVesselCodeOrderByDatetimeAsc(vesselCode)).thenReturn(vesselDataList);
 
         // Act
         List<SpeedDifferenceResponse> response = vesselDataService.calculateSpeedDifference(vesselCode, null, null);
@@ -86,10 +127,10 @@ class VesselDataServiceTest {
         // Arrange
         // Cannot find such data
         String vesselCode = "3001";
-        String latitude = "42.8565368652344";
-        String longitude = "-58.4986343383789";
+        double latitude = 42.8565368652344;
+        double longitude = -58.4986343383789;
 
-        when(validVesselDataRepository.findByVesselCodeAndLatitudeAndLongitude(vesselCode, latitude, longitude))
+        when(validVesselDataRepository.findByVesselCodeAndLatitudeAndLongitudeOrderByDatetimeAsc(vesselCode, latitude, longitude))
                 .thenReturn(new ArrayList<>()); // Return empty list
 
         // Act
@@ -99,12 +140,34 @@ class VesselDataServiceTest {
         assertEquals("No data found for the given vessel code and coordinates.", exception.getMessage());
     }
 
+    @Test
+    void testStreamVesselDataForPeriodThrowsBeforeStreamingWhenNoDataFound() {
+        // Arrange
+        String vesselCode = "3001";
+        Instant start = Instant.parse("2023-06-01T00:00:00Z");
+        Instant end = Instant.parse("2023-06-02T00:00:00Z");
+        List<ValidVesselData> streamed = new ArrayList<>();
+
+        when(validVesselDataRepository.existsByVesselCodeAndDatetimeBetween(vesselCode, start, end)).thenReturn(false);
+
+        // Act
+        DataNotFoundException exception = assertThrows(DataNotFoundException.class,
+                () -> vesselDataService.streamVesselDataForPeriod(vesselCode, "2023-06-01 00:00:00", "2023-06-02 00:00:00", streamed::add));
+
+        // Assert
+        assertEquals("No data found for vessel code: 3001 in the specified period.", exception.getMessage());
+        assertTrue(streamed.isEmpty());
+        verifyNoInteractions(validVesselDataCursorRepository);
+    }
+
     @Test
     void testGetInvalidReasonsByVesselCode() {
         // Mocking the repository response
-        List<Object[]> results = new ArrayList<>();
-        results.add(new Object[] {"Invalid latitude or longitude", 1L});
-        when(invalidVesselDataRepository.findInvalidReasonsByVesselCode("1")).thenReturn(results);
+        VesselInvalidReasonCount reasonCount = new VesselInvalidReasonCount();
+        reasonCount.setVesselCode("1");
+        reasonCount.setInvalidReason("Invalid latitude or longitude");
+        reasonCount.setRowCount(1);
+        when(vesselInvalidReasonCountRepository.findByVesselCodeOrderByRowCountDesc("1")).thenReturn(List.of(reasonCount));
 
         // Call the method
         List<InvalidReasonResponse> response = vesselDataService.getInvalidReasonsByVesselCode("1");
@@ -118,18 +181,67 @@ class VesselDataServiceTest {
     @Test
     void testGetInvalidReasonsByVesselCodeThrowsException() {
         // Mocking the repository response
-        when(invalidVesselDataRepository.findInvalidReasonsByVesselCode("1")).thenReturn(new ArrayList<>());
+        when(vesselInvalidReasonCountRepository.findByVesselCodeOrderByRowCountDesc("1")).thenReturn(new ArrayList<>());
 
         // Call the method and expect an exception
         assertThrows(DataNotFoundException.class, () -> vesselDataService.getInvalidReasonsByVesselCode("1"));
     }
 
     @Test
-    void testBelongsToSameGroup() {
+    void testCalculateOverallComplianceReadsSummary() {
+        // Arrange
+        VesselComplianceSummary summary = new VesselComplianceSummary();
+        summary.setVesselCode("1");
+        summary.setComplianceSum(150.0);
+        summary.setComplianceCount(2);
+        when(vesselComplianceSummaryRepository.findById("1")).thenReturn(Optional.of(summary));
+
+        // Act
+        double compliance = vesselDataService.calculateOverallCompliance("1");
+
+        // Assert
+        assertEquals(75.0, compliance);
+    }
+
+    @Test
+    void testIdentifyProblematicDataWithMixedIntervalsConcurrently() throws Exception {
+        // Arrange
+        // Gaps of 5 to 200 minutes between the readings, so every interval cuts them into other groups
+        long start = Instant.parse("2023-06-01T00:00:00Z").getEpochSecond();
+        long[] minutes = {0, 10, 30, 60, 110, 210, 410, 415, 420, 440, 470};
+        when(invalidVesselDataCursorRepository.streamEpochSeconds(eq("19310"), isNull(), any())).thenAnswer(invocation -> {
+            LongConsumer consumer = invocation.getArgument(2);
+            for (long minute : minutes) {
+                consumer.accept(start + minute * 60);
+            }
+            return (long) minutes.length;
+        });
+
+        long[] intervals = {5, 15, 30, 60, 120, 240};
+        Map<Long, List<ProblemGroup>> expected = new HashMap<>();
+        for (long interval : intervals) {
+            expected.put(interval, vesselDataService.identifyProblematicData("19310", "all", interval, 0, null));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
 
-        String datetime = "2024-09-09 12:00:00";
-        String currentDateTime = "2024-09-09 12:05:00"; // 5 minutes later
+        // Act
+        for (int i = 0; i < 400; i++) {
+            long interval = intervals[i % intervals.length];
+            results.add(executor.submit(() -> {
+                ready.await();
+                return expected.get(interval).equals(vesselDataService.identifyProblematicData("19310", "all", interval, 0, null));
+            }));
+        }
+        ready.countDown();
 
-        assertTrue(vesselDataService.belongsToSameGroup(datetime, currentDateTime));
+        // Assert
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get(10, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(6, expected.values().stream().distinct().count()); // Every interval groups the readings differently
     }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.deepsea.vesseldataservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class VesselDataValidatorTest {
+
+    @Test
+    void testInvalidReasonReportsTheFirstFailingRuleByDefault() {
+        // Arrange
+        VesselDataValidator validator = VesselDataValidator.defaults();
+        VesselCsvRow row = VesselCsvRow.of("3001", "not a datetime", "44.85", "-51.49", "-1", "16.61", "25", "10.06", "16.44");
+
+        // Act
+        String result = validator.invalidReason(row);
+
+        // Assert
+        assertEquals(VesselDataValidator.NEGATIVE_VALUES, result);
+    }
+
+    @Test
+    void testInvalidReasonReportsEveryFailingRule() {
+        // Arrange
+        VesselDataValidator validator = new VesselDataValidator(-90, 90, -180, 180, 20, "", true);
+        VesselCsvRow row = VesselCsvRow.of("3001", "not a datetime", "44.85", "-51.49", "NULL", "-16.61", "25", "10.06", "NULL");
+
+        // Act
+        String result = validator.invalidReason(row);
+
+        // Assert
+        assertEquals("Number format exception; Negative values; Outliers; Invalid datetime", result);
+    }
+
+    @Test
+    void testInvalidReasonWithMaxSpeedOverride() {
+        // Arrange
+        VesselDataValidator validator = new VesselDataValidator(-90, 90, -180, 180, 20, "3001=30, 3002 = 10", false);
+        VesselCsvRow fast = VesselCsvRow.of("3001", "2023-10-06 01:06:00", "44.85", "-51.49", "4947.18", "16.61", "25", "10.06", "16.44");
+        VesselCsvRow slow = VesselCsvRow.of("3002", "2023-10-06 01:06:00", "44.85", "-51.49", "4947.18", "16.61", "12", "10.06", "16.44");
+        VesselCsvRow other = VesselCsvRow.of("3003", "2023-10-06 01:06:00", "44.85", "-51.49", "4947.18", "16.61", "25", "10.06", "16.44");
+
+        // Act & Assert
+        assertNull(validator.invalidReason(fast));
+        assertEquals(VesselDataValidator.OUTLIERS, validator.invalidReason(slow));
+        assertEquals(VesselDataValidator.OUTLIERS, validator.invalidReason(other));
+    }
+
+    @Test
+    void testInvalidReasonWithConfiguredBounds() {
+        // Arrange
+        VesselDataValidator validator = new VesselDataValidator(30, 60, -60, -30, 20, "", false);
+        VesselCsvRow inside = VesselCsvRow.of("3001", "2023-10-06 01:06:00", "44.85", "-51.49", "4947.18", "16.61", "8.95", "10.06", "16.44");
+        VesselCsvRow outside = VesselCsvRow.of("3001", "2023-10-06 01:06:00", "10.5", "-51.49", "4947.18", "16.61", "8.95", "10.06", "16.44");
+
+        // Act & Assert
+        assertNull(validator.invalidReason(inside));
+        assertEquals(VesselDataValidator.INVALID_POSITION, validator.invalidReason(outside));
+    }
+
+    @Test
+    void testInvalidReasonsMatchesInvalidReasonRowByRow() {
+        // Arrange
+        VesselDataValidator validator = VesselDataValidator.defaults();
+        VesselCsvRow[] rows = {
+                VesselCsvRow.of("3001", "2023-10-06 01:06:00", "44.85", "-51.49", "4947.18", "16.61", "8.95", "10.06", "16.44"),
+                VesselCsvRow.of("3001", "2023-10-06 01:06:00", "NULL", "-51.49", "4947.18", "16.61", "8.95", "10.06", "16.44"),
+                VesselCsvRow.of("3001", "2023-10-06 01:06:00", "95", "-51.49", "-4947.18", "16.61", "8.95", "10.06", "16.44"),
+                VesselCsvRow.of("3001", "2023-10-06 01:06:00", "44.85", "-51.49", "4947.18", "16.61", "28.95", "10.06", "16.44"),
+                VesselCsvRow.of("3001", "2023-10-06", "44.85", "-51.49", "4947.18", "16.61", "8.95", "10.06", "16.44")
+        };
+        String[] reasons = {"stale", "stale", "stale", "stale", "stale", "untouched"};
+
+        // Act
+        validator.invalidReasons(rows, rows.length, reasons);
+
+        // Assert
+        for (int i = 0; i < rows.length; i++) {
+            assertEquals(validator.invalidReason(rows[i]), reasons[i]);
+        }
+        assertNull(reasons[0]);
+        assertEquals(VesselDataValidator.INVALID_POSITION, reasons[2]);
+        assertEquals("untouched", reasons[5]);
+    }
+}
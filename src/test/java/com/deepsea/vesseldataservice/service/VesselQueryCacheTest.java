@@ -0,0 +1,125 @@
+package com.deepsea.vesseldataservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.deepsea.vesseldataservice.model.ValidVesselData;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+
+class VesselQueryCacheTest {
+
+    @Test
+    void testRepeatedQueryIsServedFromCache() {
+        // Arrange
+        VesselQueryCache cache = new VesselQueryCache(true, 100, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        cache.get("3001", "overallCompliance", List.of(), loads::incrementAndGet);
+        Integer result = cache.get("3001", "overallCompliance", List.of(), loads::incrementAndGet);
+
+        // Assert
+        assertEquals(1, result);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void testCommittedBatchInvalidatesOnlyItsVessels() {
+        // Arrange
+        VesselQueryCache cache = new VesselQueryCache(true, 100, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("3001", "overallCompliance", List.of(), loads::incrementAndGet);
+        cache.get("19310", "overallCompliance", List.of(), loads::incrementAndGet);
+
+        // Act
+        cache.validDataCommitted(List.of(new ValidVesselData("3001", Instant.parse("2023-10-06T01:06:00Z"), 1, 1, 1, 1, 1, 1, 1)));
+        cache.get("3001", "overallCompliance", List.of(), loads::incrementAndGet);
+        cache.get("19310", "overallCompliance", List.of(), loads::incrementAndGet);
+
+        // Assert
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testInvalidateAllDropsEveryVessel() {
+        // Arrange
+        VesselQueryCache cache = new VesselQueryCache(true, 100, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("3001", "overallCompliance", List.of(), loads::incrementAndGet);
+        cache.get("19310", "invalidReasons", List.of(), loads::incrementAndGet);
+
+        // Act
+        cache.invalidateAll();
+        cache.get("3001", "overallCompliance", List.of(), loads::incrementAndGet);
+        cache.get("19310", "invalidReasons", List.of(), loads::incrementAndGet);
+
+        // Assert
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void testResultLoadedDuringCommitIsNotCached() {
+        // Arrange
+        VesselQueryCache cache = new VesselQueryCache(true, 100, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        cache.get("3001", "invalidReasons", List.of(), () -> {
+            cache.invalidDataCommitted(List.of()); // An import commits while the query reads
+            return loads.incrementAndGet();
+        });
+        cache.get("3001", "invalidReasons", List.of(), loads::incrementAndGet);
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testResultLoadedBetweenListenersSeesTheCommittedRows() {
+        // Arrange
+        VesselQueryCache cache = new VesselQueryCache(true, 100, Duration.ofMinutes(1));
+        VesselTimeSeriesStore store = new VesselTimeSeriesStore(null);
+        List<VesselDataListener> listeners = new ArrayList<>(List.of(cache, store));
+        AnnotationAwareOrderComparator.sort(listeners); // As Spring orders the injected listeners
+        List<ValidVesselData> committed = List.of(new ValidVesselData("3001", Instant.parse("2023-10-06T01:06:00Z"), 1, 1, 1, 1, 1, 1, 1));
+
+        // Act
+        for (VesselDataListener listener : listeners) {
+            listener.validDataCommitted(committed);
+            cache.get("3001", "size", List.of(), () -> size(store)); // A query reads between two listeners
+        }
+        Integer result = cache.get("3001", "size", List.of(), () -> size(store));
+
+        // Assert
+        assertEquals(1, result);
+    }
+
+    @Test
+    void testEntriesAreEvictedByWeight() {
+        // Arrange
+        VesselQueryCache cache = new VesselQueryCache(true, 10, Duration.ofMinutes(1));
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            cache.get("vessel" + i, "speedDifference", List.of(), () -> List.of(1, 2, 3, 4));
+        }
+        long size = cache.size();
+
+        // Assert
+        assertTrue(size <= 2); // Each entry weighs 5
+        assertEquals(20 - size, cache.stats().evictionCount());
+    }
+
+    private static int size(VesselTimeSeriesStore store) {
+
+        return store.series("3001") == null ? 0 : store.series("3001").size();
+    }
+}
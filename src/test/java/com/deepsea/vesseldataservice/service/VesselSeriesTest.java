@@ -0,0 +1,92 @@
+package com.deepsea.vesseldataservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.deepsea.vesseldataservice.model.ValidVesselData;
+import com.deepsea.vesseldataservice.response.SpeedDifferenceResponse;
+import com.deepsea.vesseldataservice.response.SpeedDifferenceScrollResponse;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class VesselSeriesTest {
+
+    @Test
+    void testAppendKeepsTimeOrderAndSkipsStoredSeconds() {
+        // Arrange
+        VesselSeries series = new VesselSeries("3001");
+
+        // Act
+        series.append(List.of(data("2023-10-06T01:00:00Z", 1, 80), data("2023-10-06T03:00:00Z", 3, 90)));
+        series.append(List.of(data("2023-10-06T02:00:00Z", 2, 100), data("2023-10-06T03:00:00Z", 99, 0)));
+        series.append(List.of(data("2023-10-06T04:00:00Z", 4, 70)));
+
+        // Assert
+        assertEquals(4, series.size());
+        assertEquals(List.of(1.0, 2.0, 3.0, 4.0), series.speedDifferences(null, null).stream()
+                .map(SpeedDifferenceResponse::getSpeedDifference)
+                .toList());
+        assertEquals(85.0, series.averageCompliance());
+    }
+
+    @Test
+    void testRangeIncludesBothBounds() {
+        // Arrange
+        VesselSeries series = new VesselSeries("3001");
+        series.append(List.of(data("2023-10-06T01:00:00Z", 1, 0), data("2023-10-06T02:00:00Z", 2, 0),
+                data("2023-10-06T03:00:00Z", 3, 0), data("2023-10-06T04:00:00Z", 4, 0)));
+
+        // Act
+        List<ValidVesselData> range = series.range(Instant.parse("2023-10-06T02:00:00Z"), Instant.parse("2023-10-06T03:00:00Z"));
+
+        // Assert
+        assertEquals(List.of(Instant.parse("2023-10-06T02:00:00Z"), Instant.parse("2023-10-06T03:00:00Z")),
+                range.stream().map(ValidVesselData::getDatetime).toList());
+        assertEquals("3001", range.getFirst().getVesselCode());
+        assertEquals(2L, range.getFirst().getId());
+    }
+
+    @Test
+    void testSpeedDifferencesPageAndPosition() {
+        // Arrange
+        VesselSeries series = new VesselSeries("3001");
+        series.append(List.of(data("2023-10-06T01:00:00Z", 1, 0), data("2023-10-06T02:00:00Z", 2, 0),
+                data("2023-10-06T03:00:00Z", 3, 0)));
+
+        // Act & Assert
+        assertEquals(List.of(new SpeedDifferenceResponse(10.0, 20.0, 3.0)), series.speedDifferences(2, 5));
+        assertEquals(List.of(new SpeedDifferenceResponse(10.0, 20.0, 1.0), new SpeedDifferenceResponse(10.0, 20.0, 2.0),
+                new SpeedDifferenceResponse(10.0, 20.0, 3.0)), series.speedDifferences(10.0, 20.0));
+        assertEquals(List.of(), series.speedDifferences(10.0, 21.0));
+        assertNull(new VesselSeries("4111").averageCompliance());
+    }
+
+    @Test
+    void testSpeedDifferencesAfterContinuesFromTheCursor() {
+        // Arrange
+        VesselSeries series = new VesselSeries("3001");
+        series.append(List.of(data("2023-10-06T01:00:00Z", 1, 0), data("2023-10-06T02:00:00Z", 2, 0),
+                data("2023-10-06T03:00:00Z", 3, 0)));
+
+        // Act
+        SpeedDifferenceScrollResponse first = series.speedDifferencesAfter(null, 2);
+        SpeedDifferenceScrollResponse second = series.speedDifferencesAfter(SpeedDifferenceCursor.decode(first.getNextCursor()), 2);
+
+        // Assert
+        assertEquals(List.of(1.0, 2.0), first.getContent().stream().map(SpeedDifferenceResponse::getSpeedDifference).toList());
+        assertEquals(new SpeedDifferenceCursor(Instant.parse("2023-10-06T02:00:00Z").getEpochSecond(), 2),
+                SpeedDifferenceCursor.decode(first.getNextCursor()));
+        assertEquals(List.of(3.0), second.getContent().stream().map(SpeedDifferenceResponse::getSpeedDifference).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    private ValidVesselData data(String datetime, long id, double compliance) {
+
+        ValidVesselData data = new ValidVesselData("3001", Instant.parse(datetime), 10.0, 20.0, 1, 1, 1, 1, 1);
+        data.setId(id);
+        data.setSpeedDifference(id);
+        data.setCompliancePercentage(compliance);
+        return data;
+    }
+}
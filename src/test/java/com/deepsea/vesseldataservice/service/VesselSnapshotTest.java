@@ -0,0 +1,144 @@
+package com.deepsea.vesseldataservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.deepsea.vesseldataservice.exception.InvalidSnapshotException;
+import com.deepsea.vesseldataservice.model.GeoGrid;
+import com.deepsea.vesseldataservice.model.InvalidVesselData;
+import com.deepsea.vesseldataservice.model.ValidVesselData;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class VesselSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testSnapshotRoundTripsValidAndInvalidDataAcrossBlocks() throws IOException {
+        // Arrange
+        List<ValidVesselData> validData = List.of(
+                valid("3001", "2023-10-06T01:06:00Z", 44.8565368652344, -51.4986343383789, -1.109869775917801, 88.9),
+                valid("3001", "2023-10-06T01:07:00Z", 44.86, -51.49, 0.5, 95.0),
+                valid("19310", "2023-06-01T00:00:00Z", -12.5, 170.25, 2.0, 75.5));
+        List<InvalidVesselData> invalidData = List.of(
+                invalid("3001", Instant.parse("2023-10-06T02:00:00Z"), null, 10.0, "Number format exception"),
+                invalid("3002", null, 95.0, -5.0, "Invalid latitude or longitude; Negative values"),
+                invalid("3002", Instant.parse("2023-10-06T01:00:00Z"), 45.0, 25.0, "Outliers"));
+        Path file = directory.resolve("snapshot");
+
+        // Act
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            VesselSnapshotWriter writer = new VesselSnapshotWriter(channel, 2);
+            for (ValidVesselData data : validData) {
+                writer.addValid(data);
+            }
+            for (InvalidVesselData data : invalidData) {
+                writer.addInvalid(data);
+            }
+            writer.close();
+        }
+
+        List<List<ValidVesselData>> validBlocks = new ArrayList<>();
+        List<List<InvalidVesselData>> invalidBlocks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            VesselSnapshotReader.read(channel, validBlocks::add, invalidBlocks::add);
+        }
+
+        // Assert
+        assertEquals(2, validBlocks.size());
+        assertEquals(2, invalidBlocks.size());
+        List<ValidVesselData> readValid = validBlocks.stream().flatMap(List::stream).toList();
+        List<InvalidVesselData> readInvalid = invalidBlocks.stream().flatMap(List::stream).toList();
+        for (int i = 0; i < validData.size(); i++) {
+            ValidVesselData expected = validData.get(i);
+            expected.setGeoCell(GeoGrid.cell(expected.getLatitude(), expected.getLongitude()));
+            assertEquals(expected, readValid.get(i));
+        }
+        assertEquals(invalidData, readInvalid);
+        assertNull(readInvalid.get(1).getDatetime());
+        assertNull(readInvalid.get(0).getLatitude());
+    }
+
+    @Test
+    void testReadRejectsFilesThatAreNotSnapshots() throws IOException {
+        // Arrange
+        Path file = Files.writeString(directory.resolve("vessel_data.csv"), "vessel_code,datetime,latitude,longitude\n");
+
+        // Act & Assert
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertThrows(InvalidSnapshotException.class, () -> VesselSnapshotReader.read(channel, data -> { }, data -> { }));
+        }
+    }
+
+    @Test
+    void testReadRejectsTruncatedSnapshots() throws IOException {
+        // Arrange
+        Path file = directory.resolve("snapshot");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            VesselSnapshotWriter writer = new VesselSnapshotWriter(channel, 10);
+            writer.addValid(valid("3001", "2023-10-06T01:06:00Z", 44.85, -51.49, 0.5, 95.0));
+            writer.close();
+            channel.truncate(channel.size() - 1);
+        }
+
+        // Act & Assert
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertThrows(InvalidSnapshotException.class, () -> VesselSnapshotReader.read(channel, data -> { }, data -> { }));
+        }
+    }
+
+    @Test
+    void testReadRejectsCorruptCountsWithoutAllocatingThem() throws IOException {
+        // Arrange
+        Path file = directory.resolve("snapshot");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            VesselSnapshotWriter writer = new VesselSnapshotWriter(channel, 10);
+            writer.addValid(valid("3001", "2023-10-06T01:06:00Z", 44.85, -51.49, 0.5, 95.0));
+            writer.close();
+        }
+        byte[] snapshot = Files.readAllBytes(file);
+        byte[] hugeRowCount = snapshot.clone();
+        ByteBuffer.wrap(hugeRowCount).order(ByteOrder.LITTLE_ENDIAN).putInt(Integer.BYTES * 2 + 1, Integer.MAX_VALUE);
+        byte[] hugeDictionary = snapshot.clone();
+        ByteBuffer.wrap(hugeDictionary).put(Integer.BYTES * 2 + VesselSnapshotWriter.BLOCK_HEADER_BYTES,
+                new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x03});
+
+        // Act & Assert
+        for (byte[] corrupt : List.of(hugeRowCount, hugeDictionary)) {
+            Files.write(file, corrupt);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                assertThrows(InvalidSnapshotException.class, () -> VesselSnapshotReader.read(channel, data -> { }, data -> { }));
+            }
+        }
+    }
+
+    private static ValidVesselData valid(String vesselCode, String datetime, double latitude, double longitude,
+            double speedDifference, double compliancePercentage) {
+
+        ValidVesselData data = new ValidVesselData(vesselCode, Instant.parse(datetime), latitude, longitude, 4947.18, 16.6132,
+                8.95998, 10.0698497759178, 16.4471915433183);
+        data.setSpeedDifference(speedDifference);
+        data.setCompliancePercentage(compliancePercentage);
+        return data;
+    }
+
+    private static InvalidVesselData invalid(String vesselCode, Instant datetime, Double latitude, Double power, String invalidReason) {
+
+        InvalidVesselData data = new InvalidVesselData(vesselCode, datetime, latitude, -51.49, power, null, 8.95, 30.0, 16.44);
+        data.setInvalidReason(invalidReason);
+        return data;
+    }
+}
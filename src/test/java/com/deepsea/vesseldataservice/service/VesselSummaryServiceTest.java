@@ -0,0 +1,111 @@
+package com.deepsea.vesseldataservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.deepsea.vesseldataservice.model.VesselComplianceSummary;
+import com.deepsea.vesseldataservice.model.VesselInvalidReasonCount;
+import com.deepsea.vesseldataservice.repository.VesselComplianceSummaryRepository;
+import com.deepsea.vesseldataservice.repository.VesselInvalidReasonCountRepository;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class VesselSummaryServiceTest {
+
+    @Autowired
+    private CsvService csvService;
+
+    @Autowired
+    private VesselSummaryService vesselSummaryService;
+
+    @Autowired
+    private VesselComplianceSummaryRepository vesselComplianceSummaryRepository;
+
+    @Autowired
+    private VesselInvalidReasonCountRepository vesselInvalidReasonCountRepository;
+
+    @Autowired
+    private VesselQueryCache vesselQueryCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testIncrementalSummariesMatchRebuildAndAggregates() throws Exception {
+        // Arrange
+        csvService.resetCheckpoint();
+        csvService.importCsvFile(IngestionProgress.NONE); // Replayed rows are skipped and must not be counted twice
+        List<VesselComplianceSummary> incrementalSummaries = complianceSummaries();
+        List<VesselInvalidReasonCount> incrementalCounts = invalidReasonCounts();
+
+        // Act
+        vesselSummaryService.rebuild();
+
+        // Assert
+        assertFalse(incrementalSummaries.isEmpty());
+        assertEquals(incrementalSummaries, complianceSummaries());
+        assertEquals(incrementalCounts, invalidReasonCounts());
+        for (VesselComplianceSummary summary : incrementalSummaries) {
+            Double average = jdbcTemplate.queryForObject("SELECT AVG(compliance_percentage) FROM valid_vessel_data WHERE vessel_code = ?",
+                    Double.class, summary.getVesselCode());
+            assertEquals(average, summary.getAverageCompliance(), 1e-9);
+        }
+    }
+
+    @Test
+    @Transactional
+    void testOnlyTheIdsOfTheWriterAreCounted() {
+        // Arrange
+        for (long id = 900_000_001L; id <= 900_000_004L; id++) {
+            jdbcTemplate.update("INSERT INTO valid_vessel_data (id, vessel_code, datetime, latitude, longitude, power, fuel_consumption, "
+                    + "actual_speed_overground, proposed_speed_overground, predicted_fuel_consumption, speed_difference, "
+                    + "compliance_percentage) VALUES (?, 'summary-test', ?, 1, 1, 1, 1, 1, 1, 1, 1, 50)",
+                    id, Instant.ofEpochSecond(id).atOffset(ZoneOffset.UTC));
+        }
+
+        // Act
+        vesselSummaryService.applyValid(new long[] {900_000_004L, 900_000_001L, 900_000_002L}); // 900000003 is another writer's
+
+        // Assert
+        VesselComplianceSummary summary = vesselComplianceSummaryRepository.findById("summary-test").orElseThrow();
+        assertEquals(3, summary.getComplianceCount());
+        assertEquals(150, summary.getComplianceSum(), 1e-9);
+    }
+
+    @Test
+    void testRebuildInvalidatesCachedResults() {
+        // Arrange
+        vesselQueryCache.get("summary-cache-test", "overallCompliance", List.of(), () -> "before rebuild");
+
+        // Act
+        vesselSummaryService.rebuild();
+        String result = vesselQueryCache.get("summary-cache-test", "overallCompliance", List.of(), () -> "after rebuild");
+
+        // Assert
+        assertEquals("after rebuild", result);
+    }
+
+    private List<VesselComplianceSummary> complianceSummaries() {
+
+        return vesselComplianceSummaryRepository.findAll().stream()
+                .sorted(Comparator.comparing(VesselComplianceSummary::getVesselCode))
+                .toList();
+    }
+
+    private List<VesselInvalidReasonCount> invalidReasonCounts() {
+
+        return vesselInvalidReasonCountRepository.findAll().stream()
+                .sorted(Comparator.comparing(VesselInvalidReasonCount::getVesselCode).thenComparing(VesselInvalidReasonCount::getInvalidReason))
+                .toList();
+    }
+}